@@ -0,0 +1,56 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.util.BackupUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures backing up a data directory holding a students CSV of {@code records} rows,
+ * a courses CSV, and a small nested archive folder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BackupBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int records;
+
+    private Path workingDirectory;
+    private Path sourceDirectory;
+    private Path destinationDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingDirectory = Files.createTempDirectory("ccrm-bench-backup");
+        sourceDirectory = Files.createDirectories(workingDirectory.resolve("data"));
+        BenchmarkData.writeStudentsCsv(sourceDirectory.resolve("students.csv"), records);
+        Path archive = Files.createDirectories(sourceDirectory.resolve("archive"));
+        for (int i = 0; i < 10; i++) {
+            BenchmarkData.writeStudentsCsv(archive.resolve("students-" + i + ".csv"), 100);
+        }
+        Files.write(sourceDirectory.resolve("courses.csv"), "2501,Programming in Java,4,011,FALL,CS\n".getBytes());
+    }
+
+    @Setup(Level.Invocation)
+    public void clearDestination() throws IOException {
+        destinationDirectory = workingDirectory.resolve("backup");
+        BenchmarkData.deleteRecursively(destinationDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteRecursively(workingDirectory);
+    }
+
+    @Benchmark
+    public void backupDirectory() throws IOException {
+        BackupUtility.backupDirectory(sourceDirectory, destinationDirectory);
+    }
+}
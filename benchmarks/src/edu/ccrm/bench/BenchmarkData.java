@@ -0,0 +1,80 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.AsyncLogger;
+import edu.ccrm.util.LogLevel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Shared, deterministic fixtures for the benchmarks. Everything here is generated from the
+ * record index, so two runs at the same scale always work on exactly the same data.
+ */
+final class BenchmarkData {
+    static final String[] DEPARTMENTS = { "CS", "EE", "ME", "CE", "MA", "PH" };
+
+    private BenchmarkData() {}
+
+    static String registrationNumber(int index) {
+        return String.format("24MIP%07d", index);
+    }
+
+    static Student student(int index) {
+        return new Student(String.valueOf(index), registrationNumber(index), "Student " + index, "student" + index + "@mail.com");
+    }
+
+    static Course course(int index) {
+        Semester semester = Semester.values()[index % Semester.values().length];
+        return new Course(String.valueOf(1000 + index), "Course " + index, 1 + index % 4,
+            String.format("%03d", index % 50), semester, DEPARTMENTS[index % DEPARTMENTS.length]);
+    }
+
+    static StudentService studentService(int records) {
+        StudentService studentService = new StudentService();
+        for (int i = 0; i < records; i++) studentService.addStudent(student(i));
+        return studentService;
+    }
+
+    static CourseService courseService(int courses) {
+        CourseService courseService = new CourseService();
+        for (int i = 0; i < courses; i++) courseService.addCourse(course(i));
+        return courseService;
+    }
+
+    static void writeStudentsCsv(Path file, int records) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < records; i++) {
+                writer.write(i + "," + registrationNumber(i) + ",Student " + i + ",student" + i + "@mail.com");
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * The services log every record they add. At 1M records that would flood the benchmark log,
+     * so the async logger is switched off while measuring, and System.out is muted for anything else.
+     * @return The original System.out, to be restored on tear-down.
+     */
+    static PrintStream silenceConsole() {
+        AsyncLogger.getInstance().setLevel(LogLevel.OFF);
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+
+    static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) return;
+        try (var paths = Files.walk(root)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.EnrollmentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures enrolling a random student in a random course, with {@code records} students
+ * spread over a catalog of 1,000 courses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrollmentBenchmark {
+    private static final int COURSES = 1_000;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int records;
+
+    private EnrollmentService enrollmentService;
+    private Student[] students;
+    private Course[] courses;
+    private SplittableRandom random;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        enrollmentService = new EnrollmentService();
+        students = new Student[records];
+        for (int i = 0; i < records; i++) students[i] = BenchmarkData.student(i);
+        courses = new Course[COURSES];
+        for (int i = 0; i < COURSES; i++) courses[i] = BenchmarkData.course(i);
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public boolean enrollStudentInCourse() {
+        return enrollmentService.enrollStudentInCourse(students[random.nextInt(records)], courses[random.nextInt(COURSES)]);
+    }
+}
@@ -0,0 +1,57 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.GradingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning marks into a grade, and computing the GPA of a random student
+ * out of {@code records} students who each have eight graded courses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingBenchmark {
+    private static final int COURSES_PER_STUDENT = 8;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int records;
+
+    private final GradingService gradingService = new GradingService();
+    private Student[] students;
+    private int[] marks;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        students = new Student[records];
+        for (int i = 0; i < records; i++) {
+            students[i] = BenchmarkData.student(i);
+            for (int c = 0; c < COURSES_PER_STUDENT; c++) {
+                gradingService.assignMarks(students[i], String.valueOf(1000 + c), random.nextInt(101));
+            }
+        }
+        marks = new int[4096];
+        for (int i = 0; i < marks.length; i++) marks[i] = random.nextInt(101);
+    }
+
+    @Benchmark
+    public Grade calculateGrade() {
+        cursor = (cursor + 1) & (marks.length - 1);
+        return GradingService.calculateGrade(marks[cursor]);
+    }
+
+    @Benchmark
+    public double computeGPA() {
+        cursor = (cursor + 1) % records;
+        return gradingService.computeGPA(students[cursor]);
+    }
+}
@@ -0,0 +1,60 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full CSV import into an empty StudentService, and a full export of a populated one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImportExportBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int records;
+
+    private final ImportExportService importExportService = new ImportExportService();
+    private Path workingDirectory;
+    private Path importFile;
+    private Path exportFile;
+    private StudentService populatedService;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = BenchmarkData.silenceConsole();
+        workingDirectory = Files.createTempDirectory("ccrm-bench-io");
+        importFile = workingDirectory.resolve("students.csv");
+        exportFile = workingDirectory.resolve("students-export.csv");
+        BenchmarkData.writeStudentsCsv(importFile, records);
+        populatedService = BenchmarkData.studentService(records);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteRecursively(workingDirectory);
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public StudentService importStudents() throws IOException {
+        StudentService studentService = new StudentService();
+        importExportService.importStudents(importFile.toString(), studentService);
+        return studentService;
+    }
+
+    @Benchmark
+    public void exportStudents() throws IOException {
+        importExportService.exportStudents(exportFile.toString(), populatedService);
+    }
+}
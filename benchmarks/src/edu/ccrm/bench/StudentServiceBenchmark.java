@@ -0,0 +1,68 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding one more student to a service that already holds {@code records} students,
+ * and looking up a random existing student by registration number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentServiceBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int records;
+
+    private StudentService studentService;
+    private String[] existingRegistrationNumbers;
+    private PrintStream originalOut;
+    private int nextIndex;
+    private int lookupCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = BenchmarkData.silenceConsole();
+        existingRegistrationNumbers = new String[records];
+        for (int i = 0; i < records; i++) existingRegistrationNumbers[i] = BenchmarkData.registrationNumber(i);
+        // Shuffle the lookup order deterministically so lookups don't walk the map in insertion order.
+        java.util.Random random = new java.util.Random(42);
+        for (int i = records - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swap = existingRegistrationNumbers[i];
+            existingRegistrationNumbers[i] = existingRegistrationNumbers[j];
+            existingRegistrationNumbers[j] = swap;
+        }
+    }
+
+    // Rebuilt every iteration, so the map size stays close to the requested scale.
+    @Setup(Level.Iteration)
+    public void populate() {
+        studentService = BenchmarkData.studentService(records);
+        nextIndex = records;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void addStudent() {
+        studentService.addStudent(BenchmarkData.student(nextIndex++));
+    }
+
+    @Benchmark
+    public Student getStudent() {
+        String registrationNumber = existingRegistrationNumbers[lookupCursor];
+        lookupCursor = (lookupCursor + 1) % existingRegistrationNumbers.length;
+        return studentService.getStudent(registrationNumber);
+    }
+}
@@ -2,20 +2,48 @@ package edu.ccrm.cli;
 
 import edu.ccrm.config.AppConfig;
 import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
 import edu.ccrm.domain.Semester;
 import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentVersion;
 import edu.ccrm.domain.TranscriptEntry;
+import edu.ccrm.io.BackupScheduler;
 import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.IngestDaemon;
+import edu.ccrm.io.MarksImportReport;
+import edu.ccrm.io.MergeReport;
+import edu.ccrm.io.TranscriptBatchReport;
+import edu.ccrm.io.TranscriptGenerator;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.service.CourseGradeStatistics;
 import edu.ccrm.service.CourseService;
 import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.GradingSchemeRegistry;
 import edu.ccrm.service.GradingService;
+import edu.ccrm.service.InstructorService;
+import edu.ccrm.service.QueryService;
+import edu.ccrm.service.RolloverReport;
+import edu.ccrm.service.SemesterRollover;
+import edu.ccrm.service.StudentQuery;
+import edu.ccrm.service.CourseQuery;
 import edu.ccrm.service.StudentService;
-import edu.ccrm.util.BackupUtility;
+import edu.ccrm.service.StudentSnapshot;
+import edu.ccrm.service.TeachingLoad;
+import edu.ccrm.util.AsyncLogger;
+import edu.ccrm.util.BackupProgress;
+import edu.ccrm.util.LogLevel;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Scanner;
 
 public class CLIApplication {
@@ -24,8 +52,13 @@ public class CLIApplication {
     private final StudentService studentManager = new StudentService();
     private final CourseService courseManager = new CourseService();
     private final EnrollmentService enrollmentManager = new EnrollmentService();
-    private final GradingService gradingManager = new GradingService();
+    private final GradingService gradingManager = new GradingService(courseManager);
     private final ImportExportService dataTransferService = new ImportExportService();
+    private final TranscriptGenerator transcriptGenerator = new TranscriptGenerator(courseManager, gradingManager);
+    private final QueryService queryManager = new QueryService(studentManager, courseManager, enrollmentManager);
+    private final InstructorService instructorManager = new InstructorService(courseManager, enrollmentManager);
+    private IngestDaemon ingestDaemon; // Created the first time auto-ingest is switched on.
+    private BackupScheduler backupScheduler; // Created when the application starts.
 
     // I'm using a single scanner for all user input.
     private final Scanner inputScanner = new Scanner(System.in);
@@ -38,12 +71,21 @@ public class CLIApplication {
      * It runs a loop to keep the application alive until the user decides to exit.
      */
     public void run() {
+        loadGradingSchemes(false);
+        if (applicationConfiguration.isIngestEnabled()) toggleAutoIngest();
+        backupScheduler = new BackupScheduler(Paths.get(applicationConfiguration.getApplicationDataDirectory()));
+        backupScheduler.start();
         boolean isApplicationRunning = true;
         while (isApplicationRunning) {
+            // Service messages are written in the background; let them finish before we draw the menu.
+            AsyncLogger.getInstance().flush();
             displayMainMenu();
             int menuSelection = getUserChoice();
             isApplicationRunning = handleMenuChoice(menuSelection);
         }
+        if (backupScheduler.isRunning()) System.out.println("Cancelling the backup that's still running...");
+        backupScheduler.shutdown();
+        AsyncLogger.getInstance().flush();
         System.out.println("Exiting application. Goodbye!");
         inputScanner.close(); // Don't forget to close the scanner when we're done!
     }
@@ -56,6 +98,8 @@ public class CLIApplication {
         System.out.println("4. Manage Grades");
         System.out.println("5. Import/Export Data");
         System.out.println("6. Backup Data");
+        System.out.println("7. Performance Stats");
+        System.out.println("8. Manage Instructors");
         System.out.println("0. Exit");
         System.out.print("Please select an option: ");
     }
@@ -95,6 +139,12 @@ public class CLIApplication {
             case 6:
                 backupDataMenu();
                 break;
+            case 7:
+                performanceStatsMenu();
+                break;
+            case 8:
+                instructorManagementMenu();
+                break;
             default:
                 System.out.println("Invalid option. Please try again.");
         }
@@ -106,6 +156,9 @@ public class CLIApplication {
         System.out.println("\n-- Student Management --");
         System.out.println("1. Add a new student");
         System.out.println("2. List all students");
+        System.out.println("3. Search students by name or email");
+        System.out.println("4. Update a student's name or email");
+        System.out.println("5. Browse students (filtered, 50 per page)");
         System.out.print("Select an option: ");
         int userChoice = getUserChoice();
         switch (userChoice) {
@@ -115,6 +168,15 @@ public class CLIApplication {
             case 2:
                 listAllStudents();
                 break;
+            case 3:
+                searchStudents();
+                break;
+            case 4:
+                updateStudentDetails();
+                break;
+            case 5:
+                browseStudents();
+                break;
             default:
                 System.out.println("Invalid option.");
         }
@@ -140,11 +202,88 @@ public class CLIApplication {
         studentManager.listStudents().forEach(student -> System.out.println(student.getProfile()));
     }
 
+    private void searchStudents() {
+        System.out.print("Enter part of a name or email (typos are okay): ");
+        String query = inputScanner.nextLine().trim();
+        if (query.isEmpty()) {
+            System.out.println("Search cancelled: query cannot be empty.");
+            return;
+        }
+        int maxResults = applicationConfiguration.getSearchMaxResults();
+        List<Student> matches = studentManager.searchStudents(query, maxResults);
+        if (matches.isEmpty()) {
+            System.out.println("No students matched '" + query + "'.");
+        } else {
+            System.out.println("\n-- Matching Students (showing up to " + maxResults + ") --");
+            matches.forEach(student -> System.out.println(student.getProfile()));
+        }
+    }
+
+    private void browseStudents() {
+        StudentQuery query = StudentQuery.create();
+        System.out.print("Only active students? (y/n, blank for all): ");
+        String activeChoice = inputScanner.nextLine().trim().toLowerCase();
+        if (activeChoice.equals("y")) query.active(true);
+        else if (activeChoice.equals("n")) query.active(false);
+        System.out.print("Semester (SPRING, SUMMER, FALL, blank for any): ");
+        Semester semester = readOptionalSemester();
+        if (semester != null) query.semester(semester);
+        System.out.print("Department (blank for any): ");
+        String department = inputScanner.nextLine().trim();
+        if (!department.isEmpty()) query.department(department);
+        System.out.print("Enrolled in course code (blank for any): ");
+        String courseCode = inputScanner.nextLine().trim();
+        if (!courseCode.isEmpty()) query.enrolledIn(courseCode);
+        query.sortBy(StudentQuery.SortKey.REGISTRATION_NUMBER);
+
+        for (int page = 0; ; page++) {
+            List<Student> students = queryManager.findStudents(query.page(page));
+            if (students.isEmpty()) {
+                System.out.println(page == 0 ? "No students matched those filters." : "No more students.");
+                return;
+            }
+            System.out.println("\n-- Students, page " + (page + 1) + " --");
+            students.forEach(student -> System.out.println(student.getProfile()));
+            if (students.size() < query.getLimit()) return;
+            System.out.print("Show the next page? (y/n): ");
+            if (!inputScanner.nextLine().trim().equalsIgnoreCase("y")) return;
+        }
+    }
+
+    private Semester readOptionalSemester() {
+        String semesterString = inputScanner.nextLine().trim().toUpperCase();
+        if (semesterString.isEmpty()) return null;
+        try {
+            return Semester.valueOf(semesterString);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown semester '" + semesterString + "', ignoring that filter.");
+            return null;
+        }
+    }
+
+    private void updateStudentDetails() {
+        System.out.print("Enter Student Registration Number: ");
+        String registrationNumber = inputScanner.nextLine();
+        System.out.print("Enter new Full Name (leave blank to keep current): ");
+        String fullName = inputScanner.nextLine().trim();
+        System.out.print("Enter new Email (leave blank to keep current): ");
+        String email = inputScanner.nextLine().trim();
+
+        boolean updated = studentManager.updateStudent(registrationNumber,
+                fullName.isEmpty() ? null : fullName, email.isEmpty() ? null : email);
+        if (updated) {
+            System.out.println("Student details updated successfully.");
+        } else {
+            System.out.println("Error: Student not found with Registration Number: " + registrationNumber);
+        }
+    }
+
     // --- Course Management ---
     private void courseManagementMenu() {
         System.out.println("\n-- Course Management --");
         System.out.println("1. Add a new course");
         System.out.println("2. List all courses");
+        System.out.println("3. Browse courses (filtered, 50 per page)");
         System.out.print("Select an option: ");
         int userChoice = getUserChoice();
         switch (userChoice) {
@@ -154,6 +293,9 @@ public class CLIApplication {
             case 2:
                 listAllCourses();
                 break;
+            case 3:
+                browseCourses();
+                break;
             default:
                 System.out.println("Invalid option.");
         }
@@ -178,6 +320,9 @@ public class CLIApplication {
         Course course = new Course(courseCode, title, credits, instructorId, semester, department);
         courseManager.addCourse(course);
         System.out.println("Course added successfully!");
+        if (!instructorId.isBlank() && instructorManager.getInstructor(instructorId) == null) {
+            System.out.println("Note: no instructor with ID '" + instructorId + "' is registered yet.");
+        }
     }
 
     private void listAllCourses() {
@@ -185,11 +330,35 @@ public class CLIApplication {
         courseManager.listCourses().forEach(System.out::println);
     }
 
+    private void browseCourses() {
+        CourseQuery query = CourseQuery.create().sortBy(CourseQuery.SortKey.COURSE_CODE);
+        System.out.print("Semester (SPRING, SUMMER, FALL, blank for any): ");
+        Semester semester = readOptionalSemester();
+        if (semester != null) query.semester(semester);
+        System.out.print("Department (blank for any): ");
+        String department = inputScanner.nextLine().trim();
+        if (!department.isEmpty()) query.department(department);
+
+        for (int page = 0; ; page++) {
+            List<Course> courses = queryManager.findCourses(query.page(page));
+            if (courses.isEmpty()) {
+                System.out.println(page == 0 ? "No courses matched those filters." : "No more courses.");
+                return;
+            }
+            System.out.println("\n-- Courses, page " + (page + 1) + " --");
+            courses.forEach(System.out::println);
+            if (courses.size() < query.getLimit()) return;
+            System.out.print("Show the next page? (y/n): ");
+            if (!inputScanner.nextLine().trim().equalsIgnoreCase("y")) return;
+        }
+    }
+
     // --- Enrollment Management ---
     private void enrollmentManagementMenu() {
         System.out.println("\n-- Enrollment Management --");
         System.out.println("1. Enroll a student in a course");
         System.out.println("2. View a student's enrollments");
+        System.out.println("3. Close out a semester (end-of-term rollover)");
         System.out.print("Select an option: ");
         int userChoice = getUserChoice();
         switch (userChoice) {
@@ -199,6 +368,9 @@ public class CLIApplication {
             case 2:
                 viewStudentEnrollments();
                 break;
+            case 3:
+                rollOverSemester();
+                break;
             default:
                 System.out.println("Invalid option.");
         }
@@ -211,9 +383,7 @@ public class CLIApplication {
         String courseCode = inputScanner.nextLine();
 
         Student student = studentManager.getStudent(registrationNumber);
-        Course course = courseManager.listCourses().stream()
-                .filter(c -> c.getCourseCode().equals(courseCode))
-                .findFirst().orElse(null);
+        Course course = courseManager.getCourse(courseCode);
 
         if (student == null) {
             System.out.println("Error: Student not found with Registration Number: " + registrationNumber);
@@ -238,6 +408,31 @@ public class CLIApplication {
             System.out.println("Error: Student not found.");
         } else {
             System.out.println(student.getProfile());
+            System.out.println("Credits this term: " + student.getTermCredits());
+            student.getCourseHistory().forEach(entry -> System.out.println("  History: " + entry));
+        }
+    }
+
+    private void rollOverSemester() {
+        System.out.print("Semester to close out (SPRING, SUMMER, FALL): ");
+        Semester semester = readOptionalSemester();
+        if (semester == null) {
+            System.out.println("Rollover cancelled: no semester given.");
+            return;
+        }
+        System.out.print("This finalizes " + semester + " grades and moves its enrollments into history. Continue? (y/n): ");
+        if (!inputScanner.nextLine().trim().equalsIgnoreCase("y")) return;
+
+        Path dataDirectory = Paths.get(applicationConfiguration.getApplicationDataDirectory());
+        SemesterRollover rollover = new SemesterRollover(studentManager, courseManager, enrollmentManager, dataDirectory);
+        try {
+            RolloverReport report = runQuietly(() -> rollover.run(semester));
+            System.out.println(report);
+            Path reportPath = dataDirectory.resolve("rollover-" + semester + "-report.txt");
+            report.writeReport(reportPath);
+            System.out.println("Summary saved to " + reportPath + ".");
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
 
@@ -246,6 +441,10 @@ public class CLIApplication {
         System.out.println("\n-- Grading Management --");
         System.out.println("1. Assign a grade to a student");
         System.out.println("2. View a student's transcript");
+        System.out.println("3. Course grade statistics report");
+        System.out.println("4. Reload grading schemes and re-grade all students");
+        System.out.println("5. Top students by GPA");
+        System.out.println("6. Generate transcript files for all students");
         System.out.print("Select an option: ");
         int userChoice = getUserChoice();
         switch (userChoice) {
@@ -255,6 +454,18 @@ public class CLIApplication {
             case 2:
                 viewStudentTranscript();
                 break;
+            case 3:
+                viewCourseGradeStatistics();
+                break;
+            case 4:
+                loadGradingSchemes(true);
+                break;
+            case 5:
+                viewGpaRanking();
+                break;
+            case 6:
+                generateTranscriptFiles();
+                break;
             default:
                 System.out.println("Invalid option.");
         }
@@ -279,7 +490,10 @@ public class CLIApplication {
             System.out.println("Error: Student is not enrolled in this course.");
             return;
         }
-        gradingManager.assignMarks(student, courseCode, marks);
+        if (!gradingManager.assignMarks(student, courseCode, marks)) {
+            System.out.println("Error: The grade for this course is already final and can't be changed.");
+            return;
+        }
         System.out.println("Marks and grade have been assigned successfully.");
     }
 
@@ -300,6 +514,90 @@ public class CLIApplication {
         }
     }
 
+    private void viewGpaRanking() {
+        int limit = applicationConfiguration.getSearchMaxResults();
+        List<StudentVersion> ranking;
+        // Ranked from a snapshot, so grades assigned meanwhile (e.g. by an import) can't skew the list.
+        try (StudentSnapshot snapshot = studentManager.openSnapshot()) {
+            ranking = gradingManager.rankByGPA(snapshot, limit);
+        }
+        if (ranking.isEmpty()) {
+            System.out.println("No grades have been assigned yet.");
+            return;
+        }
+        System.out.println("\n-- Top " + ranking.size() + " Students by GPA --");
+        int position = 1;
+        for (StudentVersion student : ranking) {
+            System.out.printf("%2d. %s (%s): %.2f%n", position++, student.getName(), student.getRegistrationNumber(),
+                gradingManager.computeGPA(student));
+        }
+    }
+
+    private void generateTranscriptFiles() {
+        String defaultDirectory = applicationConfiguration.getApplicationDataDirectory() + "/transcripts";
+        System.out.print("Enter the output directory (default: " + defaultDirectory + "): ");
+        String outputDirectory = inputScanner.nextLine().trim();
+        if (outputDirectory.isEmpty()) outputDirectory = defaultDirectory;
+        System.out.print("Format - 1. Text, 2. HTML (default: 1): ");
+        TranscriptGenerator.Format format = "2".equals(inputScanner.nextLine().trim())
+            ? TranscriptGenerator.Format.HTML : TranscriptGenerator.Format.TEXT;
+        System.out.print("Only active students? (y/n, default: y): ");
+        boolean activeOnly = !"n".equalsIgnoreCase(inputScanner.nextLine().trim());
+
+        // Generated from a snapshot, so every transcript in the batch reflects the same moment.
+        try (StudentSnapshot snapshot = studentManager.openSnapshot()) {
+            TranscriptBatchReport report = transcriptGenerator.generateTranscripts(snapshot,
+                student -> !activeOnly || student.isActive(), Paths.get(outputDirectory), format);
+            System.out.println("Transcripts generated. " + report);
+        } catch (IOException e) {
+            System.out.println("Error: Failed to generate transcripts. " + e.getMessage());
+        }
+    }
+
+    private void viewCourseGradeStatistics() {
+        System.out.print("Enter Course Code (blank for all courses): ");
+        String courseCode = inputScanner.nextLine().trim();
+
+        List<CourseGradeStatistics> report = new ArrayList<>();
+        if (courseCode.isEmpty()) {
+            report.addAll(gradingManager.getAllCourseStatistics());
+            report.sort(Comparator.comparing(CourseGradeStatistics::getCourseCode));
+        } else if (gradingManager.getCourseStatistics(courseCode) != null) {
+            report.add(gradingManager.getCourseStatistics(courseCode));
+        }
+        if (report.isEmpty()) {
+            System.out.println("No grades have been assigned yet" + (courseCode.isEmpty() ? "." : " for " + courseCode + "."));
+            return;
+        }
+
+        System.out.println("\n-- Course Grade Statistics --");
+        for (CourseGradeStatistics statistics : report) {
+            System.out.printf("%s: %d graded | mean %.2f | median %.1f | std dev %.2f | p90 %d%n",
+                statistics.getCourseCode(), statistics.getCount(), statistics.getMean(),
+                statistics.getMedian(), statistics.getStandardDeviation(), statistics.getPercentile(90));
+            StringBuilder histogram = new StringBuilder("    ");
+            for (Grade grade : Grade.values()) {
+                histogram.append(grade).append(": ").append(statistics.getGradeCount(grade)).append("  ");
+            }
+            System.out.println(histogram.toString().stripTrailing());
+        }
+    }
+
+    private void loadGradingSchemes(boolean regradeAfterLoading) {
+        Path schemesPath = Paths.get(applicationConfiguration.getApplicationDataDirectory(), "grading-schemes.properties");
+        try {
+            gradingManager.setGradingSchemes(GradingSchemeRegistry.load(schemesPath));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Warning: Could not load grading schemes from " + schemesPath + ": " + e.getMessage());
+            return;
+        }
+        if (regradeAfterLoading) {
+            System.out.println("Loaded grading schemes: " + gradingManager.getGradingSchemes().getSchemes());
+            int changedEntries = gradingManager.regradeAll(studentManager.studentView());
+            System.out.println("Re-grading complete. " + changedEntries + " transcript entries changed grade.");
+        }
+    }
+
     // --- Data Import/Export ---
     private void dataImportExportMenu() {
         System.out.println("\n-- Data Import/Export --");
@@ -307,6 +605,10 @@ public class CLIApplication {
         System.out.println("2. Export students to CSV");
         System.out.println("3. Import courses from CSV");
         System.out.println("4. Export courses to CSV");
+        System.out.println("5. Import marks from CSV");
+        System.out.println("6. Import enrollments from CSV");
+        System.out.println("7. Start/stop auto-ingest of the data folder");
+        System.out.println("8. Merge (upsert) students from CSV");
         System.out.print("Select an option: ");
         int userChoice = getUserChoice();
         switch (userChoice) {
@@ -322,6 +624,18 @@ public class CLIApplication {
             case 4:
                 handleCourseExport();
                 break;
+            case 5:
+                handleMarksImport();
+                break;
+            case 6:
+                handleEnrollmentImport();
+                break;
+            case 7:
+                toggleAutoIngest();
+                break;
+            case 8:
+                handleStudentMerge();
+                break;
             default:
                 System.out.println("Invalid option. Please try again.");
         }
@@ -333,13 +647,26 @@ public class CLIApplication {
         if (selectedFilePath == null) return; // User cancelled or provided invalid input
 
         try {
-            int importedFileCount = dataTransferService.importStudents(selectedFilePath, studentManager);
+            int importedFileCount = runQuietly(() -> dataTransferService.importStudents(selectedFilePath, studentManager));
             System.out.println("Successfully imported " + importedFileCount + " students from " + selectedFilePath + ".");
         } catch (IOException e) {
             System.out.println("Error: Failed to import students. " + e.getMessage());
         }
     }
 
+    private void handleStudentMerge() {
+        String defaultFilePath = applicationConfiguration.getApplicationDataDirectory() + "/students.csv";
+        String selectedFilePath = promptForFilePath("students.csv", defaultFilePath);
+        if (selectedFilePath == null) return; // User cancelled or provided invalid input
+
+        try {
+            MergeReport report = runQuietly(() -> dataTransferService.mergeStudents(selectedFilePath, studentManager));
+            System.out.println("Merged students from " + selectedFilePath + ". " + report);
+        } catch (IOException e) {
+            System.out.println("Error: Failed to merge students. " + e.getMessage());
+        }
+    }
+
     private void handleStudentExport() {
         String defaultFilePath = applicationConfiguration.getApplicationDataDirectory() + "/students.csv";
         String selectedFilePath = promptForFilePath("students.csv", defaultFilePath);
@@ -359,7 +686,7 @@ public class CLIApplication {
         if (selectedFilePath == null) return; // User cancelled or provided invalid input
 
         try {
-            int importedFileCount = dataTransferService.importCourses(selectedFilePath, courseManager);
+            int importedFileCount = runQuietly(() -> dataTransferService.importCourses(selectedFilePath, courseManager));
             System.out.println("Successfully imported " + importedFileCount + " courses from " + selectedFilePath + ".");
         } catch (IOException e) {
             System.out.println("Error: Failed to import courses. " + e.getMessage());
@@ -379,6 +706,75 @@ public class CLIApplication {
         }
     }
 
+    private void handleEnrollmentImport() {
+        String defaultFilePath = applicationConfiguration.getApplicationDataDirectory() + "/enrollments.csv";
+        String selectedFilePath = promptForFilePath("enrollments.csv", defaultFilePath);
+        if (selectedFilePath == null) return; // User cancelled or provided invalid input
+
+        try {
+            int importedEnrollmentCount = dataTransferService.importEnrollments(selectedFilePath, studentManager, courseManager, enrollmentManager);
+            System.out.println("Successfully imported " + importedEnrollmentCount + " enrollments from " + selectedFilePath + ".");
+        } catch (IOException e) {
+            System.out.println("Error: Failed to import enrollments. " + e.getMessage());
+        }
+    }
+
+    private void toggleAutoIngest() {
+        if (ingestDaemon != null && ingestDaemon.isRunning()) {
+            ingestDaemon.stop();
+            System.out.println("Auto-ingest stopped after importing " + ingestDaemon.getIngestedRowCount() + " rows.");
+            return;
+        }
+        Path dataDirectory = Paths.get(applicationConfiguration.getApplicationDataDirectory());
+        if (ingestDaemon == null) ingestDaemon = new IngestDaemon(dataDirectory, studentManager, courseManager);
+        try {
+            ingestDaemon.start();
+            System.out.println("Auto-ingest is watching '" + dataDirectory + "' for new students*.csv / courses*.csv rows.");
+        } catch (IOException e) {
+            System.out.println("Error: Could not start auto-ingest. " + e.getMessage());
+        }
+    }
+
+    private void handleMarksImport() {
+        String defaultFilePath = applicationConfiguration.getApplicationDataDirectory() + "/marks.csv";
+        String selectedFilePath = promptForFilePath("marks.csv", defaultFilePath);
+        if (selectedFilePath == null) return; // User cancelled or provided invalid input
+
+        try {
+            MarksImportReport report = dataTransferService.importMarks(selectedFilePath, studentManager, courseManager,
+                enrollmentManager, gradingManager);
+            System.out.println("Applied marks for " + report.getAppliedCount() + " rows from " + selectedFilePath + ".");
+            if (report.hasExceptions()) {
+                Path reportPath = Paths.get(selectedFilePath + ".exceptions.csv");
+                report.writeExceptionsReport(reportPath);
+                System.out.println(report.getRejectedRows().size() + " rows were rejected. See " + reportPath + " for details.");
+            }
+        } catch (IOException e) {
+            System.out.println("Error: Failed to import marks. " + e.getMessage());
+        }
+    }
+
+    // A bulk import that can fail with an IOException, returning its count or report.
+    private interface BulkImport<T> {
+        T run() throws IOException;
+    }
+
+    // Bulk imports would otherwise log a line for every record. Only warnings and errors are kept,
+    // and if the log buffer overflows we drop lines rather than slow the import down. This only
+    // applies to the import (and the pools it starts); other threads keep logging as configured.
+    private <T> T runQuietly(BulkImport<T> bulkImport) throws IOException {
+        AsyncLogger logger = AsyncLogger.getInstance();
+        AsyncLogger.QuietScope quiet = logger.quietScope(LogLevel.WARN, AsyncLogger.OverflowPolicy.DROP);
+        try {
+            return bulkImport.run();
+        } finally {
+            quiet.close();
+            logger.flush();
+            long dropped = quiet.getDroppedCount();
+            if (dropped > 0) System.out.println("(" + dropped + " warning messages were skipped to keep the import fast.)");
+        }
+    }
+
     private String promptForFilePath(String defaultFileName, String defaultFullPath) {
         System.out.println("\nWould you like to use the default path for " + defaultFileName + "?");
         System.out.println("Default path: " + defaultFullPath);
@@ -399,32 +795,177 @@ public class CLIApplication {
     // --- Backup ---
     private void backupDataMenu() {
         System.out.println("\n-- Data Backup --");
+        System.out.println("1. Start a backup (runs in the background)");
+        System.out.println("2. Show backup status");
+        System.out.println("3. Cancel the running backup");
+        System.out.print("Select an option: ");
+        int userChoice = getUserChoice();
+        switch (userChoice) {
+            case 1:
+                startBackup();
+                break;
+            case 2:
+                showBackupStatus();
+                break;
+            case 3:
+                if (backupScheduler.cancel()) {
+                    System.out.println("Backup cancelled. Files copied so far have been kept.");
+                } else {
+                    System.out.println("No backup is running.");
+                }
+                break;
+            default:
+                System.out.println("Invalid option.");
+        }
+    }
+
+    private void startBackup() {
         String defaultSourceDirectory = applicationConfiguration.getApplicationDataDirectory();
         System.out.println("The default source directory for backup is: " + defaultSourceDirectory);
-        System.out.print("Enter the destination directory for the backup (e.g., /home/user/backups): ");
+        System.out.print("Enter the destination directory for the backup (blank for a new folder under '"
+            + applicationConfiguration.getBackupDirectory() + "'): ");
         String backupDestinationPath = inputScanner.nextLine().trim();
 
-        if (backupDestinationPath.isEmpty()) {
-            System.out.println("Backup cancelled: Destination directory cannot be empty.");
+        BackupProgress progress = backupScheduler.backupNow(backupDestinationPath.isEmpty() ? null : Paths.get(backupDestinationPath));
+        if (progress == null) {
+            System.out.println("A backup is already running. Check its status, or cancel it first.");
+        } else {
+            System.out.println("Backup to '" + progress.getDestinationDirectory() + "' started in the background. "
+                + "Use 'Show backup status' to follow it.");
+        }
+    }
+
+    private void showBackupStatus() {
+        BackupProgress backup = backupScheduler.getLatestBackup();
+        if (backup == null) {
+            System.out.println("No backup has run yet.");
+        } else {
+            System.out.println("\n-- Latest Backup --");
+            System.out.println("Destination: " + backup.getDestinationDirectory());
+            System.out.println("State: " + backup.getState()
+                + (backup.getFailureMessage() != null ? " (" + backup.getFailureMessage() + ")" : ""));
+            System.out.printf("Progress: %.1f%% | %d of %d files | %.1f of %.1f MB | %d failed%n",
+                backup.getPercentComplete(), backup.getCopiedFiles(), backup.getTotalFiles(),
+                backup.getCopiedBytes() / 1048576.0, backup.getTotalBytes() / 1048576.0, backup.getFailedFiles());
+            System.out.printf("Elapsed: %d s | average %.1f MB/s%n",
+                backup.getElapsed().getSeconds(), backup.getBytesPerSecond() / 1048576.0);
+        }
+        long nextRun = backupScheduler.getNextScheduledRunMillis();
+        if (nextRun < 0) {
+            System.out.println("Scheduled backups are off (set backup.interval.minutes to turn them on).");
+        } else {
+            System.out.println("Next scheduled backup: " + Instant.ofEpochMilli(nextRun)
+                .atZone(ZoneId.systemDefault()).toLocalDateTime().withNano(0));
+        }
+    }
+
+    // --- Performance Stats ---
+    // --- Instructor Management ---
+    private void instructorManagementMenu() {
+        System.out.println("\n-- Instructor Management --");
+        System.out.println("1. Add a new instructor");
+        System.out.println("2. List all instructors");
+        System.out.println("3. View courses taught by an instructor");
+        System.out.println("4. Assign a course to an instructor");
+        System.out.println("5. Teaching load report for a semester");
+        System.out.print("Select an option: ");
+        int userChoice = getUserChoice();
+        switch (userChoice) {
+            case 1:
+                addNewInstructor();
+                break;
+            case 2:
+                instructorManager.listInstructors().forEach(instructor -> System.out.println(instructor.getProfile()));
+                break;
+            case 3:
+                viewCoursesTaughtBy();
+                break;
+            case 4:
+                assignCourseInstructor();
+                break;
+            case 5:
+                viewTeachingLoads();
+                break;
+            default:
+                System.out.println("Invalid option.");
+        }
+    }
+
+    private void addNewInstructor() {
+        System.out.print("Enter Instructor ID: ");
+        String instructorId = inputScanner.nextLine().trim();
+        System.out.print("Enter Full Name: ");
+        String fullName = inputScanner.nextLine();
+        System.out.print("Enter Email: ");
+        String email = inputScanner.nextLine();
+        System.out.print("Enter Department: ");
+        String department = inputScanner.nextLine();
+        instructorManager.addInstructor(new Instructor(instructorId, fullName, email, department));
+    }
+
+    private void viewCoursesTaughtBy() {
+        System.out.print("Enter Instructor ID: ");
+        String instructorId = inputScanner.nextLine().trim();
+        List<Course> taught = instructorManager.getCoursesTaughtBy(instructorId);
+        if (taught.isEmpty()) {
+            System.out.println("Instructor " + instructorId + " isn't teaching any courses.");
             return;
         }
+        taught.forEach(System.out::println);
+        for (Semester semester : Semester.values()) {
+            TeachingLoad load = instructorManager.getTeachingLoad(instructorId, semester);
+            if (load != null && load.getCourseCount() > 0) System.out.println(load);
+        }
+    }
 
-        try {
-            Path backupSourcePath = Paths.get(defaultSourceDirectory);
-            Path backupDestination = Paths.get(backupDestinationPath);
+    private void assignCourseInstructor() {
+        System.out.print("Enter Course Code: ");
+        String courseCode = inputScanner.nextLine().trim();
+        System.out.print("Enter the new Instructor ID: ");
+        String instructorId = inputScanner.nextLine().trim();
+        if (instructorManager.getInstructor(instructorId) == null) {
+            System.out.println("Error: No instructor with ID '" + instructorId + "' is registered.");
+        } else if (courseManager.assignInstructor(courseCode, instructorId)) {
+            System.out.println(courseCode + " is now taught by " + instructorId + ".");
+        } else {
+            System.out.println("Error: Course not found.");
+        }
+    }
 
-            // Just a little check to make sure the destination exists, or we can create it.
-            if (!java.nio.file.Files.exists(backupDestination)) {
-                java.nio.file.Files.createDirectories(backupDestination);
-                System.out.println("Created backup destination directory: " + backupDestination);
+    private void viewTeachingLoads() {
+        System.out.print("Semester (SPRING, SUMMER, FALL): ");
+        Semester semester = readOptionalSemester();
+        if (semester == null) return;
+        List<TeachingLoad> report = instructorManager.getTeachingLoads(semester);
+        if (report.isEmpty()) {
+            System.out.println("Nobody is teaching in " + semester + ".");
+        } else {
+            System.out.println("\n-- Teaching Load, " + semester + " --");
+            for (TeachingLoad load : report) {
+                Instructor instructor = instructorManager.getInstructor(load.getInstructorId());
+                System.out.printf("%-10s %-25s %3d courses %4d credits %6d students%n", load.getInstructorId(),
+                    instructor == null ? "(not registered)" : instructor.getName(),
+                    load.getCourseCount(), load.getTotalCredits(), load.getEnrolledStudents());
             }
+        }
+        List<String> unregistered = instructorManager.findUnregisteredInstructorIds();
+        if (!unregistered.isEmpty()) System.out.println("Courses refer to unregistered instructors: " + unregistered);
+    }
 
-            BackupUtility.backupDirectory(backupSourcePath, backupDestination);
-            System.out.println("Backup completed successfully from '" + backupSourcePath + "' to '" + backupDestination + "'!");
-        } catch (Exception e) {
-            System.out.println("Error: Backup failed. Something went wrong: " + e.getMessage());
-            // For debugging, it's sometimes helpful to print the stack trace, but for a user, a simple message is better.
-            // e.printStackTrace();
+    private void performanceStatsMenu() {
+        System.out.println("\n-- Performance Stats (latencies in microseconds) --");
+        System.out.printf("%-40s %10s %8s %10s %10s %10s %10s%n", "Operation", "Calls", "Errors", "Mean", "p50", "p99", "Max");
+        for (OperationMetrics metrics : MetricsRegistry.getInstance().getAll()) {
+            if (metrics.getCount() == 0) continue; // Nothing to show for operations nobody has called yet.
+            System.out.printf("%-40s %10d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                metrics.getComponent() + "." + metrics.getOperation(), metrics.getCount(), metrics.getErrorCount(),
+                metrics.getMeanMicros(), metrics.getP50Micros(), metrics.getP99Micros(), metrics.getMaxMicros());
+        }
+        System.out.println("These are also published as MBeans under 'edu.ccrm' (try JConsole or VisualVM).");
+        System.out.print("Reset all counters? (y/n): ");
+        if (inputScanner.nextLine().trim().equalsIgnoreCase("y")) {
+            MetricsRegistry.getInstance().resetAll();
+            System.out.println("All performance counters have been reset.");
         }
     }
 }
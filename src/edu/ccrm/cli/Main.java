@@ -4,7 +4,8 @@ import edu.ccrm.config.AppConfig;
 
 public class Main {
     public static void main(String[] args) {
-        AppConfig.getInstance().loadConfig();
+        AppConfig.getInstance().loadConfig(args);
+        AppConfig.getInstance().startWatching();
         CLIApplication cliApplication = new CLIApplication();
         cliApplication.run();
     }
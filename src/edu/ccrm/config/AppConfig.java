@@ -1,18 +1,60 @@
 package edu.ccrm.config;
 
+import edu.ccrm.util.AsyncLogger;
+import edu.ccrm.util.LogLevel;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.time.LocalDate;
+import java.io.Reader;
+import java.nio.file.*;
+import java.util.*;
 
 /**
  * This class acts as a central configuration holder for our application.
  * It's implemented as a Singleton, meaning there will only ever be one instance of it,
  * which is pretty useful for global settings like where our data lives.
+ *
+ * Settings come from three places, and later ones win:
+ * <ol>
+ *   <li>a properties file ({@code ccrm.properties} in the working directory, or wherever
+ *       {@code -Dccrm.config} / {@code CCRM_CONFIG} points),</li>
+ *   <li>environment variables, named after the key in upper case with dots as underscores
+ *       (so {@code import.parallelism} becomes {@code CCRM_IMPORT_PARALLELISM}),</li>
+ *   <li>command-line arguments of the form {@code --import.parallelism=8}.</li>
+ * </ol>
+ * Once watching is started, edits to the properties file are picked up without a restart.
+ * Everything except the data directory can change on the fly; a new data directory only takes
+ * effect on the next start, since services have already read and written files in the old one.
  */
 public class AppConfig {
+    public static final String DATA_DIRECTORY = "data.dir";
+    public static final String IMPORT_PARALLELISM = "import.parallelism";
+    public static final String IMPORT_BATCH_SIZE = "import.batch.size";
+    public static final String SEARCH_MAX_RESULTS = "search.max.results";
+    public static final String BACKUP_CONCURRENCY = "backup.concurrency";
+    public static final String LOG_LEVEL = "log.level";
+    public static final String INGEST_ENABLED = "ingest.enabled";
+    public static final String BACKUP_DIRECTORY = "backup.dir";
+    public static final String BACKUP_INTERVAL_MINUTES = "backup.interval.minutes";
+    public static final String BACKUP_MAX_BYTES_PER_SECOND = "backup.max.bytes.per.second";
+    public static final String BACKUP_MAX_FILES_PER_SECOND = "backup.max.files.per.second";
+
     private static AppConfig configInstance; // The single instance of our configuration.
-    private String dataDirectoryPath = "data"; // Default directory for application data.
+
+    private volatile String dataDirectoryPath = "data"; // Default directory for application data.
+    private volatile int importParallelism = Runtime.getRuntime().availableProcessors();
+    private volatile int importBatchSize = 5_000;
+    private volatile int searchMaxResults = 20;
+    private volatile int backupConcurrency = 2;
+    private volatile LogLevel logLevel = LogLevel.INFO;
+    private volatile boolean ingestEnabled = false;
+    private volatile String backupDirectoryPath = "backups";
+    private volatile long backupIntervalMinutes = 0; // 0 means scheduled backups are off.
+    private volatile long backupMaxBytesPerSecond = 0; // 0 means no limit.
+    private volatile long backupMaxFilesPerSecond = 0;
+
+    private Path configFilePath;
+    private String[] commandLineArguments = new String[0];
+    private Thread configWatcher;
 
     // The constructor is private to prevent direct instantiation from outside.
     private AppConfig() {}
@@ -20,24 +62,34 @@ public class AppConfig {
     /**
      * Provides the global instance of the AppConfig. If it doesn't exist yet, it creates it.
      * This is the classic way to get hold of our configuration settings.
+     * Synchronized, since the config watcher thread reads it too.
      * @return The singleton instance of AppConfig.
      */
-    public static AppConfig getInstance() {
+    public static synchronized AppConfig getInstance() {
         if (configInstance == null) {
-            // Double-checked locking could be used here for thread safety in a multi-threaded environment,
-            // but for a simple CLI app, this is usually sufficient.
             configInstance = new AppConfig();
         }
         return configInstance;
     }
 
     /**
-     * A simple method to simulate loading configuration settings.
-     * For now, it just prints out the data folder, but in a real app, it might read from a file.
-     * This method also ensures that the application's data directory exists.
+     * Loads configuration without any command-line overrides.
      */
     public void loadConfig() {
-        System.out.println("Loaded AppConfig. Application data will be stored in: " + dataDirectoryPath);
+        loadConfig(new String[0]);
+    }
+
+    /**
+     * Loads configuration from the properties file, environment and command line (in that order),
+     * and makes sure the application's data directory exists.
+     * @param args The program arguments; any {@code --key=value} entries override the other sources.
+     */
+    public void loadConfig(String[] args) {
+        commandLineArguments = args.clone();
+        configFilePath = resolveConfigFilePath();
+        applySettings(readSettings(), true);
+        System.out.println("Loaded AppConfig" + (Files.exists(configFilePath) ? " from " + configFilePath : "")
+            + ". Application data will be stored in: " + dataDirectoryPath);
         try {
             // Let's make sure our data directory is actually there. If not, we'll create it.
             Files.createDirectories(Paths.get(dataDirectoryPath));
@@ -48,12 +100,174 @@ public class AppConfig {
         }
     }
 
+    /**
+     * Starts a background thread that watches the properties file and re-applies it whenever it changes.
+     * Calling this more than once does nothing.
+     */
+    public synchronized void startWatching() {
+        if (configWatcher != null || configFilePath == null) return;
+        Path directory = configFilePath.toAbsolutePath().getParent();
+        if (directory == null || !Files.isDirectory(directory)) return;
+        configWatcher = new Thread(() -> watchForChanges(directory), "ccrm-config-watcher");
+        configWatcher.setDaemon(true);
+        configWatcher.start();
+    }
+
+    /**
+     * Re-reads every source and applies whatever can safely change at runtime.
+     */
+    public synchronized void reload() {
+        applySettings(readSettings(), false);
+    }
+
     public String getApplicationDataDirectory() {
         return dataDirectoryPath;
     }
 
-    // We could add a setter for dataDirectoryPath if we wanted to make it configurable at runtime.
-    // public void setApplicationDataDirectory(String dataDirectoryPath) {
-    //     this.dataDirectoryPath = dataDirectoryPath;
-    // }
+    /** How many worker threads bulk imports may use. */
+    public int getImportParallelism() { return importParallelism; }
+
+    /** How many rows bulk imports apply in one batch. */
+    public int getImportBatchSize() { return importBatchSize; }
+
+    /** The maximum number of hits the student search returns. */
+    public int getSearchMaxResults() { return searchMaxResults; }
+
+    /** How many files a backup may copy at the same time. */
+    public int getBackupConcurrency() { return backupConcurrency; }
+
+    public LogLevel getLogLevel() { return logLevel; }
+
+    /** Whether the data directory auto-ingest daemon should start with the application. */
+    public boolean isIngestEnabled() { return ingestEnabled; }
+
+    /** Where scheduled backups are written; each run gets its own timestamped folder inside it. */
+    public String getBackupDirectory() { return backupDirectoryPath; }
+
+    /** How often to back up automatically, in minutes. 0 means never. */
+    public long getBackupIntervalMinutes() { return backupIntervalMinutes; }
+
+    /** The most bytes per second a backup may copy. 0 means no limit. */
+    public long getBackupMaxBytesPerSecond() { return backupMaxBytesPerSecond; }
+
+    /** The most files per second a backup may open. 0 means no limit. */
+    public long getBackupMaxFilesPerSecond() { return backupMaxFilesPerSecond; }
+
+    public Path getConfigFilePath() { return configFilePath; }
+
+    private void watchForChanges(Path directory) {
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            Path fileName = configFilePath.getFileName();
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean configChanged = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) configChanged = true;
+                }
+                key.reset();
+                if (configChanged) {
+                    Thread.sleep(100); // Editors often write a file in several steps; give them a moment.
+                    reload();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Stopped watching " + configFilePath + " for changes: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path resolveConfigFilePath() {
+        String location = System.getProperty("ccrm.config");
+        if (location == null) location = System.getenv("CCRM_CONFIG");
+        return Paths.get(location == null ? "ccrm.properties" : location);
+    }
+
+    // Merges the properties file, then the environment, then the command line, into one map.
+    private Map<String, String> readSettings() {
+        Map<String, String> settings = new HashMap<>();
+        if (Files.exists(configFilePath)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(configFilePath)) {
+                properties.load(reader);
+                for (String key : properties.stringPropertyNames()) settings.put(key, properties.getProperty(key).strip());
+            } catch (IOException e) {
+                System.err.println("Warning: Could not read " + configFilePath + ": " + e.getMessage());
+            }
+        }
+        for (String key : Arrays.asList(DATA_DIRECTORY, IMPORT_PARALLELISM, IMPORT_BATCH_SIZE, SEARCH_MAX_RESULTS,
+                BACKUP_CONCURRENCY, LOG_LEVEL, INGEST_ENABLED, BACKUP_DIRECTORY,
+                BACKUP_INTERVAL_MINUTES, BACKUP_MAX_BYTES_PER_SECOND, BACKUP_MAX_FILES_PER_SECOND)) {
+            String value = System.getenv("CCRM_" + key.toUpperCase().replace('.', '_'));
+            if (value != null) settings.put(key, value.strip());
+        }
+        for (String argument : commandLineArguments) {
+            if (argument.startsWith("--") && argument.contains("=")) {
+                int separator = argument.indexOf('=');
+                settings.put(argument.substring(2, separator), argument.substring(separator + 1).strip());
+            }
+        }
+        return settings;
+    }
+
+    private void applySettings(Map<String, String> settings, boolean startingUp) {
+        String requestedDataDirectory = settings.get(DATA_DIRECTORY);
+        if (requestedDataDirectory != null && !requestedDataDirectory.equals(dataDirectoryPath)) {
+            if (startingUp) {
+                dataDirectoryPath = requestedDataDirectory;
+            } else {
+                System.err.println("Warning: " + DATA_DIRECTORY + " changed to '" + requestedDataDirectory
+                    + "', but that only takes effect after a restart.");
+            }
+        }
+        importParallelism = positiveInt(settings, IMPORT_PARALLELISM, importParallelism);
+        importBatchSize = positiveInt(settings, IMPORT_BATCH_SIZE, importBatchSize);
+        searchMaxResults = positiveInt(settings, SEARCH_MAX_RESULTS, searchMaxResults);
+        backupConcurrency = positiveInt(settings, BACKUP_CONCURRENCY, backupConcurrency);
+        String requestedLogLevel = settings.get(LOG_LEVEL);
+        if (requestedLogLevel != null) {
+            try {
+                logLevel = LogLevel.valueOf(requestedLogLevel.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Warning: Ignoring unknown " + LOG_LEVEL + " '" + requestedLogLevel + "'.");
+            }
+        }
+        AsyncLogger.getInstance().setLevel(logLevel);
+        String requestedIngest = settings.get(INGEST_ENABLED);
+        if (requestedIngest != null) ingestEnabled = Boolean.parseBoolean(requestedIngest);
+        String requestedBackupDirectory = settings.get(BACKUP_DIRECTORY);
+        if (requestedBackupDirectory != null && !requestedBackupDirectory.isEmpty()) backupDirectoryPath = requestedBackupDirectory;
+        backupIntervalMinutes = nonNegativeLong(settings, BACKUP_INTERVAL_MINUTES, backupIntervalMinutes);
+        backupMaxBytesPerSecond = nonNegativeLong(settings, BACKUP_MAX_BYTES_PER_SECOND, backupMaxBytesPerSecond);
+        backupMaxFilesPerSecond = nonNegativeLong(settings, BACKUP_MAX_FILES_PER_SECOND, backupMaxFilesPerSecond);
+    }
+
+    // Bad or non-positive values are reported and ignored, so a typo never takes the app down.
+    private static int positiveInt(Map<String, String> settings, String key, int currentValue) {
+        String value = settings.get(key);
+        if (value == null) return currentValue;
+        try {
+            int parsed = Integer.parseInt(value.replace("_", ""));
+            if (parsed > 0) return parsed;
+        } catch (NumberFormatException e) {
+            // Fall through to the warning below.
+        }
+        System.err.println("Warning: Ignoring invalid value '" + value + "' for " + key + ".");
+        return currentValue;
+    }
+
+    // Like positiveInt, but 0 is allowed too (it usually means "off" or "no limit").
+    private static long nonNegativeLong(Map<String, String> settings, String key, long currentValue) {
+        String value = settings.get(key);
+        if (value == null) return currentValue;
+        try {
+            long parsed = Long.parseLong(value.replace("_", ""));
+            if (parsed >= 0) return parsed;
+        } catch (NumberFormatException e) {
+            // Fall through to the warning below.
+        }
+        System.err.println("Warning: Ignoring invalid value '" + value + "' for " + key + ".");
+        return currentValue;
+    }
 }
@@ -1,16 +1,28 @@
 package edu.ccrm.domain;
 
+import java.util.Objects;
+
 /**
  * Represents a course offered in the Campus Course & Records Manager system.
  * It holds details like the course code, title, credits, and assigned instructor.
  */
 public class Course {
+    /**
+     * Gets told when a course's instructor, credits or semester change, along with what they were before.
+     * CourseService installs one on every course it manages, so the instructor index hears about the
+     * change however the setter was reached.
+     */
+    public interface ChangeListener {
+        void courseChanged(Course course, String previousInstructorId, int previousCredits, Semester previousSemester);
+    }
+
     private String courseCode;
     private String title;
     private int credits;
     private String instructorId; // This refers to the Person ID of the instructor
     private Semester semester;
     private String department;
+    private ChangeListener changeListener; // Guarded by this, like the instructor, credits and semester.
 
     public Course(String courseCode, String title, int credits, String instructorId, Semester semester, String department) {
         this.courseCode = courseCode;
@@ -24,19 +36,64 @@ public class Course {
 
     public String getCourseCode() { return courseCode; }
     public String getTitle() { return title; }
-    public int getCredits() { return credits; }
-    public String getInstructorId() { return instructorId; }
-    public Semester getSemester() { return semester; }
+    public synchronized int getCredits() { return credits; }
+    public synchronized String getInstructorId() { return instructorId; }
+    public synchronized Semester getSemester() { return semester; }
     public String getDepartment() { return department; }
 
     public void setTitle(String title) { this.title = title; }
-    public void setCredits(int credits) { this.credits = credits; }
-    public void setInstructorId(String instructorId) { this.instructorId = instructorId; }
-    public void setSemester(Semester semester) { this.semester = semester; }
     public void setDepartment(String department) { this.department = department; }
 
+    /**
+     * Hands the course to a different instructor. The change and the listener call happen under the
+     * course's lock, so anyone else who locks the course sees the instructor and the index agree.
+     * @param instructorId The person ID of the new instructor.
+     */
+    public synchronized void setInstructorId(String instructorId) {
+        if (Objects.equals(this.instructorId, instructorId)) return;
+        String previousInstructorId = this.instructorId;
+        this.instructorId = instructorId;
+        notifyChanged(previousInstructorId, credits, semester);
+    }
+
+    /**
+     * Changes the course's credits, telling the listener under the course's lock just like an instructor change.
+     * @param credits The new number of credits.
+     */
+    public synchronized void setCredits(int credits) {
+        if (this.credits == credits) return;
+        int previousCredits = this.credits;
+        this.credits = credits;
+        notifyChanged(instructorId, previousCredits, semester);
+    }
+
+    /**
+     * Moves the course to another semester, telling the listener under the course's lock just like an instructor change.
+     * @param semester The new semester.
+     */
+    public synchronized void setSemester(Semester semester) {
+        if (this.semester == semester) return;
+        Semester previousSemester = this.semester;
+        this.semester = semester;
+        notifyChanged(instructorId, credits, previousSemester);
+    }
+
+    /**
+     * Sets who gets told about instructor, credit and semester changes. Only CourseService should call
+     * this, once the course is in its catalog.
+     * @param listener The listener, or null for none.
+     */
+    public synchronized void setChangeListener(ChangeListener listener) {
+        this.changeListener = listener;
+    }
+
+    // Called with the lock held, right after one of the fields the listener cares about changed.
+    private void notifyChanged(String previousInstructorId, int previousCredits, Semester previousSemester) {
+        if (changeListener != null) changeListener.courseChanged(this, previousInstructorId, previousCredits, previousSemester);
+    }
+
     @Override
-    public String toString() {
+    public synchronized String toString() {
         return String.format("Course [%s: %s, Credits: %d, Instructor: %s, Semester: %s, Dept: %s]",
             courseCode, title, credits, instructorId, semester, department);
     }
@@ -0,0 +1,59 @@
+package edu.ccrm.domain;
+
+/**
+ * A course a student took in a term that has since been closed out by a semester rollover.
+ * It records whether they finished it with a grade (and which one), or it was left incomplete.
+ * This is the permanent record of that attempt: if the student takes the course again,
+ * the transcript moves on to the new attempt but the history keeps this one.
+ */
+public class CourseHistoryEntry {
+
+    /** How the enrollment ended. */
+    public enum Outcome { COMPLETED, INCOMPLETE }
+
+    private final String courseCode;
+    private final Semester semester;
+    private final Outcome outcome;
+    private final int marks;
+    private final Grade grade;
+
+    /**
+     * Records a course that was left incomplete.
+     * @param courseCode The code of the course.
+     * @param semester The term it was taken in.
+     * @param outcome How it ended.
+     */
+    public CourseHistoryEntry(String courseCode, Semester semester, Outcome outcome) {
+        this(courseCode, semester, outcome, 0, null);
+    }
+
+    /**
+     * Records a course along with the final marks and grade it was completed with.
+     * @param courseCode The code of the course.
+     * @param semester The term it was taken in.
+     * @param outcome How it ended.
+     * @param marks The final marks.
+     * @param grade The final grade, or null if there wasn't one.
+     */
+    public CourseHistoryEntry(String courseCode, Semester semester, Outcome outcome, int marks, Grade grade) {
+        this.courseCode = courseCode;
+        this.semester = semester;
+        this.outcome = outcome;
+        this.marks = marks;
+        this.grade = grade;
+    }
+
+    public String getCourseCode() { return courseCode; }
+    public Semester getSemester() { return semester; }
+    public Outcome getOutcome() { return outcome; }
+    public int getMarks() { return marks; }
+    /** The final grade, or null if the course was left incomplete. */
+    public Grade getGrade() { return grade; }
+
+    @Override
+    public String toString() {
+        return grade == null
+            ? String.format("Course: %s, Semester: %s, Outcome: %s", courseCode, semester, outcome)
+            : String.format("Course: %s, Semester: %s, Outcome: %s, Marks: %d, Grade: %s", courseCode, semester, outcome, marks, grade);
+    }
+}
@@ -1,6 +1,7 @@
 package edu.ccrm.domain;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -9,25 +10,52 @@ import java.util.Map;
  * Represents a student in the Campus Course & Records Manager system.
  * This class extends Person and includes student-specific details like registration number,
  * enrolled courses, and their academic transcript.
+ *
+ * Every change publishes a new immutable {@link StudentVersion}, stamped by the {@link VersionClock}.
+ * Live readers always see the latest one, and snapshot readers can ask for the state as of their
+ * pinned version with {@link #versionAt(long)}, while writes carry on.
  */
 public class Student extends Person {
     private String registrationNumber;
-    private List<String> enrolledCourses; // Keeping track of course codes the student is enrolled in
-    
-    // This map stores the student's academic record, mapping course codes to their transcript entries.
-    private Map<String, TranscriptEntry> transcript = new HashMap<>();
- 
-   
+
+    // The latest published state, which holds the enrolled course codes, the transcript
+    // (course code -> transcript entry), the course history from past terms and this term's credits.
+    // Older states hang off it for as long as a snapshot needs them.
+    private volatile StudentVersion latestVersion;
+
     public Student(String personId, String registrationNumber, String fullName, String email) {
         super(personId, fullName, email);
         this.registrationNumber = registrationNumber;
-        this.enrolledCourses = new ArrayList<>();
+        publish(Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(), 0);
     }
 
     public String getRegistrationNumber() { return registrationNumber; }
-    public List<String> getEnrolledCourses() { return enrolledCourses; }
 
-    public Map<String, TranscriptEntry> getTranscript() { return transcript; }
+    /** The course codes the student is enrolled in. The list is read-only; use enroll/unenroll to change it. */
+    public List<String> getEnrolledCourses() { return latestVersion.getEnrolledCourses(); }
+
+    /** The student's transcript, keyed by course code. The map is read-only; use addTranscriptEntry to change it. */
+    public Map<String, TranscriptEntry> getTranscript() { return latestVersion.getTranscript(); }
+
+    /** Courses from terms that have been rolled over. The list is read-only. */
+    public List<CourseHistoryEntry> getCourseHistory() { return latestVersion.getCourseHistory(); }
+
+    /** Credits the student is enrolled in this term. A rollover takes off the credits of the courses it closes. */
+    public int getTermCredits() { return latestVersion.getTermCredits(); }
+
+    /** The latest state of this student. */
+    public StudentVersion getLatestVersion() { return latestVersion; }
+
+    /**
+     * Returns this student's state as it was at a pinned snapshot version.
+     * @param version A version pinned with {@link VersionClock#pin()}.
+     * @return The newest state stamped at or before that version, or null if the student didn't exist yet.
+     */
+    public StudentVersion versionAt(long version) {
+        StudentVersion state = latestVersion;
+        while (state != null && state.getVersion() > version) state = state.previous;
+        return state;
+    }
 
     /**
      * Adds a new entry to the student's academic transcript.
@@ -35,8 +63,11 @@ public class Student extends Person {
      * @param marks The marks obtained in the course.
      * @param grade The grade received in the course.
      */
-    public void addTranscriptEntry(String courseCode, int marks, Grade grade) {
+    public synchronized void addTranscriptEntry(String courseCode, int marks, Grade grade) {
+        StudentVersion current = latestVersion;
+        Map<String, TranscriptEntry> transcript = new HashMap<>(current.getTranscript());
         transcript.put(courseCode, new TranscriptEntry(courseCode, marks, grade));
+        publish(current.getEnrolledCourses(), Collections.unmodifiableMap(transcript), current.getCourseHistory(), current.getTermCredits());
     }
 
     /**
@@ -45,8 +76,32 @@ public class Student extends Person {
      * @param courseCode The code of the course to enroll in.
      */
     public void enroll(String courseCode) {
-        if (!enrolledCourses.contains(courseCode))
-            enrolledCourses.add(courseCode);
+        enroll(courseCode, 0);
+    }
+
+    /**
+     * Enrolls the student in a specified course and adds its credits to this term's total.
+     * Taking a course again after a rollover starts a new attempt: the old final grade is already kept
+     * in the course history, so it leaves the transcript and the new attempt can be graded.
+     * @param courseCode The code of the course to enroll in.
+     * @param credits The course's credits.
+     */
+    public synchronized void enroll(String courseCode, int credits) {
+        StudentVersion current = latestVersion;
+        List<String> enrolledCourses = current.getEnrolledCourses();
+        if (enrolledCourses.contains(courseCode)) return;
+        List<String> updatedCourses = new ArrayList<>(enrolledCourses.size() + 1);
+        updatedCourses.addAll(enrolledCourses);
+        updatedCourses.add(courseCode);
+        Map<String, TranscriptEntry> transcript = current.getTranscript();
+        TranscriptEntry previousAttempt = transcript.get(courseCode);
+        if (previousAttempt != null && previousAttempt.isFinalized()) {
+            transcript = new HashMap<>(transcript);
+            transcript.remove(courseCode);
+            transcript = Collections.unmodifiableMap(transcript);
+        }
+        publish(Collections.unmodifiableList(updatedCourses), transcript, current.getCourseHistory(),
+            current.getTermCredits() + credits);
     }
 
     /**
@@ -54,7 +109,117 @@ public class Student extends Person {
      * @param courseCode The code of the course to unenroll from.
      */
     public void unenroll(String courseCode) {
-        enrolledCourses.remove(courseCode);
+        unenroll(courseCode, 0);
+    }
+
+    /**
+     * Unenrolls the student from a specified course and takes its credits off this term's total.
+     * @param courseCode The code of the course to unenroll from.
+     * @param credits The course's credits.
+     */
+    public synchronized void unenroll(String courseCode, int credits) {
+        StudentVersion current = latestVersion;
+        List<String> enrolledCourses = current.getEnrolledCourses();
+        if (!enrolledCourses.contains(courseCode)) return;
+        List<String> updatedCourses = new ArrayList<>(enrolledCourses);
+        updatedCourses.remove(courseCode);
+        publish(Collections.unmodifiableList(updatedCourses), current.getTranscript(), current.getCourseHistory(),
+            Math.max(0, current.getTermCredits() - credits));
+    }
+
+    /**
+     * Closes out a term for this student, all in one step: every enrolled course from that term moves
+     * into the course history (COMPLETED with its grade, which becomes final, or INCOMPLETE if there's no grade),
+     * and those courses' credits come off this term's total. Courses from other semesters stay enrolled
+     * and keep counting. Running it again for the same term changes nothing more, so a rollover that's
+     * resumed or retried can't double-count.
+     * @param semester The term being closed.
+     * @param termCourseCredits The code of every course offered in that term, mapped to its credits.
+     * @return The history entries that were added (empty if there was nothing to close).
+     */
+    public synchronized List<CourseHistoryEntry> closeTerm(Semester semester, Map<String, Integer> termCourseCredits) {
+        StudentVersion current = latestVersion;
+        List<String> remainingCourses = new ArrayList<>();
+        List<CourseHistoryEntry> closedCourses = new ArrayList<>();
+        Map<String, TranscriptEntry> transcript = current.getTranscript();
+        int closedCredits = 0;
+        for (String courseCode : current.getEnrolledCourses()) {
+            Integer credits = termCourseCredits.get(courseCode);
+            if (credits == null) {
+                remainingCourses.add(courseCode);
+                continue;
+            }
+            closedCredits += credits;
+            TranscriptEntry entry = transcript.get(courseCode);
+            if (entry != null) {
+                if (!entry.isFinalized()) {
+                    if (transcript == current.getTranscript()) transcript = new HashMap<>(transcript);
+                    transcript.put(courseCode, new TranscriptEntry(courseCode, entry.getMarks(), entry.getGrade(), true));
+                }
+                closedCourses.add(new CourseHistoryEntry(courseCode, semester, CourseHistoryEntry.Outcome.COMPLETED,
+                    entry.getMarks(), entry.getGrade()));
+            } else {
+                closedCourses.add(new CourseHistoryEntry(courseCode, semester, CourseHistoryEntry.Outcome.INCOMPLETE));
+            }
+        }
+        if (closedCourses.isEmpty()) return closedCourses;
+
+        List<CourseHistoryEntry> history = new ArrayList<>(current.getCourseHistory());
+        history.addAll(closedCourses);
+        publish(Collections.unmodifiableList(remainingCourses),
+            transcript == current.getTranscript() ? transcript : Collections.unmodifiableMap(transcript),
+            Collections.unmodifiableList(history), Math.max(0, current.getTermCredits() - closedCredits));
+        return closedCourses;
+    }
+
+    @Override
+    public synchronized void setName(String name) {
+        super.setName(name);
+        republish();
+    }
+
+    @Override
+    public synchronized void setEmail(String email) {
+        super.setEmail(email);
+        republish();
+    }
+
+    @Override
+    public synchronized void setActive(boolean active) {
+        super.setActive(active);
+        republish();
+    }
+
+    // Publishes the same enrollments and transcript again, after a Person field has changed.
+    private void republish() {
+        StudentVersion current = latestVersion;
+        publish(current.getEnrolledCourses(), current.getTranscript(), current.getCourseHistory(), current.getTermCredits());
+    }
+
+    // Publishes a new state and trims the history down to what open snapshots can still see:
+    // for the oldest pinned version, that's the newest state at or before it (and everything after).
+    private void publish(List<String> enrolledCourses, Map<String, TranscriptEntry> transcript,
+                         List<CourseHistoryEntry> courseHistory, int termCredits) {
+        VersionClock clock = VersionClock.getInstance();
+        long version = clock.beginWrite();
+        try {
+            StudentVersion next = new StudentVersion(version, this, enrolledCourses, transcript, courseHistory, termCredits);
+            StudentVersion current = latestVersion;
+            // A state from the same version was never visible to any snapshot, so it can be replaced outright.
+            if (current != null && current.getVersion() == version) current = current.previous;
+            long oldestPinned = clock.oldestPinnedVersion();
+            if (current != null && oldestPinned >= 0) {
+                next.previous = current;
+                StudentVersion oldestNeeded = current;
+                while (oldestNeeded.getVersion() > oldestPinned && oldestNeeded.previous != null) {
+                    oldestNeeded = oldestNeeded.previous;
+                }
+                oldestNeeded.previous = null;
+            }
+            latestVersion = next;
+        } finally {
+            clock.endWrite();
+        }
     }
 
     /**
@@ -63,6 +228,6 @@ public class Student extends Person {
      */
     @Override
     public String getProfile() {
-        return "Student [" + super.toString() + ", RegistrationNumber: " + registrationNumber + ", Enrolled Courses: " + enrolledCourses + "]";
+        return "Student [" + super.toString() + ", RegistrationNumber: " + registrationNumber + ", Enrolled Courses: " + getEnrolledCourses() + "]";
     }
-}
\ No newline at end of file
+}
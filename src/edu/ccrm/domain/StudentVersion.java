@@ -0,0 +1,61 @@
+package edu.ccrm.domain;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of a student's state as of one version. Students publish a new one on every
+ * change and keep older ones only while an open snapshot might still need them, so readers
+ * holding a StudentVersion never see a half-applied enrollment or grade.
+ */
+public class StudentVersion {
+    private final long version;
+    private final String id;
+    private final String registrationNumber;
+    private final String name;
+    private final String email;
+    private final boolean active;
+    private final LocalDate creationDate;
+    private final List<String> enrolledCourses;
+    private final Map<String, TranscriptEntry> transcript;
+    private final List<CourseHistoryEntry> courseHistory;
+    private final int termCredits;
+    // The state this one replaced. Cut off once no open snapshot can need it.
+    volatile StudentVersion previous;
+
+    StudentVersion(long version, Student student, List<String> enrolledCourses, Map<String, TranscriptEntry> transcript,
+                   List<CourseHistoryEntry> courseHistory, int termCredits) {
+        this.version = version;
+        this.id = student.getId();
+        this.registrationNumber = student.getRegistrationNumber();
+        this.name = student.getName();
+        this.email = student.getEmail();
+        this.active = student.isActive();
+        this.creationDate = student.getCreationDate();
+        this.enrolledCourses = enrolledCourses;
+        this.transcript = transcript;
+        this.courseHistory = courseHistory;
+        this.termCredits = termCredits;
+    }
+
+    public long getVersion() { return version; }
+    public String getId() { return id; }
+    public String getRegistrationNumber() { return registrationNumber; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public boolean isActive() { return active; }
+    public LocalDate getCreationDate() { return creationDate; }
+
+    /** The enrolled course codes. The list is read-only. */
+    public List<String> getEnrolledCourses() { return enrolledCourses; }
+
+    /** The transcript, keyed by course code. The map is read-only. */
+    public Map<String, TranscriptEntry> getTranscript() { return transcript; }
+
+    /** Courses from terms that have been rolled over. The list is read-only. */
+    public List<CourseHistoryEntry> getCourseHistory() { return courseHistory; }
+
+    /** Credits the student is enrolled in this term. */
+    public int getTermCredits() { return termCredits; }
+}
@@ -8,19 +8,26 @@ public class TranscriptEntry {
     private String courseCode;
     private int marks;
     private Grade grade;
+    private boolean finalized; // Set once the term is rolled over; re-grading leaves final grades alone.
 
     public TranscriptEntry(String courseCode, int marks, Grade grade) {
+        this(courseCode, marks, grade, false);
+    }
+
+    public TranscriptEntry(String courseCode, int marks, Grade grade, boolean finalized) {
         this.courseCode = courseCode;
         this.marks = marks;
         this.grade = grade;
+        this.finalized = finalized;
     }
 
     public String getCourseCode() { return courseCode; }
     public int getMarks() { return marks; }
     public Grade getGrade() { return grade; }
+    public boolean isFinalized() { return finalized; }
 
     @Override
     public String toString() {
-        return String.format("Course: %s, Marks: %d, Grade: %s", courseCode, marks, grade);
+        return String.format("Course: %s, Marks: %d, Grade: %s%s", courseCode, marks, grade, finalized ? " (final)" : "");
     }
 }
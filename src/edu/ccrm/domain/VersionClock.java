@@ -0,0 +1,79 @@
+package edu.ccrm.domain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The global version counter behind point-in-time snapshots. Every change to a student is stamped
+ * with a version, and a snapshot is nothing more than a pinned version number: a reader at version V
+ * sees, for each student, the newest state stamped at or before V. Opening a snapshot is O(1) and
+ * never copies any data, and writers never wait for readers.
+ * Like AppConfig, it's a Singleton, since every student has to agree on the same clock.
+ */
+public final class VersionClock {
+    private static final VersionClock INSTANCE = new VersionClock();
+
+    private final AtomicLong latestVersion = new AtomicLong();
+    // Writers share this gate, and opening a snapshot takes it exclusively for just long enough to bump
+    // the version. That way no write can be half-published across a snapshot's version boundary.
+    private final ReentrantReadWriteLock publishGate = new ReentrantReadWriteLock();
+    // Pinned version -> how many open snapshots are reading at it. Old states are kept only for these.
+    private final ConcurrentSkipListMap<Long, Integer> pinnedVersions = new ConcurrentSkipListMap<>();
+
+    private VersionClock() {}
+
+    public static VersionClock getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Pins the current version so a reader can see everything as of right now, however long it takes.
+     * Every call must be matched by a call to {@link #unpin(long)}, or old states will never be freed.
+     * @return The pinned version number.
+     */
+    public long pin() {
+        publishGate.writeLock().lock();
+        try {
+            long version = latestVersion.incrementAndGet();
+            pinnedVersions.merge(version, 1, Integer::sum);
+            return version;
+        } finally {
+            publishGate.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Releases a version pinned by {@link #pin()}.
+     * @param version The version to release.
+     */
+    public void unpin(long version) {
+        pinnedVersions.computeIfPresent(version, (pinned, readers) -> readers == 1 ? null : readers - 1);
+    }
+
+    /** How many snapshots are currently open. */
+    public int getPinnedCount() {
+        int count = 0;
+        for (int readers : pinnedVersions.values()) count += readers;
+        return count;
+    }
+
+    // Starts publishing a change and returns the version to stamp it with: one past the newest
+    // snapshot, so no open snapshot can see it. Must be followed by endWrite().
+    long beginWrite() {
+        publishGate.readLock().lock();
+        return latestVersion.get() + 1;
+    }
+
+    void endWrite() {
+        publishGate.readLock().unlock();
+    }
+
+    // The oldest version an open snapshot is reading at, or -1 if there are none.
+    // Only stable between beginWrite() and endWrite().
+    long oldestPinnedVersion() {
+        Map.Entry<Long, Integer> oldest = pinnedVersions.firstEntry();
+        return oldest == null ? -1 : oldest.getKey();
+    }
+}
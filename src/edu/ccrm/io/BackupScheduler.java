@@ -0,0 +1,141 @@
+package edu.ccrm.io;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.util.AsyncLogger;
+import edu.ccrm.util.BackupProgress;
+import edu.ccrm.util.BackupUtility;
+import edu.ccrm.util.IoThrottle;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.*;
+
+/**
+ * Runs backups of the data directory in the background, so nobody has to sit and wait for them.
+ * Backups can be started on demand or every {@code backup.interval.minutes}, one at a time, and are
+ * throttled by {@code backup.max.bytes.per.second} / {@code backup.max.files.per.second} so they
+ * don't starve imports and other live I/O. The latest backup's progress can be checked at any time,
+ * and a running backup can be cancelled.
+ * Settings are read from AppConfig on every check, so edits to the config file apply without a restart.
+ */
+public class BackupScheduler {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("BackupScheduler");
+    private static final long CHECK_INTERVAL_SECONDS = 30;
+    private static final DateTimeFormatter FOLDER_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private final Path sourceDirectory;
+    private final AppConfig config = AppConfig.getInstance();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("ccrm-backup-scheduler"));
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(daemonThreads("ccrm-backup"));
+    private volatile BackupProgress latestBackup;
+    private volatile Future<?> runningBackup;
+    private volatile long lastScheduledRunMillis = System.currentTimeMillis();
+
+    public BackupScheduler(Path sourceDirectory) {
+        this.sourceDirectory = sourceDirectory;
+    }
+
+    /**
+     * Starts checking, every 30 seconds, whether a scheduled backup is due.
+     * The first one runs one full interval after this call.
+     */
+    public void start() {
+        timer.scheduleWithFixedDelay(this::runIfDue, CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts a backup in the background straight away.
+     * @param destinationDirectory Where to write it, or null for a new timestamped folder under backup.dir.
+     * @return The new backup's progress, or null if a backup is already running.
+     */
+    public synchronized BackupProgress backupNow(Path destinationDirectory) {
+        if (isRunning()) return null;
+        Path destination = destinationDirectory != null ? destinationDirectory
+            : Paths.get(config.getBackupDirectory(), "backup_" + LocalDateTime.now().format(FOLDER_TIMESTAMP));
+        BackupProgress progress = new BackupProgress(sourceDirectory, destination);
+        latestBackup = progress;
+        runningBackup = runner.submit(() -> runBackup(progress));
+        return progress;
+    }
+
+    /**
+     * Cancels the running backup, if there is one. Files already copied stay where they are.
+     * @return true if a running backup was cancelled.
+     */
+    public synchronized boolean cancel() {
+        if (!isRunning()) return false;
+        latestBackup.cancel();
+        runningBackup.cancel(true);
+        return true;
+    }
+
+    public boolean isRunning() {
+        Future<?> backup = runningBackup;
+        return backup != null && !backup.isDone();
+    }
+
+    /** The running backup, or the last one that ran; null if there hasn't been one yet. */
+    public BackupProgress getLatestBackup() {
+        return latestBackup;
+    }
+
+    /**
+     * @return When the next scheduled backup is due (epoch millis), or -1 if scheduled backups are off.
+     */
+    public long getNextScheduledRunMillis() {
+        long intervalMinutes = config.getBackupIntervalMinutes();
+        return intervalMinutes == 0 ? -1 : lastScheduledRunMillis + TimeUnit.MINUTES.toMillis(intervalMinutes);
+    }
+
+    /**
+     * Stops scheduling and cancels any running backup.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        cancel();
+        runner.shutdown();
+    }
+
+    private void runIfDue() {
+        long nextRun = getNextScheduledRunMillis();
+        if (nextRun < 0 || System.currentTimeMillis() < nextRun) return;
+        lastScheduledRunMillis = System.currentTimeMillis();
+        if (backupNow(null) == null) {
+            LOG.warn("Skipping a scheduled backup because the previous one is still running.");
+        }
+    }
+
+    private void runBackup(BackupProgress progress) {
+        IoThrottle throttle = new IoThrottle(config.getBackupMaxBytesPerSecond(), config.getBackupMaxFilesPerSecond());
+        LOG.info("Backup started.", "source", sourceDirectory, "destination", progress.getDestinationDirectory());
+        try {
+            BackupUtility.backupDirectory(sourceDirectory, progress.getDestinationDirectory(), throttle,
+                config.getBackupConcurrency(), progress);
+            if (progress.isCancelRequested()) {
+                progress.finish(BackupProgress.State.CANCELLED, null);
+                LOG.warn("Backup cancelled.", "destination", progress.getDestinationDirectory(), "filesCopied", progress.getCopiedFiles());
+            } else {
+                progress.finish(BackupProgress.State.COMPLETED, null);
+                LOG.info("Backup completed.", "destination", progress.getDestinationDirectory(),
+                    "files", progress.getCopiedFiles(), "bytes", progress.getCopiedBytes(), "failedFiles", progress.getFailedFiles());
+            }
+        } catch (InterruptedException e) {
+            progress.finish(BackupProgress.State.CANCELLED, null);
+            LOG.warn("Backup cancelled.", "destination", progress.getDestinationDirectory(), "filesCopied", progress.getCopiedFiles());
+        } catch (IOException | RuntimeException e) {
+            progress.finish(BackupProgress.State.FAILED, e.getMessage());
+            LOG.error("Backup failed.", "destination", progress.getDestinationDirectory(), "reason", e.getMessage());
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
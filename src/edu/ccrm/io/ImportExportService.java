@@ -1,11 +1,17 @@
 package edu.ccrm.io;
 
+import edu.ccrm.config.AppConfig;
 import edu.ccrm.domain.*;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
 import edu.ccrm.service.*;
+import edu.ccrm.util.AsyncLogger;
 
 import java.nio.file.*;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.*;
 
 /**
@@ -13,6 +19,16 @@ import java.util.stream.*;
  * to and from CSV files. It's pretty handy for getting data in and out of the system.
  */
 public class ImportExportService {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("ImportExportService");
+
+    // Call counts and latency histograms for each public operation, published over JMX.
+    private static final OperationMetrics IMPORT_STUDENTS = MetricsRegistry.register("ImportExportService", "importStudents");
+    private static final OperationMetrics EXPORT_STUDENTS = MetricsRegistry.register("ImportExportService", "exportStudents");
+    private static final OperationMetrics IMPORT_COURSES = MetricsRegistry.register("ImportExportService", "importCourses");
+    private static final OperationMetrics EXPORT_COURSES = MetricsRegistry.register("ImportExportService", "exportCourses");
+    private static final OperationMetrics IMPORT_ENROLLMENTS = MetricsRegistry.register("ImportExportService", "importEnrollments");
+    private static final OperationMetrics IMPORT_MARKS = MetricsRegistry.register("ImportExportService", "importMarks");
+    private static final OperationMetrics MERGE_STUDENTS = MetricsRegistry.register("ImportExportService", "mergeStudents");
 
     /**
      * Imports student data from a specified CSV file.
@@ -24,19 +40,109 @@ public class ImportExportService {
      * @throws IOException If there's an issue reading the file.
      */
     public int importStudents(String filePath, StudentService studentService) throws IOException {
-        List<String> csvFileLines = Files.readAllLines(Paths.get(filePath));
-        int numberOfImportedItems = 0;
-        // Skipping the header line if it exists, or just processing all lines.
-        for (String line : csvFileLines) {
-            String[] csvDataFields = line.strip().split(",");
-            // Just a quick check to make sure we have enough data points in the line.
-            if (csvDataFields.length >= 4) {
-                Student student = new Student(csvDataFields[0], csvDataFields[1], csvDataFields[2], csvDataFields[3]);
-                studentService.addStudent(student);
-                numberOfImportedItems++;
+        long startNanos = System.nanoTime();
+        try {
+            List<String> csvFileLines = Files.readAllLines(Paths.get(filePath));
+            int numberOfImportedItems = 0;
+            // Skipping the header line if it exists, or just processing all lines.
+            for (String line : csvFileLines) {
+                Student student = parseStudentRow(line);
+                if (student != null) {
+                    studentService.addStudent(student);
+                    numberOfImportedItems++;
+                }
             }
+            return numberOfImportedItems;
+        } catch (IOException e) {
+            IMPORT_STUDENTS.recordError();
+            throw e;
+        } finally {
+            IMPORT_STUDENTS.record(startNanos);
         }
-        return numberOfImportedItems;
+    }
+
+    /**
+     * Merges student data from a CSV file into the system (an "upsert"), so the same file can be
+     * imported again and again without creating duplicates. Rows are matched by registration number:
+     * new students are added, existing students only get updated if their name or email actually differs,
+     * and everything else is left alone. That makes a nightly full resync cost about as much as what changed.
+     * Each row costs one lookup in the student map, which is a concurrent hash map, so there's nothing
+     * to build up front and students added by someone else mid-merge are seen straight away.
+     * The CSV format expected is the same as importStudents: personId,registrationNumber,fullName,email.
+     * @param filePath The path to the CSV file.
+     * @param studentService The service to merge the students into.
+     * @return How many students were inserted, updated, unchanged or skipped.
+     * @throws IOException If there's an issue reading the file.
+     */
+    public MergeReport mergeStudents(String filePath, StudentService studentService) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            MergeReport report = new MergeReport();
+            try (Stream<String> csvFileLines = Files.lines(Paths.get(filePath))) {
+                for (String line : (Iterable<String>) csvFileLines::iterator) {
+                    if (line.isBlank()) continue;
+                    Student incoming = parseStudentRow(line);
+                    if (incoming == null) {
+                        report.recordSkipped();
+                        continue;
+                    }
+                    String registrationNumber = incoming.getRegistrationNumber();
+                    Student existing = studentService.getStudent(registrationNumber);
+                    if (existing == null) {
+                        studentService.addStudent(incoming);
+                        report.recordInserted();
+                        continue;
+                    }
+                    String changedName = existing.getName().equals(incoming.getName()) ? null : incoming.getName();
+                    String changedEmail = existing.getEmail().equals(incoming.getEmail()) ? null : incoming.getEmail();
+                    if (changedName == null && changedEmail == null) {
+                        report.recordUnchanged();
+                    } else {
+                        studentService.updateStudent(registrationNumber, changedName, changedEmail);
+                        report.recordUpdated();
+                    }
+                }
+            }
+            LOG.info("Student data merged.", "file", filePath, "inserted", report.getInsertedCount(),
+                "updated", report.getUpdatedCount(), "unchanged", report.getUnchangedCount(), "skipped", report.getSkippedCount());
+            return report;
+        } catch (IOException e) {
+            MERGE_STUDENTS.recordError();
+            throw e;
+        } finally {
+            MERGE_STUDENTS.record(startNanos);
+        }
+    }
+
+    /**
+     * Turns one students CSV line (personId,registrationNumber,fullName,email) into a Student.
+     * @param line The CSV line.
+     * @return The student, or null if the line doesn't have enough fields.
+     */
+    public static Student parseStudentRow(String line) {
+        String[] csvDataFields = line.strip().split(",");
+        // Just a quick check to make sure we have enough data points in the line.
+        if (csvDataFields.length < 4) return null;
+        return new Student(csvDataFields[0], csvDataFields[1], csvDataFields[2], csvDataFields[3]);
+    }
+
+    /**
+     * Turns one courses CSV line (courseCode,title,credits,instructorId,semester,department) into a Course.
+     * @param line The CSV line.
+     * @return The course, or null if the line doesn't have enough fields.
+     * @throws IllegalArgumentException If the credits or semester can't be parsed.
+     */
+    public static Course parseCourseRow(String line) {
+        String[] csvDataFields = line.strip().split(",");
+        if (csvDataFields.length < 6) return null;
+        return new Course(
+            csvDataFields[0], // courseCode
+            csvDataFields[1], // title
+            Integer.parseInt(csvDataFields[2]), // credits - remember to parse this as an integer!
+            csvDataFields[3], // instructorId
+            Semester.valueOf(csvDataFields[4].toUpperCase()), // Convert string to enum, case-insensitively.
+            csvDataFields[5] // department
+        );
     }
 
     /**
@@ -47,13 +153,25 @@ public class ImportExportService {
      * @throws IOException If there's an issue writing to the file.
      */
     public void exportStudents(String filePath, StudentService studentService) throws IOException {
-        List<String> studentDataAsCsv = studentService.listStudents()
-            .stream()
-            // Mapping each student object to a CSV formatted string.
-            .map(student -> student.getId() + "," + student.getRegistrationNumber() + "," + student.getName() + "," + student.getEmail())
-            .collect(Collectors.toList());
-        Files.write(Paths.get(filePath), studentDataAsCsv);
-        System.out.println("Student data exported to: " + filePath);
+        long startNanos = System.nanoTime();
+        try {
+            List<String> studentDataAsCsv;
+            // Reading from a snapshot means the file is a consistent point-in-time copy,
+            // even if students are being updated while we export.
+            try (StudentSnapshot snapshot = studentService.openSnapshot()) {
+                studentDataAsCsv = snapshot.students()
+                    // Mapping each student to a CSV formatted string.
+                    .map(student -> student.getId() + "," + student.getRegistrationNumber() + "," + student.getName() + "," + student.getEmail())
+                    .collect(Collectors.toList());
+            }
+            Files.write(Paths.get(filePath), studentDataAsCsv);
+            LOG.info("Student data exported.", "file", filePath, "rows", studentDataAsCsv.size());
+        } catch (IOException e) {
+            EXPORT_STUDENTS.recordError();
+            throw e;
+        } finally {
+            EXPORT_STUDENTS.record(startNanos);
+        }
     }
 
     /**
@@ -65,24 +183,24 @@ public class ImportExportService {
      * @throws IOException If there's an issue reading the file.
      */
     public int importCourses(String filePath, CourseService courseService) throws IOException {
-        List<String> csvFileLines = Files.readAllLines(Paths.get(filePath));
-        int numberOfImportedItems = 0;
-        for (String line : csvFileLines) {
-            String[] csvDataFields = line.strip().split(",");
-            if (csvDataFields.length >= 6) {
-                Course course = new Course(
-                    csvDataFields[0], // courseCode
-                    csvDataFields[1], // title
-                    Integer.parseInt(csvDataFields[2]), // credits - remember to parse this as an integer!
-                    csvDataFields[3], // instructorId
-                    Semester.valueOf(csvDataFields[4].toUpperCase()), // Convert string to enum, case-insensitively.
-                    csvDataFields[5] // department
-                );
-                courseService.addCourse(course);
-                numberOfImportedItems++;
+        long startNanos = System.nanoTime();
+        try {
+            List<String> csvFileLines = Files.readAllLines(Paths.get(filePath));
+            int numberOfImportedItems = 0;
+            for (String line : csvFileLines) {
+                Course course = parseCourseRow(line);
+                if (course != null) {
+                    courseService.addCourse(course);
+                    numberOfImportedItems++;
+                }
             }
+            return numberOfImportedItems;
+        } catch (IOException e) {
+            IMPORT_COURSES.recordError();
+            throw e;
+        } finally {
+            IMPORT_COURSES.record(startNanos);
         }
-        return numberOfImportedItems;
     }
 
     /**
@@ -93,13 +211,198 @@ public class ImportExportService {
      * @throws IOException If there's an issue writing to the file.
      */
     public void exportCourses(String filePath, CourseService courseService) throws IOException {
-        List<String> courseDataAsCsv = courseService.listCourses()
-            .stream()
-            // Mapping each course object to a CSV formatted string.
-            .map(course -> course.getCourseCode() + "," + course.getTitle() + "," + course.getCredits() + "," +
-                      course.getInstructorId() + "," + course.getSemester() + "," + course.getDepartment())
-            .collect(Collectors.toList());
-        Files.write(Paths.get(filePath), courseDataAsCsv);
-        System.out.println("Course data exported to: " + filePath);
+        long startNanos = System.nanoTime();
+        try {
+            List<String> courseDataAsCsv = courseService.listCourses()
+                .stream()
+                // Mapping each course object to a CSV formatted string.
+                .map(course -> course.getCourseCode() + "," + course.getTitle() + "," + course.getCredits() + "," +
+                          course.getInstructorId() + "," + course.getSemester() + "," + course.getDepartment())
+                .collect(Collectors.toList());
+            Files.write(Paths.get(filePath), courseDataAsCsv);
+            LOG.info("Course data exported.", "file", filePath, "rows", courseDataAsCsv.size());
+        } catch (IOException e) {
+            EXPORT_COURSES.recordError();
+            throw e;
+        } finally {
+            EXPORT_COURSES.record(startNanos);
+        }
+    }
+
+    /**
+     * Imports enrollments from a specified CSV file.
+     * The CSV format expected is: registrationNumber,courseCode.
+     * Rows that refer to an unknown student or course are skipped.
+     * @param filePath The path to the CSV file.
+     * @param studentService Where to look up students.
+     * @param courseService Where to look up courses.
+     * @param enrollmentService The service that performs the enrollments.
+     * @return The number of enrollments successfully imported.
+     * @throws IOException If there's an issue reading the file.
+     */
+    public int importEnrollments(String filePath, StudentService studentService, CourseService courseService,
+                                 EnrollmentService enrollmentService) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            int numberOfImportedItems = 0;
+            try (Stream<String> csvFileLines = Files.lines(Paths.get(filePath))) {
+                for (String line : (Iterable<String>) csvFileLines::iterator) {
+                    String[] csvDataFields = line.strip().split(",");
+                    if (csvDataFields.length >= 2) {
+                        Student student = studentService.getStudent(csvDataFields[0]);
+                        Course course = courseService.getCourse(csvDataFields[1]);
+                        if (enrollmentService.enrollStudentInCourse(student, course)) {
+                            numberOfImportedItems++;
+                        }
+                    }
+                }
+            }
+            return numberOfImportedItems;
+        } catch (IOException e) {
+            IMPORT_ENROLLMENTS.recordError();
+            throw e;
+        } finally {
+            IMPORT_ENROLLMENTS.record(startNanos);
+        }
+    }
+
+    /**
+     * Bulk-imports marks from a CSV file, in the format: registrationNumber,courseCode,marks.
+     * Rows are parsed, validated and graded in parallel (lookups are plain map reads and
+     * grade lookups have no side effects), then applied to transcripts in batches on this thread,
+     * in file order, so when a file has two rows for the same student and course the later one wins.
+     * Parallelism and batch size come from AppConfig. Rows for unknown students or courses, students who
+     * aren't enrolled, or marks outside 0–100 end up in the report instead of being applied.
+     * @param filePath The path to the marks CSV file.
+     * @param studentService Where to look up students.
+     * @param courseService Where to look up courses.
+     * @param enrollmentService Whose roster index says who is enrolled in what.
+     * @param gradingService The service that records the grades.
+     * @return A report with the applied count and every rejected row.
+     * @throws IOException If there's an issue reading the file.
+     */
+    public MarksImportReport importMarks(String filePath, StudentService studentService, CourseService courseService,
+                                         EnrollmentService enrollmentService, GradingService gradingService) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            List<String> csvFileLines = Files.readAllLines(Paths.get(filePath));
+            List<MarksRow> validatedRows = validateMarksRows(csvFileLines, studentService, courseService, enrollmentService, gradingService);
+            int batchSize = AppConfig.getInstance().getImportBatchSize();
+
+            MarksImportReport report = new MarksImportReport();
+            List<MarksRow> batch = new ArrayList<>(batchSize);
+            for (MarksRow row : validatedRows) {
+                if (row.rejection != null) {
+                    report.recordRejected(row.rejection);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    applyMarksBatch(batch, gradingService, report);
+                }
+            }
+            applyMarksBatch(batch, gradingService, report);
+            return report;
+        } catch (IOException e) {
+            IMPORT_MARKS.recordError();
+            throw e;
+        } finally {
+            IMPORT_MARKS.record(startNanos);
+        }
+    }
+
+    // Just a little holder for a parsed marks row: either it's ready to apply, or it carries a rejection.
+    private static class MarksRow {
+        private int lineNumber;
+        private String line;
+        private Student student;
+        private String courseCode;
+        private int marks;
+        private Grade grade;
+        private MarksImportReport.RejectedRow rejection;
+    }
+
+    // Validates and grades every non-blank line in parallel. Running the parallel stream inside our own
+    // pool caps it at the configured import parallelism instead of taking over the common pool.
+    private static List<MarksRow> validateMarksRows(List<String> csvFileLines, StudentService studentService,
+                                                    CourseService courseService, EnrollmentService enrollmentService,
+                                                    GradingService gradingService) throws IOException {
+        ForkJoinPool workers = new ForkJoinPool(AppConfig.getInstance().getImportParallelism());
+        try {
+            return workers.submit(() -> IntStream.range(0, csvFileLines.size())
+                .parallel()
+                .filter(index -> !csvFileLines.get(index).isBlank())
+                .mapToObj(index -> validateMarksRow(index + 1, csvFileLines.get(index), studentService, courseService,
+                    enrollmentService, gradingService))
+                .collect(Collectors.toList())) // Ordered collect, so rows are applied in file order.
+                .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Marks import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Marks import failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    private static MarksRow validateMarksRow(int lineNumber, String line, StudentService studentService, CourseService courseService,
+                                             EnrollmentService enrollmentService, GradingService gradingService) {
+        MarksRow row = new MarksRow();
+        row.lineNumber = lineNumber;
+        row.line = line;
+        String[] csvDataFields = line.strip().split(",");
+        if (csvDataFields.length < 3) {
+            row.rejection = new MarksImportReport.RejectedRow(lineNumber, line, "expected registrationNumber,courseCode,marks");
+            return row;
+        }
+        String registrationNumber = csvDataFields[0].strip();
+        String courseCode = csvDataFields[1].strip();
+        int marks;
+        try {
+            marks = Integer.parseInt(csvDataFields[2].strip());
+        } catch (NumberFormatException e) {
+            row.rejection = new MarksImportReport.RejectedRow(lineNumber, line, "marks is not a number");
+            return row;
+        }
+        Student student = studentService.getStudent(registrationNumber);
+        if (marks < 0 || marks > 100) {
+            row.rejection = new MarksImportReport.RejectedRow(lineNumber, line, "marks must be between 0 and 100");
+        } else if (student == null) {
+            row.rejection = new MarksImportReport.RejectedRow(lineNumber, line, "unknown student " + registrationNumber);
+        } else if (courseService.getCourse(courseCode) == null) {
+            row.rejection = new MarksImportReport.RejectedRow(lineNumber, line, "unknown course " + courseCode);
+        } else if (!enrollmentService.getRoster(courseCode).contains(registrationNumber)) {
+            // A hash lookup in the course's roster, rather than scanning the student's course list.
+            row.rejection = new MarksImportReport.RejectedRow(lineNumber, line, "student not enrolled in " + courseCode);
+        } else if (isFinal(student, courseCode)) {
+            row.rejection = new MarksImportReport.RejectedRow(lineNumber, line, "grade for " + courseCode + " is already final");
+        } else {
+            row.student = student;
+            row.courseCode = courseCode;
+            row.marks = marks;
+            row.grade = gradingService.gradeFor(courseCode, marks);
+        }
+        return row;
+    }
+
+    private static boolean isFinal(Student student, String courseCode) {
+        TranscriptEntry entry = student.getTranscript().get(courseCode);
+        return entry != null && entry.isFinalized();
+    }
+
+    private static void applyMarksBatch(List<MarksRow> batch, GradingService gradingService, MarksImportReport report) {
+        int applied = 0;
+        for (MarksRow row : batch) {
+            if (gradingService.recordGrade(row.student, row.courseCode, row.marks, row.grade)) {
+                applied++;
+            } else {
+                // Finalized by a rollover after the row was validated.
+                report.recordRejected(new MarksImportReport.RejectedRow(row.lineNumber, row.line,
+                    "grade for " + row.courseCode + " is already final"));
+            }
+        }
+        report.recordApplied(applied);
+        batch.clear();
     }
 }
@@ -0,0 +1,255 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.AsyncLogger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * A background daemon that watches the data directory and imports new student and course rows
+ * as soon as they're appended. For every file it remembers how many bytes it has already imported
+ * (in {@code .ingest-checkpoints.properties} inside the data directory), so each change only costs
+ * reading the new tail of the file, and a restart picks up exactly where it left off.
+ * Each checkpoint also keeps a fingerprint of the bytes it covers, so a file that is rewritten rather
+ * than appended to (an export over students.csv, say) is noticed and read again from the start.
+ * Files named {@code students*.csv} go to the StudentService and {@code courses*.csv} to the
+ * CourseService, using the same row formats as ImportExportService.
+ */
+public class IngestDaemon {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("IngestDaemon");
+    private static final String CHECKPOINT_FILE_NAME = ".ingest-checkpoints.properties";
+    private static final int READ_CHUNK_BYTES = 1 << 20;
+    // How much of the start of a file, and of the bytes just before the checkpoint, goes into its fingerprint.
+    private static final int FINGERPRINT_WINDOW_BYTES = 4096;
+
+    private final Path dataDirectory;
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+    private volatile Thread watcherThread;
+    private volatile long ingestedRowCount;
+
+    public IngestDaemon(Path dataDirectory, StudentService studentService, CourseService courseService) {
+        this.dataDirectory = dataDirectory;
+        this.studentService = studentService;
+        this.courseService = courseService;
+    }
+
+    /**
+     * Loads the checkpoints, catches up on anything appended while we weren't running,
+     * and then starts watching the directory in the background.
+     * @throws IOException If the data directory can't be watched.
+     */
+    public synchronized void start() throws IOException {
+        if (isRunning()) return;
+        loadCheckpoints();
+        WatchService watchService = dataDirectory.getFileSystem().newWatchService();
+        dataDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(() -> watch(watchService), "ccrm-ingest-daemon");
+        thread.setDaemon(true);
+        watcherThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops watching. Checkpoints are saved after every file, so nothing is lost.
+     */
+    public synchronized void stop() {
+        Thread thread = watcherThread;
+        watcherThread = null;
+        if (thread != null) thread.interrupt();
+    }
+
+    public boolean isRunning() {
+        Thread thread = watcherThread;
+        return thread != null && thread.isAlive();
+    }
+
+    /** How many rows this daemon has imported since it was created. */
+    public long getIngestedRowCount() {
+        return ingestedRowCount;
+    }
+
+    private void watch(WatchService watchService) {
+        try (watchService) {
+            // Catch up first: files may have grown while the daemon was stopped.
+            try (DirectoryStream<Path> existingFiles = Files.newDirectoryStream(dataDirectory, "*.csv")) {
+                for (Path file : existingFiles) ingestIfTracked(file);
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+                    ingestIfTracked(dataDirectory.resolve((Path) event.context()));
+                }
+                if (!key.reset()) {
+                    LOG.error("The data directory is no longer accessible; auto-ingest stopped.", "directory", dataDirectory);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Asked to stop; nothing else to do.
+        } catch (IOException e) {
+            LOG.error("Auto-ingest stopped after an I/O error.", "directory", dataDirectory, "reason", e.getMessage());
+        }
+    }
+
+    private void ingestIfTracked(Path file) {
+        String fileName = file.getFileName().toString();
+        if (!fileName.endsWith(".csv")) return;
+        boolean students = fileName.startsWith("students");
+        boolean courses = fileName.startsWith("courses");
+        if (!students && !courses) return;
+        try {
+            int rows = ingestNewRows(file, students);
+            if (rows > 0) {
+                ingestedRowCount += rows;
+                LOG.info("Ingested new rows.", "file", fileName, "rows", rows);
+            }
+        } catch (IOException e) {
+            LOG.warn("Couldn't ingest file; will retry on its next change.", "file", fileName, "reason", e.getMessage());
+        }
+    }
+
+    // Reads everything after the checkpoint in chunks, imports every complete line, and moves the
+    // checkpoint to the end of the last complete line. A half-written last line waits for the next change.
+    private int ingestNewRows(Path file, boolean students) throws IOException {
+        String key = file.getFileName().toString();
+        Checkpoint checkpoint = checkpoints.get(key);
+        long offset = checkpoint == null ? 0 : checkpoint.offset;
+        int rows = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (offset > 0 && (size < offset || fingerprint(channel, offset) != checkpoint.fingerprint)) {
+                // The bytes we already imported aren't there any more, so the file was replaced or rewritten.
+                // Start again from the top; the services skip duplicates, so re-reading old rows is harmless.
+                LOG.warn("File changed since the last ingest; re-reading it from the start.", "file", key);
+                offset = 0;
+            }
+            if (size == offset) return 0;
+
+            ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK_BYTES);
+            channel.position(offset);
+            long consumed = offset;
+            while (channel.read(buffer) > 0 || buffer.position() > 0) {
+                buffer.flip();
+                int lineStart = 0;
+                int limit = buffer.limit();
+                for (int i = 0; i < limit; i++) {
+                    if (buffer.get(i) == '\n') {
+                        String line = new String(buffer.array(), lineStart, i - lineStart, StandardCharsets.UTF_8);
+                        if (importLine(line, students, key)) rows++;
+                        lineStart = i + 1;
+                    }
+                }
+                consumed += lineStart;
+                if (lineStart == 0 && limit == buffer.capacity()) {
+                    throw new IOException("A single line is longer than " + READ_CHUNK_BYTES + " bytes");
+                }
+                // Keep the unfinished tail for the next read; if there's nothing more to read, leave it for later.
+                buffer.position(lineStart);
+                buffer.compact();
+                if (channel.position() >= size) break;
+            }
+            checkpoints.put(key, new Checkpoint(consumed, fingerprint(channel, consumed)));
+        }
+        saveCheckpoints();
+        return rows;
+    }
+
+    // A CRC of the first few KB of the file and the few KB just before the offset. Appending doesn't change it,
+    // but rewriting the file almost always does, even if the new file is just as long or longer.
+    private static long fingerprint(FileChannel channel, long offset) throws IOException {
+        CRC32 crc = new CRC32();
+        long headLength = Math.min(offset, FINGERPRINT_WINDOW_BYTES);
+        updateCrc(crc, channel, 0, headLength);
+        long tailStart = Math.max(headLength, offset - FINGERPRINT_WINDOW_BYTES);
+        updateCrc(crc, channel, tailStart, offset - tailStart);
+        return crc.getValue();
+    }
+
+    private static void updateCrc(CRC32 crc, FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) <= 0) break;
+        }
+        buffer.flip();
+        crc.update(buffer);
+    }
+
+    private boolean importLine(String line, boolean students, String fileName) {
+        if (line.isBlank()) return false;
+        try {
+            if (students) {
+                Student student = ImportExportService.parseStudentRow(line);
+                if (student == null) return false;
+                studentService.addStudent(student);
+            } else {
+                Course course = ImportExportService.parseCourseRow(line);
+                if (course == null) return false;
+                courseService.addCourse(course);
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Skipping a row that couldn't be parsed.", "file", fileName, "row", line.strip(), "reason", e.getMessage());
+            return false;
+        }
+    }
+
+    private void loadCheckpoints() throws IOException {
+        Path checkpointFile = dataDirectory.resolve(CHECKPOINT_FILE_NAME);
+        if (!Files.exists(checkpointFile)) return;
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointFile)) {
+            properties.load(reader);
+        }
+        for (String fileName : properties.stringPropertyNames()) {
+            // Stored as "offset,fingerprint". An old checkpoint without a fingerprint never matches,
+            // so that file is simply read again from the start.
+            String[] value = properties.getProperty(fileName).strip().split(",");
+            try {
+                long fingerprint = value.length > 1 ? Long.parseLong(value[1]) : -1;
+                checkpoints.put(fileName, new Checkpoint(Long.parseLong(value[0]), fingerprint));
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignoring a corrupt checkpoint.", "file", fileName);
+            }
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a crash never leaves a half-written checkpoint.
+    private void saveCheckpoints() throws IOException {
+        Properties properties = new Properties();
+        checkpoints.forEach((fileName, checkpoint) ->
+            properties.setProperty(fileName, checkpoint.offset + "," + checkpoint.fingerprint));
+        Path checkpointFile = dataDirectory.resolve(CHECKPOINT_FILE_NAME);
+        Path temporaryFile = dataDirectory.resolve(CHECKPOINT_FILE_NAME + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporaryFile)) {
+            properties.store(writer, "Byte offsets already imported by the auto-ingest daemon, and a fingerprint of those bytes");
+        }
+        Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // How far into a file we've imported, and a fingerprint of the bytes up to there.
+    private static final class Checkpoint {
+        final long offset;
+        final long fingerprint;
+
+        Checkpoint(long offset, long fingerprint) {
+            this.offset = offset;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
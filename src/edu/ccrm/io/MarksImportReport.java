@@ -0,0 +1,69 @@
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * The outcome of a bulk marks import: how many rows were applied, and an exceptions list
+ * for every row we had to reject (unknown student, unknown course, not enrolled, bad marks...).
+ */
+public class MarksImportReport {
+
+    /**
+     * A single rejected row, with its 1-based line number so people can find it in the sheet.
+     */
+    public static class RejectedRow {
+        private final int lineNumber;
+        private final String line;
+        private final String reason;
+
+        public RejectedRow(int lineNumber, String line, String reason) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public int getLineNumber() { return lineNumber; }
+        public String getLine() { return line; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + reason + " [" + line + "]";
+        }
+    }
+
+    private int appliedCount;
+    private final List<RejectedRow> rejectedRows = new ArrayList<>();
+
+    void recordApplied(int rows) { appliedCount += rows; }
+    void recordRejected(RejectedRow row) { rejectedRows.add(row); }
+
+    public int getAppliedCount() { return appliedCount; }
+    public List<RejectedRow> getRejectedRows() { return Collections.unmodifiableList(rejectedRows); }
+    public boolean hasExceptions() { return !rejectedRows.isEmpty(); }
+
+    /**
+     * Writes the exceptions as a CSV file: lineNumber,reason,originalRow.
+     * The reason and the original row are quoted when they need it, since the row is full of commas itself.
+     * @param reportPath Where to write the report.
+     * @throws IOException If there's an issue writing the file.
+     */
+    public void writeExceptionsReport(Path reportPath) throws IOException {
+        List<String> lines = new ArrayList<>(rejectedRows.size() + 1);
+        lines.add("lineNumber,reason,originalRow");
+        for (RejectedRow row : rejectedRows) {
+            lines.add(row.getLineNumber() + "," + csvField(row.getReason()) + "," + csvField(row.getLine()));
+        }
+        Files.write(reportPath, lines);
+    }
+
+    // Quotes a CSV field (doubling any quotes inside it) if it contains a comma, quote or line break.
+    static String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,28 @@
+package edu.ccrm.io;
+
+/**
+ * The outcome of a merge (upsert) import: how many records were new, how many had changed
+ * fields that we updated, how many were already up to date, and how many rows we couldn't read.
+ */
+public class MergeReport {
+    private int insertedCount;
+    private int updatedCount;
+    private int unchangedCount;
+    private int skippedCount;
+
+    void recordInserted() { insertedCount++; }
+    void recordUpdated() { updatedCount++; }
+    void recordUnchanged() { unchangedCount++; }
+    void recordSkipped() { skippedCount++; }
+
+    public int getInsertedCount() { return insertedCount; }
+    public int getUpdatedCount() { return updatedCount; }
+    public int getUnchangedCount() { return unchangedCount; }
+    public int getSkippedCount() { return skippedCount; }
+
+    @Override
+    public String toString() {
+        return String.format("Inserted: %d, Updated: %d, Unchanged: %d, Skipped: %d",
+            insertedCount, updatedCount, unchangedCount, skippedCount);
+    }
+}
@@ -0,0 +1,43 @@
+package edu.ccrm.io;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The outcome of a bulk transcript run: where the files went, how many were written or failed,
+ * how many bytes that came to and how long it all took. Counts are added by the writer threads,
+ * hence the synchronized updates.
+ */
+public class TranscriptBatchReport {
+    private final Path outputDirectory;
+    private long writtenCount;
+    private long failedCount;
+    private long bytesWritten;
+    private Duration elapsed = Duration.ZERO;
+
+    TranscriptBatchReport(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    synchronized void recordWritten(long bytes) {
+        writtenCount++;
+        bytesWritten += bytes;
+    }
+
+    synchronized void recordFailed() { failedCount++; }
+
+    synchronized void setElapsed(Duration elapsed) { this.elapsed = elapsed; }
+
+    public Path getOutputDirectory() { return outputDirectory; }
+    public synchronized long getWrittenCount() { return writtenCount; }
+    public synchronized long getFailedCount() { return failedCount; }
+    public synchronized long getBytesWritten() { return bytesWritten; }
+    public synchronized Duration getElapsed() { return elapsed; }
+
+    @Override
+    public synchronized String toString() {
+        double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+        return String.format("Written: %d, Failed: %d, Size: %d KB, Elapsed: %.1f s (%.0f transcripts/s), Directory: %s",
+            writtenCount, failedCount, bytesWritten / 1024, seconds, writtenCount / seconds, outputDirectory);
+    }
+}
@@ -0,0 +1,322 @@
+package edu.ccrm.io;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.*;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.GradingService;
+import edu.ccrm.service.StudentSnapshot;
+import edu.ccrm.util.AsyncLogger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+/**
+ * Writes one transcript file (plain text or HTML) per student, for a whole graduating class at once.
+ * Students are read from a snapshot so every file reflects the same moment, course titles and credits
+ * come from a catalog indexed once per run, and templates are compiled once and cached.
+ * Rendering runs in parallel, and the rendered files go through a bounded queue to a few writer threads,
+ * so the renderers can't race ahead and pile the whole class up in memory while the disk catches up.
+ */
+public class TranscriptGenerator {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("TranscriptGenerator");
+
+    // Call counts and latency histograms for each public operation, published over JMX.
+    private static final OperationMetrics GENERATE_TRANSCRIPTS = MetricsRegistry.register("TranscriptGenerator", "generateTranscripts");
+
+    // How many rendered transcripts can wait for a writer before the renderers have to wait too.
+    private static final int WRITE_QUEUE_CAPACITY = 1024;
+
+    // Tells a writer thread there's nothing more to write.
+    static final RenderedTranscript END_OF_BATCH = new RenderedTranscript(null, null);
+
+    // Compiled templates, one per format and template file. An entry is replaced when its file changes,
+    // so editing a template over and over doesn't leave old compiled copies behind.
+    private static final Map<String, CachedTemplate> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+
+    private static final String DEFAULT_TEXT_TEMPLATE =
+        "OFFICIAL TRANSCRIPT\n"
+        + "===================\n"
+        + "Name:                {{name}}\n"
+        + "Registration Number: {{registrationNumber}}\n"
+        + "Email:               {{email}}\n"
+        + "Generated On:        {{generatedOn}}\n"
+        + "\n"
+        + "Code | Title | Credits | Marks | Grade | Status\n"
+        + "{{#courses}}{{courseCode}} | {{title}} | {{credits}} | {{marks}} | {{grade}} | {{status}}\n{{/courses}}"
+        + "\n"
+        + "Credits Earned: {{creditsEarned}}\n"
+        + "GPA:            {{gpa}}\n";
+
+    private static final String DEFAULT_HTML_TEMPLATE =
+        "<!DOCTYPE html>\n"
+        + "<html><head><meta charset=\"UTF-8\"><title>Transcript - {{registrationNumber}}</title></head>\n"
+        + "<body>\n"
+        + "<h1>Official Transcript</h1>\n"
+        + "<p>Name: {{name}}<br>Registration Number: {{registrationNumber}}<br>Email: {{email}}<br>Generated On: {{generatedOn}}</p>\n"
+        + "<table border=\"1\">\n"
+        + "<tr><th>Code</th><th>Title</th><th>Credits</th><th>Marks</th><th>Grade</th><th>Status</th></tr>\n"
+        + "{{#courses}}<tr><td>{{courseCode}}</td><td>{{title}}</td><td>{{credits}}</td><td>{{marks}}</td><td>{{grade}}</td><td>{{status}}</td></tr>\n{{/courses}}"
+        + "</table>\n"
+        + "<p>Credits Earned: {{creditsEarned}}<br>GPA: {{gpa}}</p>\n"
+        + "</body></html>\n";
+
+    /** The kinds of transcript file we can write. */
+    public enum Format {
+        TEXT("txt", false, DEFAULT_TEXT_TEMPLATE),
+        HTML("html", true, DEFAULT_HTML_TEMPLATE);
+
+        private final String extension;
+        private final boolean escapeHtml;
+        private final String defaultTemplate;
+
+        Format(String extension, boolean escapeHtml, String defaultTemplate) {
+            this.extension = extension;
+            this.escapeHtml = escapeHtml;
+            this.defaultTemplate = defaultTemplate;
+        }
+
+        public String getExtension() { return extension; }
+    }
+
+    private final CourseService courseService;
+    private final GradingService gradingService;
+
+    public TranscriptGenerator(CourseService courseService, GradingService gradingService) {
+        this.courseService = courseService;
+        this.gradingService = gradingService;
+    }
+
+    /**
+     * Writes a transcript file for every student in a snapshot that passes the filter, named after
+     * their registration number. A file that can't be written is logged and counted, and the rest carry on.
+     * To change the layout, drop a transcript.txt or transcript.html into the templates folder of the
+     * data directory; otherwise the built-in template is used.
+     * @param snapshot The snapshot to read students from.
+     * @param studentFilter Which students to write transcripts for (e.g. only active ones).
+     * @param outputDirectory Where to write the files; created if it doesn't exist.
+     * @param format Whether to write plain text or HTML.
+     * @return How many transcripts were written or failed, and how long it took.
+     * @throws IOException If the output directory or a custom template can't be used, or the run is interrupted.
+     */
+    public TranscriptBatchReport generateTranscripts(StudentSnapshot snapshot, Predicate<StudentVersion> studentFilter,
+                                                     Path outputDirectory, Format format) throws IOException {
+        long startNanos = System.nanoTime();
+        ForkJoinPool renderPool = null;
+        ExecutorService writerPool = null;
+        try {
+            Files.createDirectories(outputDirectory);
+            TranscriptTemplate template = templateFor(format);
+            TranscriptBatchReport report = new TranscriptBatchReport(outputDirectory);
+
+            // One catalog lookup per course for the whole run, instead of one per transcript row.
+            Map<String, Course> catalog = new HashMap<>();
+            for (Course course : courseService.courseView()) catalog.put(course.getCourseCode(), course);
+            String generatedOn = LocalDate.now().toString();
+
+            int parallelism = AppConfig.getInstance().getImportParallelism();
+            int writerCount = Math.max(1, parallelism / 2);
+            BlockingQueue<RenderedTranscript> writeQueue = new ArrayBlockingQueue<>(WRITE_QUEUE_CAPACITY);
+            writerPool = Executors.newFixedThreadPool(writerCount, writerThreads());
+            for (int i = 0; i < writerCount; i++) {
+                writerPool.execute(() -> drainWriteQueue(writeQueue, report));
+            }
+
+            renderPool = new ForkJoinPool(parallelism);
+            try {
+                renderPool.submit(() -> snapshot.students()
+                    .parallel()
+                    .filter(studentFilter)
+                    .forEach(student -> {
+                        StringBuilder out = new StringBuilder(2048);
+                        template.render(out, studentValues(student, catalog, generatedOn), courseRows(student, catalog));
+                        Path file = outputDirectory.resolve(fileNameFor(student, format));
+                        try {
+                            writeQueue.put(new RenderedTranscript(file, out.toString()));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new CancellationException("Transcript generation interrupted");
+                        }
+                    })).get();
+            } catch (ExecutionException e) {
+                throw new IOException("Transcript rendering failed", e.getCause());
+            } finally {
+                // Every writer gets its own end-of-batch marker, once everything ahead of it has been written.
+                for (int i = 0; i < writerCount; i++) writeQueue.put(END_OF_BATCH);
+            }
+            writerPool.shutdown();
+            writerPool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+            report.setElapsed(Duration.ofNanos(System.nanoTime() - startNanos));
+            LOG.info("Transcripts generated.", "directory", outputDirectory, "written", report.getWrittenCount(),
+                "failed", report.getFailedCount());
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            GENERATE_TRANSCRIPTS.recordError();
+            throw new IOException("Transcript generation interrupted", e);
+        } catch (IOException e) {
+            GENERATE_TRANSCRIPTS.recordError();
+            throw e;
+        } finally {
+            if (renderPool != null) renderPool.shutdownNow();
+            if (writerPool != null) writerPool.shutdownNow();
+            GENERATE_TRANSCRIPTS.record(startNanos);
+        }
+    }
+
+    // Values for TranscriptTemplate.STUDENT_FIELDS, in the same order.
+    private String[] studentValues(StudentVersion student, Map<String, Course> catalog, String generatedOn) {
+        int creditsEarned = 0;
+        for (TranscriptEntry entry : student.getTranscript().values()) {
+            Course course = catalog.get(entry.getCourseCode());
+            if (course != null && entry.getGrade() != Grade.F) creditsEarned += course.getCredits();
+        }
+        return new String[] {
+            student.getName(),
+            student.getRegistrationNumber(),
+            student.getEmail(),
+            generatedOn,
+            String.format("%.2f", gradingService.computeGPA(student)),
+            String.valueOf(creditsEarned)
+        };
+    }
+
+    // One row per course the student has a grade in, is enrolled in or left incomplete, sorted by course code.
+    // Values are in the order of TranscriptTemplate.COURSE_FIELDS.
+    private static List<String[]> courseRows(StudentVersion student, Map<String, Course> catalog) {
+        Map<String, String[]> rows = new TreeMap<>();
+        for (CourseHistoryEntry history : student.getCourseHistory()) {
+            if (history.getOutcome() == CourseHistoryEntry.Outcome.INCOMPLETE) {
+                rows.put(history.getCourseCode(), courseRow(history.getCourseCode(), catalog, "-", "-",
+                    "Incomplete (" + history.getSemester() + ")"));
+            }
+        }
+        for (String courseCode : student.getEnrolledCourses()) {
+            rows.put(courseCode, courseRow(courseCode, catalog, "-", "-", "In Progress"));
+        }
+        for (TranscriptEntry entry : student.getTranscript().values()) {
+            rows.put(entry.getCourseCode(), courseRow(entry.getCourseCode(), catalog, String.valueOf(entry.getMarks()),
+                entry.getGrade().name(), entry.isFinalized() ? "Final" : "Graded"));
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private static String[] courseRow(String courseCode, Map<String, Course> catalog, String marks, String grade, String status) {
+        Course course = catalog.get(courseCode);
+        return new String[] {
+            courseCode,
+            course == null ? "(unknown course)" : course.getTitle(),
+            course == null ? "-" : String.valueOf(course.getCredits()),
+            marks,
+            grade,
+            status
+        };
+    }
+
+    // Registration numbers become file names, so anything that isn't safe in a file name is swapped for '_'.
+    private static String fileNameFor(StudentVersion student, Format format) {
+        return student.getRegistrationNumber().replaceAll("[^A-Za-z0-9._-]", "_") + "." + format.getExtension();
+    }
+
+    // Package-private so tests can feed a writer directly.
+    static void drainWriteQueue(BlockingQueue<RenderedTranscript> writeQueue, TranscriptBatchReport report) {
+        try {
+            while (true) {
+                RenderedTranscript transcript = writeQueue.take();
+                if (transcript == END_OF_BATCH) return;
+                byte[] bytes = transcript.content.getBytes(StandardCharsets.UTF_8);
+                try {
+                    Files.write(transcript.file, bytes);
+                    report.recordWritten(bytes.length);
+                } catch (IOException | RuntimeException e) {
+                    // Runtime failures count against the one file too. A writer that died here would leave
+                    // the renderers (and the end-of-batch markers) blocked on a full queue for good.
+                    report.recordFailed();
+                    LOG.error("Oh no! Failed to write a transcript.", "file", transcript.file, "reason", e.toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Uses the custom template from the data directory if there is one, otherwise the built-in one.
+    private static TranscriptTemplate templateFor(Format format) throws IOException {
+        return templateFor(format, Paths.get(AppConfig.getInstance().getApplicationDataDirectory()).resolve("templates"));
+    }
+
+    /**
+     * Finds the template for a format, preferring a custom one in the given folder. Either way it's only
+     * compiled once; a custom template is compiled again only if the file changes, and the new copy
+     * replaces the old one in the cache.
+     * @param format The transcript format.
+     * @param templatesDirectory Where to look for a custom transcript.txt or transcript.html.
+     * @return The compiled template.
+     * @throws IOException If the custom template can't be read or doesn't compile.
+     */
+    static TranscriptTemplate templateFor(Format format, Path templatesDirectory) throws IOException {
+        Path customTemplate = templatesDirectory.resolve("transcript." + format.getExtension());
+        if (!Files.isRegularFile(customTemplate)) {
+            return TEMPLATE_CACHE.computeIfAbsent(format.name() + "|built-in",
+                key -> new CachedTemplate(-1, TranscriptTemplate.compile(format.defaultTemplate, format.escapeHtml))).template;
+        }
+        String cacheKey = format.name() + "|" + customTemplate.toAbsolutePath();
+        long lastModified = Files.getLastModifiedTime(customTemplate).toMillis();
+        CachedTemplate cached = TEMPLATE_CACHE.get(cacheKey);
+        if (cached == null || cached.lastModified != lastModified) {
+            try {
+                cached = new CachedTemplate(lastModified, TranscriptTemplate.compile(
+                    new String(Files.readAllBytes(customTemplate), StandardCharsets.UTF_8), format.escapeHtml));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid transcript template " + customTemplate + ": " + e.getMessage(), e);
+            }
+            TEMPLATE_CACHE.put(cacheKey, cached);
+        }
+        return cached.template;
+    }
+
+    /** How many compiled templates are cached right now (for tests). */
+    static int cachedTemplateCount() {
+        return TEMPLATE_CACHE.size();
+    }
+
+    private static ThreadFactory writerThreads() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-transcript-writer");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // A compiled template and the modification time of the file it came from (-1 for a built-in one).
+    private static final class CachedTemplate {
+        final long lastModified;
+        final TranscriptTemplate template;
+
+        CachedTemplate(long lastModified, TranscriptTemplate template) {
+            this.lastModified = lastModified;
+            this.template = template;
+        }
+    }
+
+    // A rendered transcript waiting to be written.
+    static final class RenderedTranscript {
+        final Path file;
+        final String content;
+
+        RenderedTranscript(Path file, String content) {
+            this.file = file;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.ccrm.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A transcript template, compiled once into literal text and field slots so rendering a student is
+ * just appending strings, with no parsing or name lookups. Placeholders look like {@code {{name}}},
+ * and the part between {@code {{#courses}}} and {@code {{/courses}}} is repeated for every course.
+ * Unknown placeholders are rejected when the template is compiled, so a typo can't slip into thousands of files.
+ */
+final class TranscriptTemplate {
+    /** Placeholders available outside the course rows, in the order values are passed to render(). */
+    static final List<String> STUDENT_FIELDS = Arrays.asList(
+        "name", "registrationNumber", "email", "generatedOn", "gpa", "creditsEarned");
+    /** Placeholders available inside the course rows, in the order row values are passed to render(). */
+    static final List<String> COURSE_FIELDS = Arrays.asList(
+        "courseCode", "title", "credits", "marks", "grade", "status");
+
+    private static final String ROWS_START = "{{#courses}}";
+    private static final String ROWS_END = "{{/courses}}";
+
+    // Each part alternates literal text and a field index; a field index of -1 means "no field".
+    private final String[] headerLiterals;
+    private final int[] headerFields;
+    private final String[] rowLiterals;
+    private final int[] rowFields;
+    private final String[] footerLiterals;
+    private final int[] footerFields;
+    private final boolean escapeHtml;
+
+    private TranscriptTemplate(String source, boolean escapeHtml) {
+        this.escapeHtml = escapeHtml;
+        int rowsStart = source.indexOf(ROWS_START);
+        int rowsEnd = source.indexOf(ROWS_END);
+        if (rowsStart < 0 || rowsEnd < rowsStart) {
+            throw new IllegalArgumentException("A transcript template needs a " + ROWS_START + "..." + ROWS_END + " section");
+        }
+        List<String> literals = new ArrayList<>();
+        List<Integer> fields = new ArrayList<>();
+        split(source.substring(0, rowsStart), STUDENT_FIELDS, literals, fields);
+        headerLiterals = literals.toArray(new String[0]);
+        headerFields = toArray(fields);
+        literals.clear();
+        fields.clear();
+        split(source.substring(rowsStart + ROWS_START.length(), rowsEnd), COURSE_FIELDS, literals, fields);
+        rowLiterals = literals.toArray(new String[0]);
+        rowFields = toArray(fields);
+        literals.clear();
+        fields.clear();
+        split(source.substring(rowsEnd + ROWS_END.length()), STUDENT_FIELDS, literals, fields);
+        footerLiterals = literals.toArray(new String[0]);
+        footerFields = toArray(fields);
+    }
+
+    /**
+     * Compiles a template.
+     * @param source The template text.
+     * @param escapeHtml Whether values should be HTML-escaped (for HTML templates).
+     * @return The compiled template.
+     * @throws IllegalArgumentException If the course rows section is missing or a placeholder is unknown.
+     */
+    static TranscriptTemplate compile(String source, boolean escapeHtml) {
+        return new TranscriptTemplate(source, escapeHtml);
+    }
+
+    /**
+     * Renders one transcript.
+     * @param out Where to append the output.
+     * @param studentValues Values for STUDENT_FIELDS, in that order.
+     * @param courseRows One array of values for COURSE_FIELDS per course, in that order.
+     */
+    void render(StringBuilder out, String[] studentValues, List<String[]> courseRows) {
+        append(out, headerLiterals, headerFields, studentValues);
+        for (String[] row : courseRows) append(out, rowLiterals, rowFields, row);
+        append(out, footerLiterals, footerFields, studentValues);
+    }
+
+    private void append(StringBuilder out, String[] literals, int[] fields, String[] values) {
+        for (int i = 0; i < literals.length; i++) {
+            out.append(literals[i]);
+            if (fields[i] >= 0) {
+                String value = values[fields[i]];
+                if (escapeHtml) appendEscaped(out, value); else out.append(value);
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '&': out.append("&amp;"); break;
+                case '"': out.append("&quot;"); break;
+                default: out.append(c);
+            }
+        }
+    }
+
+    // Splits text into (literal, field) pairs; the last pair has no field.
+    private static void split(String text, List<String> fieldNames, List<String> literals, List<Integer> fields) {
+        int position = 0;
+        while (true) {
+            int open = text.indexOf("{{", position);
+            if (open < 0) break;
+            int close = text.indexOf("}}", open);
+            if (close < 0) throw new IllegalArgumentException("Unclosed placeholder in transcript template");
+            String name = text.substring(open + 2, close).trim();
+            int field = fieldNames.indexOf(name);
+            if (field < 0) throw new IllegalArgumentException("Unknown placeholder {{" + name + "}} in transcript template");
+            literals.add(text.substring(position, open));
+            fields.add(field);
+            position = close + 2;
+        }
+        literals.add(text.substring(position));
+        fields.add(-1);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,96 @@
+package edu.ccrm.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, log-linear latency histogram in the spirit of HdrHistogram.
+ * Every power of two is split into 64 linear sub-buckets, so any recorded value is reported
+ * within about 1.6% of its true value. The buckets are preallocated, and recording is one
+ * bucket increment plus updates to striped counters, so it never allocates, is safe to call
+ * from any thread, and doesn't make every thread fight over the same cache line.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_SHIFT = 40; // Covers values up to ~2^46 ns, i.e. about 19 hours.
+    private static final long MAX_TRACKABLE = (2L * SUB_BUCKET_COUNT << MAX_SHIFT) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray((MAX_SHIFT + 2) * SUB_BUCKET_COUNT);
+    // The count, sum and max are hit on every sample, so they're striped per thread rather than
+    // single atomics. The bucket array is already spread out across many slots.
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one value (normally a duration in nanoseconds). Negative values count as zero,
+     * and values beyond the trackable range land in the last bucket.
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_TRACKABLE));
+        counts.incrementAndGet(indexFor(clamped));
+        totalCount.increment();
+        totalValue.add(clamped);
+        maxValue.accumulate(clamped);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0.0 : (double) totalValue.sum() / count;
+    }
+
+    /**
+     * Returns the value at the given percentile. The answer is the upper edge of the bucket
+     * holding that rank, never more than the largest value actually recorded.
+     * @param percentile A value between 0 and 100.
+     * @return The value at that percentile, or 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.sum();
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int index = 0; index < counts.length(); index++) {
+            seen += counts.get(index);
+            if (seen >= rank) return Math.min(highestValueAt(index), maxValue.get());
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Clears every bucket. Values recorded concurrently with a reset may or may not survive it.
+     */
+    public void reset() {
+        for (int index = 0; index < counts.length(); index++) counts.set(index, 0);
+        totalCount.reset();
+        totalValue.reset();
+        maxValue.reset();
+    }
+
+    // Values below 64 map straight to their own bucket. Above that, the top 6 significant bits
+    // pick the sub-bucket and the number of dropped low bits picks the row.
+    private static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift); // Always in [64, 128).
+        return (shift + 1) * SUB_BUCKET_COUNT + (mantissa - SUB_BUCKET_COUNT);
+    }
+
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,74 @@
+package edu.ccrm.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every OperationMetrics in the application and publishes each one as a platform MBean,
+ * named {@code edu.ccrm:type=Operation,component=<Service>,name=<operation>}, so JConsole,
+ * VisualVM or jcmd can read p50/p99 per operation while the app is under load.
+ * Like AppConfig, there's a single shared instance.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, OperationMetrics> metricsByKey = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {}
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Shorthand for {@code MetricsRegistry.getInstance().operation(component, operation)},
+     * meant for static final fields in the instrumented classes.
+     */
+    public static OperationMetrics register(String component, String operation) {
+        return INSTANCE.operation(component, operation);
+    }
+
+    /**
+     * Returns the metrics for an operation, creating and publishing them on first use.
+     * @param component The class that owns the operation, e.g. "StudentService".
+     * @param operation The method name, e.g. "addStudent".
+     * @return The shared metrics object for that operation.
+     */
+    public OperationMetrics operation(String component, String operation) {
+        return metricsByKey.computeIfAbsent(component + "." + operation, key -> {
+            OperationMetrics metrics = new OperationMetrics(component, operation);
+            publish(metrics);
+            return metrics;
+        });
+    }
+
+    /**
+     * Returns every registered operation, sorted by component and then operation name.
+     * @return A snapshot list of all operation metrics.
+     */
+    public List<OperationMetrics> getAll() {
+        List<OperationMetrics> all = new ArrayList<>(metricsByKey.values());
+        all.sort(Comparator.comparing(OperationMetrics::getComponent).thenComparing(OperationMetrics::getOperation));
+        return all;
+    }
+
+    public void resetAll() {
+        metricsByKey.values().forEach(OperationMetrics::reset);
+    }
+
+    private static void publish(OperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("edu.ccrm:type=Operation,component=" + metrics.getComponent()
+                + ",name=" + metrics.getOperation());
+            if (!server.isRegistered(name)) server.registerMBean(metrics, name);
+        } catch (JMException | SecurityException e) {
+            // Metrics are still collected and shown in the CLI; they just won't be visible over JMX.
+            System.err.println("Warning: Could not publish MBean for " + metrics.getComponent() + "." + metrics.getOperation() + ": " + e.getMessage());
+        }
+    }
+}
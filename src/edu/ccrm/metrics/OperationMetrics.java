@@ -0,0 +1,59 @@
+package edu.ccrm.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Call count, error count and latency histogram for a single service operation.
+ * The usual pattern is to grab the start time, run the operation, and record in a finally block:
+ * <pre>
+ * long startNanos = System.nanoTime();
+ * try { ... } finally { ADD_STUDENT.record(startNanos); }
+ * </pre>
+ * The rule for what gets timed: anything that loops, writes, or does I/O. Constant-time lookups
+ * such as getStudent, getCourse, getRoster, getTeachingLoad or calculateGrade are left alone, because the two
+ * nanoTime calls and the histogram update would cost as much as the lookup itself. Their cost
+ * still shows up in whichever timed operation called them.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+    private final String component;
+    private final String operation;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong errorCount = new AtomicLong();
+
+    OperationMetrics(String component, String operation) {
+        this.component = component;
+        this.operation = operation;
+    }
+
+    /**
+     * Records one call that started at {@code startNanos} (from System.nanoTime()) and ended now.
+     * @param startNanos The System.nanoTime() value taken just before the operation ran.
+     */
+    public void record(long startNanos) {
+        latencies.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Counts a failed call. The latency is still recorded through record().
+     */
+    public void recordError() {
+        errorCount.incrementAndGet();
+    }
+
+    @Override public String getComponent() { return component; }
+    @Override public String getOperation() { return operation; }
+    @Override public long getCount() { return latencies.getCount(); }
+    @Override public long getErrorCount() { return errorCount.get(); }
+    @Override public double getMeanMicros() { return latencies.getMean() / 1_000.0; }
+    @Override public double getP50Micros() { return latencies.getValueAtPercentile(50) / 1_000.0; }
+    @Override public double getP90Micros() { return latencies.getValueAtPercentile(90) / 1_000.0; }
+    @Override public double getP99Micros() { return latencies.getValueAtPercentile(99) / 1_000.0; }
+    @Override public double getP999Micros() { return latencies.getValueAtPercentile(99.9) / 1_000.0; }
+    @Override public double getMaxMicros() { return latencies.getMax() / 1_000.0; }
+
+    @Override
+    public void reset() {
+        latencies.reset();
+        errorCount.set(0);
+    }
+}
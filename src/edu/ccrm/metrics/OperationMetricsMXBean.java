@@ -0,0 +1,19 @@
+package edu.ccrm.metrics;
+
+/**
+ * What each instrumented operation exposes over JMX. Latencies are in microseconds,
+ * which reads nicely in JConsole / VisualVM.
+ */
+public interface OperationMetricsMXBean {
+    String getComponent();
+    String getOperation();
+    long getCount();
+    long getErrorCount();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP90Micros();
+    double getP99Micros();
+    double getP999Micros();
+    double getMaxMicros();
+    void reset();
+}
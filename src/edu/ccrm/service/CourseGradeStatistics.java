@@ -0,0 +1,139 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Grade;
+
+/**
+ * Running grade aggregates for a single course. GradingService updates this on every
+ * assignMarks call (and backs out the old marks on a re-grade), so reading the mean,
+ * standard deviation, median or any percentile never has to look at a transcript.
+ * Marks are bucketed into a 0–100 histogram, which keeps percentiles exact for whole marks.
+ * Grades for different students in the same course can be recorded at the same time, so every
+ * method locks the statistics object; each update is a handful of increments, so the lock is cheap.
+ */
+public class CourseGradeStatistics {
+    private static final int MAX_MARKS = 100;
+
+    private final String courseCode;
+    private final int[] gradeCounts = new int[Grade.values().length];
+    private final int[] marksHistogram = new int[MAX_MARKS + 1];
+    private int count;
+    private long sumOfMarks;
+    private long sumOfSquares;
+
+    public CourseGradeStatistics(String courseCode) {
+        this.courseCode = courseCode;
+    }
+
+    // Package-private: only GradingService should be feeding numbers in here.
+    synchronized void add(int marks, Grade grade) {
+        gradeCounts[grade.ordinal()]++;
+        marksHistogram[clamp(marks)]++;
+        count++;
+        sumOfMarks += marks;
+        sumOfSquares += (long) marks * marks;
+    }
+
+    synchronized void remove(int marks, Grade grade) {
+        gradeCounts[grade.ordinal()]--;
+        marksHistogram[clamp(marks)]--;
+        count--;
+        sumOfMarks -= marks;
+        sumOfSquares -= (long) marks * marks;
+    }
+
+    /**
+     * Returns every running counter in one array, so the statistics can be sent to another process
+     * (a sharded deployment keeps one set per shard) and added up there. Counters from several sources
+     * can simply be summed element by element before calling {@link #fromCounters}.
+     * @return The sum of marks, the sum of squared marks, the count for each grade (in Grade order),
+     *         then the number of students at each mark from 0 to 100.
+     */
+    public synchronized long[] getCounters() {
+        long[] counters = new long[2 + gradeCounts.length + marksHistogram.length];
+        counters[0] = sumOfMarks;
+        counters[1] = sumOfSquares;
+        for (int i = 0; i < gradeCounts.length; i++) counters[2 + i] = gradeCounts[i];
+        for (int i = 0; i < marksHistogram.length; i++) counters[2 + gradeCounts.length + i] = marksHistogram[i];
+        return counters;
+    }
+
+    /**
+     * Rebuilds statistics from counters laid out like {@link #getCounters}.
+     * @param courseCode The course the counters are for.
+     * @param counters The counters.
+     * @return The statistics.
+     * @throws IllegalArgumentException If the array isn't the right length.
+     */
+    public static CourseGradeStatistics fromCounters(String courseCode, long[] counters) {
+        CourseGradeStatistics statistics = new CourseGradeStatistics(courseCode);
+        int gradeCount = statistics.gradeCounts.length;
+        if (counters.length != 2 + gradeCount + statistics.marksHistogram.length) {
+            throw new IllegalArgumentException("Expected " + (2 + gradeCount + statistics.marksHistogram.length)
+                + " grade statistics counters but got " + counters.length);
+        }
+        statistics.sumOfMarks = counters[0];
+        statistics.sumOfSquares = counters[1];
+        for (int i = 0; i < gradeCount; i++) statistics.gradeCounts[i] = (int) counters[2 + i];
+        for (int i = 0; i < statistics.marksHistogram.length; i++) {
+            statistics.marksHistogram[i] = (int) counters[2 + gradeCount + i];
+            statistics.count += statistics.marksHistogram[i];
+        }
+        return statistics;
+    }
+
+    public String getCourseCode() { return courseCode; }
+    public synchronized int getCount() { return count; }
+
+    public synchronized int getGradeCount(Grade grade) {
+        return gradeCounts[grade.ordinal()];
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0.0 : (double) sumOfMarks / count;
+    }
+
+    /**
+     * The population standard deviation of marks, worked out from the running sums.
+     * @return The standard deviation, or 0.0 if nobody has been graded yet.
+     */
+    public synchronized double getStandardDeviation() {
+        if (count == 0) return 0.0;
+        double mean = getMean();
+        double variance = (double) sumOfSquares / count - mean * mean;
+        return variance <= 0 ? 0.0 : Math.sqrt(variance); // Guard against tiny negative rounding errors.
+    }
+
+    public synchronized double getMedian() {
+        return getPercentile(50);
+    }
+
+    /**
+     * Returns the marks at the given percentile (nearest-rank), read off the marks histogram.
+     * @param percentile A value between 0 and 100.
+     * @return The marks at that percentile, or 0 if nobody has been graded yet.
+     */
+    public synchronized int getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int marks = 0; marks <= MAX_MARKS; marks++) {
+            seen += marksHistogram[marks];
+            if (seen >= rank) return marks;
+        }
+        return MAX_MARKS;
+    }
+
+    private static int clamp(int marks) {
+        return Math.max(0, Math.min(MAX_MARKS, marks));
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder histogram = new StringBuilder();
+        for (Grade grade : Grade.values()) {
+            histogram.append(grade).append('=').append(gradeCounts[grade.ordinal()]).append(' ');
+        }
+        return String.format("Course %s: graded=%d, mean=%.2f, median=%.1f, stddev=%.2f, grades: %s",
+            courseCode, count, getMean(), getMedian(), getStandardDeviation(), histogram.toString().trim());
+    }
+}
@@ -0,0 +1,53 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import java.util.Comparator;
+
+/**
+ * Describes a filtered, sorted, paged course listing. Works just like StudentQuery:
+ * unset filters are ignored, and the default page size is 50.
+ */
+public class CourseQuery {
+
+    /**
+     * The keys we know how to sort courses by. Ties are broken by course code,
+     * so the order is total and paging never repeats or skips a course.
+     */
+    public enum SortKey {
+        NONE(null),
+        COURSE_CODE(Comparator.comparing(Course::getCourseCode)),
+        TITLE(Comparator.comparing(Course::getTitle, String.CASE_INSENSITIVE_ORDER).thenComparing(Course::getCourseCode)),
+        CREDITS(Comparator.comparingInt(Course::getCredits).thenComparing(Course::getCourseCode));
+
+        private final Comparator<Course> comparator;
+        SortKey(Comparator<Course> comparator) { this.comparator = comparator; }
+        public Comparator<Course> getComparator() { return comparator; }
+    }
+
+    private String department;
+    private Semester semester;
+    private String instructorId;
+    private SortKey sortKey = SortKey.NONE;
+    private int page = 0;
+    private int limit = 50;
+
+    public static CourseQuery create() {
+        return new CourseQuery();
+    }
+
+    public CourseQuery department(String department) { this.department = department; return this; }
+    public CourseQuery semester(Semester semester) { this.semester = semester; return this; }
+    public CourseQuery instructor(String instructorId) { this.instructorId = instructorId; return this; }
+    public CourseQuery sortBy(SortKey sortKey) { this.sortKey = sortKey == null ? SortKey.NONE : sortKey; return this; }
+    public CourseQuery page(int page) { this.page = Math.max(0, page); return this; }
+    public CourseQuery limit(int limit) { this.limit = Math.max(1, limit); return this; }
+
+    public String getDepartment() { return department; }
+    public Semester getSemester() { return semester; }
+    public String getInstructorId() { return instructorId; }
+    public SortKey getSortKey() { return sortKey; }
+    public int getPage() { return page; }
+    public int getLimit() { return limit; }
+    public long getOffset() { return (long) page * limit; }
+}
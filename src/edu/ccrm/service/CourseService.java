@@ -1,15 +1,48 @@
 package edu.ccrm.service;
 
 import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.util.AsyncLogger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This service handles all operations related to courses, like adding new ones
  * or listing existing courses. It essentially manages our course catalog.
  */
 public class CourseService {
-    // I'm using a HashMap to store courses, with the course code as the key for quick lookups.
-    private Map<String, Course> courses = new HashMap<>();
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("CourseService");
+
+    // Call counts and latency histograms for each public operation that does real work, published over JMX.
+    private static final OperationMetrics ADD_COURSE = MetricsRegistry.register("CourseService", "addCourse");
+    private static final OperationMetrics LIST_COURSES = MetricsRegistry.register("CourseService", "listCourses");
+    private static final OperationMetrics ASSIGN_INSTRUCTOR = MetricsRegistry.register("CourseService", "assignInstructor");
+
+    /**
+     * Gets told about changes to the catalog, so indexes built on top of it (like the instructor
+     * index in InstructorService) stay in sync without rescanning every course.
+     */
+    public interface CourseListener {
+        void courseAdded(Course course);
+        /** The course's instructor, credits or semester changed; the arguments say what they were before. */
+        void courseChanged(Course course, String previousInstructorId, int previousCredits, Semester previousSemester);
+    }
+
+    // I'm using a ConcurrentHashMap to store courses, with the course code as the key for quick lookups.
+    // Being concurrent means background jobs can add courses while the CLI is reading them.
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+    private final List<CourseListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a listener for catalog changes.
+     * @param listener The listener to notify.
+     */
+    public void addListener(CourseListener listener) {
+        listeners.add(listener);
+    }
 
     /**
      * Adds a new course to the system. Before adding, it checks if a course with the same code
@@ -17,19 +50,77 @@ public class CourseService {
      * @param course The Course object to be added.
      */
     public void addCourse(Course course) {
-        if (courses.containsKey(course.getCourseCode())) {
-            System.out.println("Oops! A course with code '" + course.getCourseCode() + "' already exists. Not adding again.");
-        } else {
-            courses.put(course.getCourseCode(), course);
-            System.out.println("Course '" + course.getCourseCode() + "' was successfully added.");
+        long startNanos = System.nanoTime();
+        try {
+            if (courses.putIfAbsent(course.getCourseCode(), course) != null) {
+                LOG.warn("Oops! A course with this code already exists. Not adding again.", "courseCode", course.getCourseCode());
+            } else {
+                LOG.info("Course was successfully added.", "courseCode", course.getCourseCode());
+                // Holding the course's lock, so an instructor change can't reach the listeners before the add does.
+                synchronized (course) {
+                    course.setChangeListener(this::courseChanged);
+                    for (CourseListener listener : listeners) listener.courseAdded(course);
+                }
+            }
+        } finally {
+            ADD_COURSE.record(startNanos);
+        }
+    }
+
+    /**
+     * Retrieves a course by its code.
+     * @param courseCode The unique course code.
+     * @return The Course object if found, otherwise null.
+     */
+    public Course getCourse(String courseCode) {
+        return courseCode == null ? null : courses.get(courseCode);
+    }
+
+    /**
+     * Assigns a course to a different instructor. Course.setInstructorId does the same thing, since
+     * either way listeners (and the indexes they keep) hear about the change.
+     * @param courseCode The code of the course.
+     * @param instructorId The ID of the new instructor.
+     * @return true if the course was found, false otherwise.
+     */
+    public boolean assignInstructor(String courseCode, String instructorId) {
+        long startNanos = System.nanoTime();
+        try {
+            Course course = getCourse(courseCode);
+            if (course == null) return false;
+            course.setInstructorId(instructorId);
+            return true;
+        } finally {
+            ASSIGN_INSTRUCTOR.record(startNanos);
         }
     }
 
+    // Called by the course itself, with its lock held, whenever its instructor, credits or semester change.
+    private void courseChanged(Course course, String previousInstructorId, int previousCredits, Semester previousSemester) {
+        for (CourseListener listener : listeners) listener.courseChanged(course, previousInstructorId, previousCredits, previousSemester);
+        LOG.info("Course changed.", "courseCode", course.getCourseCode(), "instructor", course.getInstructorId(),
+            "credits", course.getCredits(), "semester", course.getSemester());
+    }
+
     /**
      * Retrieves a list of all courses currently in the system.
      * @return A List containing all Course objects.
      */
     public List<Course> listCourses() {
-        return new ArrayList<>(courses.values());
+        long startNanos = System.nanoTime();
+        try {
+            return new ArrayList<>(courses.values());
+        } finally {
+            LIST_COURSES.record(startNanos);
+        }
+    }
+
+    /**
+     * Returns a read-only live view of the course catalog. Unlike listCourses(), nothing is copied,
+     * so it's the thing to use when you only need to look at a few courses.
+     * @return An unmodifiable view over all Course objects.
+     */
+    public Collection<Course> courseView() {
+        return Collections.unmodifiableCollection(courses.values());
     }
 }
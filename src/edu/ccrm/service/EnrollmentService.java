@@ -2,12 +2,42 @@ package edu.ccrm.service;
 
 import edu.ccrm.domain.Student;
 import edu.ccrm.domain.Course;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This service manages the enrollment and unenrollment of students in courses.
  * It includes basic checks to ensure valid student and course objects are provided.
  */
 public class EnrollmentService {
+    // Call counts and latency histograms for each public operation that does real work, published over JMX.
+    private static final OperationMetrics ENROLL = MetricsRegistry.register("EnrollmentService", "enrollStudentInCourse");
+    private static final OperationMetrics UNENROLL = MetricsRegistry.register("EnrollmentService", "unenrollStudentFromCourse");
+
+    /**
+     * Gets told whenever the number of students enrolled in a course changes,
+     * so aggregates like an instructor's teaching load can be kept up to date as we go.
+     */
+    public interface EnrollmentListener {
+        void enrollmentCountChanged(String courseCode, int delta);
+    }
+
+    // A reverse index from course code to the registration numbers enrolled in it.
+    // This way "who is in CS101?" doesn't mean walking through every student.
+    // Concurrent all the way down: the ingest daemon and course listeners read rosters while the CLI enrolls.
+    private final Map<String, Set<String>> rostersByCourse = new ConcurrentHashMap<>();
+    private final List<EnrollmentListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a listener for enrollment count changes.
+     * @param listener The listener to notify.
+     */
+    public void addListener(EnrollmentListener listener) {
+        listeners.add(listener);
+    }
 
     /**
      * Attempts to enroll a student in a specific course.
@@ -17,14 +47,26 @@ public class EnrollmentService {
      * @return true if enrollment was successful, false otherwise.
      */
     public boolean enrollStudentInCourse(Student student, Course course) {
-        if (student != null && course != null) {
-            // This is where we could add more complex business rules, like checking max credits
-            // or prerequisites. For now, it's pretty straightforward.
-            student.enroll(course.getCourseCode());
-            return true;
+        long startNanos = System.nanoTime();
+        try {
+            if (student != null && course != null) {
+                // This is where we could add more complex business rules, like checking max credits
+                // or prerequisites. For now, it's pretty straightforward.
+                student.enroll(course.getCourseCode(), course.getCredits());
+                // The roster change and its notification happen under the course's lock, the same one an
+                // instructor change takes, so listeners never see a roster that's ahead of its count.
+                synchronized (course) {
+                    boolean newlyEnrolled = rostersByCourse.computeIfAbsent(course.getCourseCode(), code -> ConcurrentHashMap.newKeySet())
+                        .add(student.getRegistrationNumber());
+                    if (newlyEnrolled) notifyListeners(course.getCourseCode(), 1);
+                }
+                return true;
+            }
+            // If either the student or course object is null, we can't really do anything.
+            return false;
+        } finally {
+            ENROLL.record(startNanos);
         }
-        // If either the student or course object is null, we can't really do anything.
-        return false;
     }
 
     /**
@@ -35,10 +77,49 @@ public class EnrollmentService {
      * @return true if unenrollment was successful, false otherwise.
      */
     public boolean unenrollStudentFromCourse(Student student, Course course) {
-        if (student != null && course != null) {
-            student.unenroll(course.getCourseCode());
-            return true;
+        long startNanos = System.nanoTime();
+        try {
+            if (student != null && course != null) {
+                student.unenroll(course.getCourseCode(), course.getCredits());
+                synchronized (course) {
+                    Set<String> roster = rostersByCourse.get(course.getCourseCode());
+                    if (roster != null && roster.remove(student.getRegistrationNumber())) {
+                        notifyListeners(course.getCourseCode(), -1);
+                    }
+                }
+                return true;
+            }
+            return false;
+        } finally {
+            UNENROLL.record(startNanos);
+        }
+    }
+
+    /**
+     * Empties a course's roster, e.g. once its term has been rolled over and nobody is enrolled any more.
+     * @param course The course.
+     */
+    public void clearRoster(Course course) {
+        if (course == null) return;
+        synchronized (course) {
+            Set<String> roster = rostersByCourse.remove(course.getCourseCode());
+            if (roster != null && !roster.isEmpty()) notifyListeners(course.getCourseCode(), -roster.size());
         }
-        return false;
+    }
+
+    private void notifyListeners(String courseCode, int delta) {
+        for (EnrollmentListener listener : listeners) listener.enrollmentCountChanged(courseCode, delta);
+    }
+
+    /**
+     * Returns the registration numbers of everyone enrolled in a course, straight from the roster index.
+     * The returned set is a read-only live view, so callers can iterate it without copying, even while
+     * other threads enroll students. It has no particular order.
+     * @param courseCode The code of the course.
+     * @return The enrolled registration numbers (empty if nobody is enrolled).
+     */
+    public Set<String> getRoster(String courseCode) {
+        Set<String> roster = rostersByCourse.get(courseCode);
+        return roster == null ? Collections.emptySet() : Collections.unmodifiableSet(roster);
     }
 }
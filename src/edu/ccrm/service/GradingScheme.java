@@ -0,0 +1,84 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Grade;
+import java.util.*;
+
+/**
+ * A grading scale, compiled into a lookup table with one slot per mark from 0 to 100.
+ * Turning marks into a grade is then just an array index, no matter how many cut-offs the scale has.
+ */
+public class GradingScheme {
+    private static final int MAX_MARKS = 100;
+
+    /** The scale we've always used: S from 90, A from 80, and so on down to F below 40. */
+    public static final GradingScheme DEFAULT = parse("default", "S:90,A:80,B:70,C:60,D:50,E:40");
+
+    private final String name;
+    private final Grade[] gradeByMarks = new Grade[MAX_MARKS + 1];
+    private final String definition;
+
+    /**
+     * Builds a scheme from minimum marks per grade. Anything below every cut-off is an F.
+     * @param name A name for the scheme, used in config and reports.
+     * @param minimumMarks The lowest marks that earns each grade.
+     */
+    public GradingScheme(String name, Map<Grade, Integer> minimumMarks) {
+        this.name = name;
+        Arrays.fill(gradeByMarks, Grade.F);
+        // Walk grades from worst to best, so a better grade always wins where cut-offs overlap.
+        List<Grade> grades = new ArrayList<>(Arrays.asList(Grade.values()));
+        Collections.reverse(grades);
+        StringBuilder definitionBuilder = new StringBuilder();
+        for (Grade grade : grades) {
+            Integer minimum = minimumMarks.get(grade);
+            if (minimum == null) continue;
+            for (int marks = Math.max(0, minimum); marks <= MAX_MARKS; marks++) {
+                gradeByMarks[marks] = grade;
+            }
+            definitionBuilder.insert(0, grade + ":" + minimum + ",");
+        }
+        this.definition = definitionBuilder.length() == 0 ? "" : definitionBuilder.substring(0, definitionBuilder.length() - 1);
+    }
+
+    /**
+     * Parses a scheme from text such as "S:90,A:80,B:70,C:60,D:50,E:40".
+     * @param name The scheme name.
+     * @param definition Comma-separated grade:minimumMarks pairs.
+     * @return The compiled scheme.
+     * @throws IllegalArgumentException If a pair is malformed or names an unknown grade.
+     */
+    public static GradingScheme parse(String name, String definition) {
+        Map<Grade, Integer> minimumMarks = new EnumMap<>(Grade.class);
+        for (String pair : definition.split(",")) {
+            if (pair.isBlank()) continue;
+            String[] parts = pair.strip().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected grade:minimumMarks but got '" + pair.strip() + "' in scheme " + name);
+            }
+            try {
+                minimumMarks.put(Grade.valueOf(parts[0].strip().toUpperCase()), Integer.parseInt(parts[1].strip()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid minimum marks '" + parts[1].strip() + "' in scheme " + name);
+            }
+        }
+        return new GradingScheme(name, minimumMarks);
+    }
+
+    /**
+     * Looks up the grade for some marks. Marks outside 0–100 are clamped.
+     * @param marks The numerical marks.
+     * @return The grade for those marks under this scheme.
+     */
+    public Grade gradeFor(int marks) {
+        if (marks < 0) return gradeByMarks[0];
+        if (marks > MAX_MARKS) return gradeByMarks[MAX_MARKS];
+        return gradeByMarks[marks];
+    }
+
+    public String getName() { return name; }
+
+    @Override
+    public String toString() {
+        return name + " (" + definition + ")";
+    }
+}
@@ -0,0 +1,121 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Semester;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Keeps track of the grading schemes we know about and which department/semester uses which.
+ * Schemes come from a properties file like this:
+ * <pre>
+ * scheme.default=S:90,A:80,B:70,C:60,D:50,E:40
+ * scheme.strict=S:95,A:85,B:75,C:65,D:55,E:45
+ * use.CS=strict
+ * use.CS.FALL=default
+ * use.SUMMER=strict
+ * </pre>
+ * When picking a scheme we try department + semester first, then department, then semester,
+ * and finally fall back to the default scheme.
+ */
+public class GradingSchemeRegistry {
+    private final Map<String, GradingScheme> schemesByName = new HashMap<>();
+    private final Map<String, GradingScheme> assignments = new HashMap<>();
+    private GradingScheme defaultScheme = GradingScheme.DEFAULT;
+
+    public GradingSchemeRegistry() {
+        schemesByName.put(GradingScheme.DEFAULT.getName(), GradingScheme.DEFAULT);
+    }
+
+    /**
+     * Loads schemes and assignments from a properties file. A missing file just means
+     * "use the default scale everywhere", so that's not treated as an error.
+     * @param propertiesPath The path to the grading schemes properties file.
+     * @return A registry with everything from the file compiled and ready to use.
+     * @throws IOException If the file exists but can't be read.
+     * @throws IllegalArgumentException If a scheme is malformed or an assignment names an unknown scheme.
+     */
+    public static GradingSchemeRegistry load(Path propertiesPath) throws IOException {
+        GradingSchemeRegistry registry = new GradingSchemeRegistry();
+        if (!Files.exists(propertiesPath)) return registry;
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(propertiesPath)) {
+            properties.load(reader);
+        }
+        // Schemes first, so assignments can refer to any of them regardless of file order.
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith("scheme.")) {
+                String name = key.substring("scheme.".length());
+                registry.register(GradingScheme.parse(name, properties.getProperty(key)));
+            }
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith("use.")) {
+                String[] target = key.substring("use.".length()).split("\\.");
+                String schemeName = properties.getProperty(key).strip();
+                if (target.length == 1 && isSemester(target[0])) {
+                    registry.assign(null, Semester.valueOf(target[0].toUpperCase()), schemeName);
+                } else if (target.length == 1) {
+                    registry.assign(target[0], null, schemeName);
+                } else {
+                    registry.assign(target[0], Semester.valueOf(target[1].toUpperCase()), schemeName);
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Registers a scheme. Registering one called "default" replaces the built-in default.
+     * @param scheme The compiled scheme.
+     */
+    public void register(GradingScheme scheme) {
+        schemesByName.put(scheme.getName(), scheme);
+        if (scheme.getName().equals(GradingScheme.DEFAULT.getName())) defaultScheme = scheme;
+    }
+
+    /**
+     * Says which scheme a department and/or semester should use. Either (but not both) may be null.
+     * @param department The department code, or null for "any department".
+     * @param semester The semester, or null for "any semester".
+     * @param schemeName The name of a registered scheme.
+     */
+    public void assign(String department, Semester semester, String schemeName) {
+        GradingScheme scheme = schemesByName.get(schemeName);
+        if (scheme == null) throw new IllegalArgumentException("Unknown grading scheme: " + schemeName);
+        assignments.put(assignmentKey(department, semester), scheme);
+    }
+
+    /**
+     * Picks the scheme for a department and semester, most specific assignment first.
+     * @param department The course's department (may be null).
+     * @param semester The course's semester (may be null).
+     * @return The scheme to grade with; never null.
+     */
+    public GradingScheme schemeFor(String department, Semester semester) {
+        if (assignments.isEmpty()) return defaultScheme; // The common case: one scale for everyone.
+        GradingScheme scheme = null;
+        if (department != null && semester != null) scheme = assignments.get(assignmentKey(department, semester));
+        if (scheme == null && department != null) scheme = assignments.get(assignmentKey(department, null));
+        if (scheme == null && semester != null) scheme = assignments.get(assignmentKey(null, semester));
+        return scheme == null ? defaultScheme : scheme;
+    }
+
+    public Collection<GradingScheme> getSchemes() {
+        return Collections.unmodifiableCollection(schemesByName.values());
+    }
+
+    private static String assignmentKey(String department, Semester semester) {
+        return (department == null ? "*" : department.toUpperCase()) + "|" + (semester == null ? "*" : semester.name());
+    }
+
+    private static boolean isSemester(String value) {
+        for (Semester semester : Semester.values()) {
+            if (semester.name().equalsIgnoreCase(value)) return true;
+        }
+        return false;
+    }
+}
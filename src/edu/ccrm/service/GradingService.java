@@ -1,27 +1,135 @@
 package edu.ccrm.service;
 
 import edu.ccrm.domain.*;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.util.AsyncLogger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * This service is responsible for all grading-related operations,
  * including calculating grades from marks and computing a student's GPA.
  */
 public class GradingService {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("GradingService");
+
+    // Call counts and latency histograms for each public operation that does real work, published over JMX.
+    private static final OperationMetrics REGRADE_ALL = MetricsRegistry.register("GradingService", "regradeAll");
+    private static final OperationMetrics ASSIGN_MARKS = MetricsRegistry.register("GradingService", "assignMarks");
+    private static final OperationMetrics RECORD_GRADE = MetricsRegistry.register("GradingService", "recordGrade");
+    private static final OperationMetrics COMPUTE_GPA = MetricsRegistry.register("GradingService", "computeGPA");
+    private static final OperationMetrics RANK_BY_GPA = MetricsRegistry.register("GradingService", "rankByGPA");
+
+    // Per-course grade aggregates, kept up to date on every assignMarks call. Parallel marks imports
+    // and the shard server grade on several threads while others read, so the map has to be concurrent.
+    private final Map<String, CourseGradeStatistics> statisticsByCourse = new ConcurrentHashMap<>();
+    // Used to find a course's department and semester when picking its grading scheme. May be null.
+    private final CourseService courseService;
+    private volatile GradingSchemeRegistry gradingSchemes = new GradingSchemeRegistry();
+
+    public GradingService() {
+        this(null);
+    }
 
     /**
-     * Calculates the letter grade based on the provided marks.
-     * This is a pretty standard grading scale, nothing too fancy here.
+     * Creates a grading service that can pick a grading scheme per course.
+     * @param courseService The course catalog to look up departments and semesters in.
+     */
+    public GradingService(CourseService courseService) {
+        this.courseService = courseService;
+    }
+
+    /**
+     * Calculates the letter grade based on the provided marks, using the default grading scale.
+     * The scale is compiled into a lookup table, so this is a single array index.
      * @param marks The numerical marks obtained by the student.
      * @return The corresponding Grade enum value.
      */
     public static Grade calculateGrade(int marks) {
-        if (marks >= 90) return Grade.S;
-        else if (marks >= 80) return Grade.A;
-        else if (marks >= 70) return Grade.B;
-        else if (marks >= 60) return Grade.C;
-        else if (marks >= 50) return Grade.D;
-        else if (marks >= 40) return Grade.E;
-        else return Grade.F;
+        return GradingScheme.DEFAULT.gradeFor(marks);
+    }
+
+    /**
+     * Calculates the grade for some marks in a particular course, using whatever scheme is
+     * configured for that course's department and semester. Safe to call from parallel workers.
+     * @param courseCode The code of the course the marks are for.
+     * @param marks The numerical marks obtained by the student.
+     * @return The corresponding Grade enum value.
+     */
+    public Grade gradeFor(String courseCode, int marks) {
+        return schemeFor(courseCode).gradeFor(marks);
+    }
+
+    /**
+     * Works out which grading scheme applies to a course.
+     * @param courseCode The code of the course.
+     * @return The scheme for the course's department and semester, or the default if the course is unknown.
+     */
+    public GradingScheme schemeFor(String courseCode) {
+        GradingSchemeRegistry registry = gradingSchemes;
+        Course course = courseService == null ? null : courseService.getCourse(courseCode);
+        if (course == null) return registry.schemeFor(null, null);
+        return registry.schemeFor(course.getDepartment(), course.getSemester());
+    }
+
+    /**
+     * Swaps in a new set of grading schemes. Existing grades are left as they are until regradeAll is run.
+     * @param gradingSchemes The new registry to grade with.
+     */
+    public void setGradingSchemes(GradingSchemeRegistry gradingSchemes) {
+        this.gradingSchemes = gradingSchemes;
+    }
+
+    public GradingSchemeRegistry getGradingSchemes() {
+        return gradingSchemes;
+    }
+
+    /**
+     * Re-grades every transcript entry against the current schemes, e.g. after a scale change.
+     * Grades finalized by a semester rollover are left as they are.
+     * The new grades are worked out in parallel, and only entries whose grade actually changed
+     * are written back (on this thread, so the per-course statistics stay consistent). An entry that was
+     * changed by someone else in the meantime is left alone, since its new marks are already graded.
+     * @param students The students to re-grade.
+     * @return The number of transcript entries whose grade changed.
+     */
+    public int regradeAll(Collection<Student> students) {
+        long startNanos = System.nanoTime();
+        try {
+            List<GradeChange> changes = students.parallelStream()
+                .flatMap(student -> student.getTranscript().values().stream()
+                    .filter(entry -> !entry.isFinalized())
+                    .map(entry -> new GradeChange(student, entry, gradeFor(entry.getCourseCode(), entry.getMarks())))
+                    .filter(change -> change.newGrade != change.entry.getGrade()))
+                .collect(Collectors.toList());
+            int changed = 0;
+            for (GradeChange change : changes) {
+                // The grade was worked out from a copy of the entry. If marks were assigned (or the grade finalized)
+                // since, that copy is stale and writing it back would undo the newer change, so skip it.
+                synchronized (change.student) {
+                    if (change.student.getTranscript().get(change.entry.getCourseCode()) != change.entry) continue;
+                    if (recordGrade(change.student, change.entry.getCourseCode(), change.entry.getMarks(), change.newGrade)) changed++;
+                }
+            }
+            return changed;
+        } finally {
+            REGRADE_ALL.record(startNanos);
+        }
+    }
+
+    // A transcript entry whose grade is about to change during a re-grade.
+    private static class GradeChange {
+        private final Student student;
+        private final TranscriptEntry entry;
+        private final Grade newGrade;
+
+        private GradeChange(Student student, TranscriptEntry entry, Grade newGrade) {
+            this.student = student;
+            this.entry = entry;
+            this.newGrade = newGrade;
+        }
     }
 
     /**
@@ -30,10 +138,69 @@ public class GradingService {
      * @param student The student to assign the marks to.
      * @param courseCode The code of the course.
      * @param marks The marks obtained.
+     * @return false if the course's grade was finalized by a rollover, so nothing was changed.
+     */
+    public boolean assignMarks(Student student, String courseCode, int marks) {
+        long startNanos = System.nanoTime();
+        try {
+            return recordGrade(student, courseCode, marks, gradeFor(courseCode, marks));
+        } finally {
+            ASSIGN_MARKS.record(startNanos);
+        }
+    }
+
+    /**
+     * Records marks together with a grade that has already been worked out, e.g. by a bulk
+     * import that graded its rows in parallel. Keeps the per-course statistics in sync, just like assignMarks.
+     * A grade that a semester rollover has finalized is never overwritten; the call is skipped and logged.
+     * (A student who enrolls in the course again gets a fresh entry, so the new attempt can be graded.)
+     * @param student The student to assign the marks to.
+     * @param courseCode The code of the course.
+     * @param marks The marks obtained.
+     * @param grade The grade for those marks.
+     * @return true if the grade was recorded, false if the existing grade is final.
+     */
+    public boolean recordGrade(Student student, String courseCode, int marks, Grade grade) {
+        long startNanos = System.nanoTime();
+        try {
+            // Student's own mutators lock the student too, so a rollover can't finalize the entry
+            // between our check and our write, and two graders can't both back out the same old marks.
+            synchronized (student) {
+                TranscriptEntry previousEntry = student.getTranscript().get(courseCode);
+                if (previousEntry != null && previousEntry.isFinalized()) {
+                    LOG.warn("Not changing a final grade.", "registrationNumber", student.getRegistrationNumber(),
+                        "courseCode", courseCode);
+                    return false;
+                }
+                CourseGradeStatistics statistics = statisticsByCourse.computeIfAbsent(courseCode, CourseGradeStatistics::new);
+                // On a re-grade, back the old marks out of the aggregates before adding the new ones.
+                if (previousEntry != null) {
+                    statistics.remove(previousEntry.getMarks(), previousEntry.getGrade());
+                }
+                student.addTranscriptEntry(courseCode, marks, grade);
+                statistics.add(marks, grade);
+                return true;
+            }
+        } finally {
+            RECORD_GRADE.record(startNanos);
+        }
+    }
+
+    /**
+     * Returns the running grade statistics for a course. This is O(1): nothing is recomputed.
+     * @param courseCode The code of the course.
+     * @return The statistics, or null if no marks have been assigned for that course yet.
      */
-    public void assignMarks(Student student, String courseCode, int marks) {
-        Grade grade = calculateGrade(marks);
-        student.addTranscriptEntry(courseCode, marks, grade);
+    public CourseGradeStatistics getCourseStatistics(String courseCode) {
+        return statisticsByCourse.get(courseCode);
+    }
+
+    /**
+     * Returns the statistics for every course that has at least one grade.
+     * @return A read-only view of all per-course statistics.
+     */
+    public Collection<CourseGradeStatistics> getAllCourseStatistics() {
+        return Collections.unmodifiableCollection(statisticsByCourse.values());
     }
 
     /**
@@ -44,15 +211,88 @@ public class GradingService {
      * @return The calculated GPA as a double.
      */
     public double computeGPA(Student student) {
-        if (student.getTranscript().isEmpty()) return 0.0; // Can't divide by zero, so handle this edge case.
+        long startNanos = System.nanoTime();
+        try {
+            return gpaOf(student.getTranscript());
+        } finally {
+            COMPUTE_GPA.record(startNanos);
+        }
+    }
+
+    /**
+     * Computes the GPA for a student as of a snapshot.
+     * @param student The student's state at some snapshot.
+     * @return The calculated GPA, or 0.0 if they have no grades.
+     */
+    public double computeGPA(StudentVersion student) {
+        long startNanos = System.nanoTime();
+        try {
+            return gpaOf(student.getTranscript());
+        } finally {
+            COMPUTE_GPA.record(startNanos);
+        }
+    }
+
+    /**
+     * Ranks students by GPA, best first, as of a snapshot, so the ranking is consistent even while
+     * grades are being assigned. GPAs are computed in parallel, and each worker keeps only its own
+     * top {@code limit} in a small heap, so nothing close to N rows is ever sorted.
+     * Students without any grades aren't ranked.
+     * @param snapshot The snapshot to rank.
+     * @param limit How many students to return.
+     * @return Up to {@code limit} students, highest GPA first (ties broken by registration number).
+     */
+    public List<StudentVersion> rankByGPA(StudentSnapshot snapshot, int limit) {
+        long startNanos = System.nanoTime();
+        try {
+            if (limit <= 0) return Collections.emptyList();
+            PriorityQueue<RankedStudent> best = snapshot.students()
+                .parallel()
+                .filter(student -> !student.getTranscript().isEmpty())
+                .map(student -> new RankedStudent(student, gpaOf(student.getTranscript())))
+                .collect(() -> new PriorityQueue<>(RankedStudent.BEST_FIRST.reversed()),
+                    (heap, ranked) -> keepBest(heap, ranked, limit),
+                    (heap, other) -> other.forEach(ranked -> keepBest(heap, ranked, limit)));
+            List<RankedStudent> ranking = new ArrayList<>(best);
+            ranking.sort(RankedStudent.BEST_FIRST);
+            return ranking.stream().map(ranked -> ranked.student).collect(Collectors.toList());
+        } finally {
+            RANK_BY_GPA.record(startNanos);
+        }
+    }
+
+    // The heap's head is the worst of the kept students, so a better one simply replaces it.
+    private static void keepBest(PriorityQueue<RankedStudent> heap, RankedStudent ranked, int limit) {
+        if (heap.size() < limit) {
+            heap.add(ranked);
+        } else if (RankedStudent.BEST_FIRST.compare(ranked, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(ranked);
+        }
+    }
+
+    // A student together with their GPA, so it's only worked out once per ranking.
+    private static class RankedStudent {
+        private static final Comparator<RankedStudent> BEST_FIRST = Comparator
+            .comparingDouble((RankedStudent ranked) -> ranked.gpa).reversed()
+            .thenComparing(ranked -> ranked.student.getRegistrationNumber());
+
+        private final StudentVersion student;
+        private final double gpa;
+
+        private RankedStudent(StudentVersion student, double gpa) {
+            this.student = student;
+            this.gpa = gpa;
+        }
+    }
 
+    // The average grade points over a transcript; 0.0 for an empty one (can't divide by zero).
+    private static double gpaOf(Map<String, TranscriptEntry> transcript) {
+        if (transcript.isEmpty()) return 0.0;
         double totalGradePoints = 0;
-        int courseCount = 0;
-        for (TranscriptEntry transcriptEntry : student.getTranscript().values()) {
+        for (TranscriptEntry transcriptEntry : transcript.values()) {
             totalGradePoints += transcriptEntry.getGrade().getPoints();
-            courseCount++;
         }
-        // Just a quick check to prevent division by zero, though the isEmpty check above should catch most cases.
-        return (courseCount == 0) ? 0.0 : totalGradePoints / courseCount;
+        return totalGradePoints / transcript.size();
     }
 }
@@ -0,0 +1,187 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.util.AsyncLogger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This service manages instructors, and answers "what does this instructor teach?" and
+ * "how heavy is their load this semester?" without scanning the course catalog.
+ * It keeps a reverse index from instructor ID to course codes, plus a running teaching load
+ * (courses, credits and enrolled students) per instructor per semester. Both are updated by
+ * listening to CourseService and EnrollmentService, so they're never stale and never recomputed.
+ */
+public class InstructorService implements CourseService.CourseListener, EnrollmentService.EnrollmentListener {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("InstructorService");
+
+    // Call counts and latency histograms for each public operation that does real work, published over JMX.
+    private static final OperationMetrics ADD_INSTRUCTOR = MetricsRegistry.register("InstructorService", "addInstructor");
+    private static final OperationMetrics GET_COURSES = MetricsRegistry.register("InstructorService", "getCoursesTaughtBy");
+
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    // Instructors by their person ID.
+    private final Map<String, Instructor> instructors = new ConcurrentHashMap<>();
+    // Instructor ID -> codes of the courses they teach. Courses can name an instructor
+    // who hasn't been registered (yet), so keys aren't limited to known instructors.
+    private final Map<String, Set<String>> courseCodesByInstructor = new ConcurrentHashMap<>();
+    // Instructor ID -> one running teaching load per semester.
+    private final Map<String, Map<Semester, TeachingLoad>> loadsByInstructor = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the service, indexes the courses and enrollments that already exist,
+     * and starts listening for changes. It's best created before data is loaded,
+     * so nothing changes while the initial index is being built.
+     * @param courseService The course catalog to index.
+     * @param enrollmentService Where enrollment counts come from.
+     */
+    public InstructorService(CourseService courseService, EnrollmentService enrollmentService) {
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        for (Course course : courseService.courseView()) courseAdded(course);
+        courseService.addListener(this);
+        enrollmentService.addListener(this);
+    }
+
+    /**
+     * Adds a new instructor, unless one with the same ID already exists.
+     * @param instructor The instructor to add.
+     */
+    public void addInstructor(Instructor instructor) {
+        long startNanos = System.nanoTime();
+        try {
+            if (instructors.putIfAbsent(instructor.getId(), instructor) != null) {
+                LOG.warn("An instructor with this ID already exists. Skipping addition.", "instructorId", instructor.getId());
+            } else {
+                LOG.info("Instructor was successfully added.", "instructorId", instructor.getId(), "name", instructor.getName());
+            }
+        } finally {
+            ADD_INSTRUCTOR.record(startNanos);
+        }
+    }
+
+    /**
+     * Retrieves an instructor by their ID.
+     * @param instructorId The instructor's person ID.
+     * @return The Instructor, or null if there's no such instructor.
+     */
+    public Instructor getInstructor(String instructorId) {
+        return instructorId == null ? null : instructors.get(instructorId);
+    }
+
+    /**
+     * Returns a list of all registered instructors.
+     * @return A List containing all Instructor objects.
+     */
+    public List<Instructor> listInstructors() {
+        return new ArrayList<>(instructors.values());
+    }
+
+    /**
+     * Returns the courses an instructor teaches, straight from the reverse index.
+     * @param instructorId The instructor's person ID.
+     * @return Their courses, sorted by course code (empty if they teach none).
+     */
+    public List<Course> getCoursesTaughtBy(String instructorId) {
+        long startNanos = System.nanoTime();
+        try {
+            Set<String> courseCodes = courseCodesByInstructor.getOrDefault(instructorId, Collections.emptySet());
+            List<Course> taught = new ArrayList<>(courseCodes.size());
+            for (String courseCode : courseCodes) {
+                Course course = courseService.getCourse(courseCode);
+                if (course != null) taught.add(course);
+            }
+            taught.sort(Comparator.comparing(Course::getCourseCode));
+            return taught;
+        } finally {
+            GET_COURSES.record(startNanos);
+        }
+    }
+
+    /**
+     * Returns an instructor's teaching load for a semester. This is O(1): the totals are kept as we go.
+     * @param instructorId The instructor's person ID.
+     * @param semester The semester.
+     * @return The load, or null if they don't teach anything that semester.
+     */
+    public TeachingLoad getTeachingLoad(String instructorId, Semester semester) {
+        Map<Semester, TeachingLoad> loads = loadsByInstructor.get(instructorId);
+        return loads == null ? null : loads.get(semester);
+    }
+
+    /**
+     * Returns every instructor's load for a semester, heaviest (by credits) first.
+     * @param semester The semester.
+     * @return One load per instructor who teaches that semester.
+     */
+    public List<TeachingLoad> getTeachingLoads(Semester semester) {
+        List<TeachingLoad> report = new ArrayList<>();
+        for (Map<Semester, TeachingLoad> loads : loadsByInstructor.values()) {
+            TeachingLoad load = loads.get(semester);
+            if (load != null && load.getCourseCount() > 0) report.add(load);
+        }
+        report.sort(Comparator.comparingInt(TeachingLoad::getTotalCredits).reversed()
+            .thenComparing(TeachingLoad::getInstructorId));
+        return report;
+    }
+
+    /**
+     * Lists instructor IDs that courses refer to but that were never registered, e.g. typos in an import.
+     * @return The unknown IDs, sorted.
+     */
+    public List<String> findUnregisteredInstructorIds() {
+        List<String> unknown = new ArrayList<>();
+        courseCodesByInstructor.forEach((instructorId, courseCodes) -> {
+            if (!courseCodes.isEmpty() && !instructors.containsKey(instructorId)) unknown.add(instructorId);
+        });
+        Collections.sort(unknown);
+        return unknown;
+    }
+
+    @Override
+    public void courseAdded(Course course) {
+        if (!isAssigned(course.getInstructorId())) return;
+        courseCodesByInstructor.computeIfAbsent(course.getInstructorId(), id -> ConcurrentHashMap.newKeySet())
+            .add(course.getCourseCode());
+        loadFor(course.getInstructorId(), course.getSemester())
+            .addCourse(course.getCredits(), enrollmentService.getRoster(course.getCourseCode()).size());
+    }
+
+    // Backs the course out of the load it used to count towards, then counts it again as it is now.
+    @Override
+    public void courseChanged(Course course, String previousInstructorId, int previousCredits, Semester previousSemester) {
+        int enrolled = enrollmentService.getRoster(course.getCourseCode()).size();
+        if (isAssigned(previousInstructorId)) {
+            Set<String> previousCourses = courseCodesByInstructor.get(previousInstructorId);
+            if (previousCourses != null) previousCourses.remove(course.getCourseCode());
+            loadFor(previousInstructorId, previousSemester).removeCourse(previousCredits, enrolled);
+        }
+        courseAdded(course);
+    }
+
+    @Override
+    public void enrollmentCountChanged(String courseCode, int delta) {
+        Course course = courseService.getCourse(courseCode);
+        if (course == null) return;
+        // Same lock as an instructor change, so the delta can't land on the instructor who just lost the course.
+        synchronized (course) {
+            if (!isAssigned(course.getInstructorId())) return;
+            loadFor(course.getInstructorId(), course.getSemester()).addEnrolledStudents(delta);
+        }
+    }
+
+    // The instructor ID is optional when a course is added, so it may be null or blank.
+    private static boolean isAssigned(String instructorId) {
+        return instructorId != null && !instructorId.isBlank();
+    }
+
+    private TeachingLoad loadFor(String instructorId, Semester semester) {
+        return loadsByInstructor.computeIfAbsent(instructorId, id -> new ConcurrentHashMap<>())
+            .computeIfAbsent(semester, term -> new TeachingLoad(instructorId, term));
+    }
+}
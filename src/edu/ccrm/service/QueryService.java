@@ -0,0 +1,116 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This service answers paged listing queries over students and courses.
+ * It never copies the underlying maps: filters are evaluated lazily on a stream over the live
+ * views, an enrolled-in filter starts from the enrollment roster index instead of every student,
+ * and sorted queries keep only the top (page + 1) * limit rows in a bounded heap.
+ * So "first 50 active FALL students" allocates about 50 rows, not N.
+ */
+public class QueryService {
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+
+    public QueryService(StudentService studentService, CourseService courseService, EnrollmentService enrollmentService) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+    }
+
+    /**
+     * Runs a student query and returns just the requested page.
+     * @param query The filters, sort key and page to apply.
+     * @return The students on that page, in sort order (or map order when unsorted).
+     */
+    public List<Student> findStudents(StudentQuery query) {
+        Stream<Student> candidates;
+        if (query.getEnrolledInCourse() != null) {
+            // The roster index is much smaller than the whole student map, so start from there.
+            candidates = enrollmentService.getRoster(query.getEnrolledInCourse()).stream()
+                .map(studentService::getStudent)
+                .filter(Objects::nonNull);
+        } else {
+            candidates = studentService.studentView().stream();
+        }
+        Stream<Student> filtered = candidates.filter(studentFilter(query));
+        return page(filtered, query.getSortKey().getComparator(), query.getOffset(), query.getLimit());
+    }
+
+    /**
+     * Runs a course query and returns just the requested page.
+     * @param query The filters, sort key and page to apply.
+     * @return The courses on that page.
+     */
+    public List<Course> findCourses(CourseQuery query) {
+        Predicate<Course> filter = course -> true;
+        if (query.getSemester() != null) {
+            filter = filter.and(course -> course.getSemester() == query.getSemester());
+        }
+        if (query.getDepartment() != null) {
+            filter = filter.and(course -> query.getDepartment().equalsIgnoreCase(course.getDepartment()));
+        }
+        if (query.getInstructorId() != null) {
+            filter = filter.and(course -> query.getInstructorId().equals(course.getInstructorId()));
+        }
+        Stream<Course> filtered = courseService.courseView().stream().filter(filter);
+        return page(filtered, query.getSortKey().getComparator(), query.getOffset(), query.getLimit());
+    }
+
+    private Predicate<Student> studentFilter(StudentQuery query) {
+        Predicate<Student> filter = student -> true;
+        if (query.getActive() != null) {
+            boolean wantActive = query.getActive();
+            filter = filter.and(student -> student.isActive() == wantActive);
+        }
+        if (query.getEnrolledInCourse() != null) {
+            // The roster should already guarantee this, but double-checking costs next to nothing.
+            filter = filter.and(student -> student.getEnrolledCourses().contains(query.getEnrolledInCourse()));
+        }
+        if (query.getSemester() != null || query.getDepartment() != null) {
+            // A student is "in" a semester or department if any of their enrolled courses is.
+            filter = filter.and(student -> {
+                for (String courseCode : student.getEnrolledCourses()) {
+                    Course course = courseService.getCourse(courseCode);
+                    if (course == null) continue;
+                    if (query.getSemester() != null && course.getSemester() != query.getSemester()) continue;
+                    if (query.getDepartment() != null && !query.getDepartment().equalsIgnoreCase(course.getDepartment())) continue;
+                    return true;
+                }
+                return false;
+            });
+        }
+        return filter;
+    }
+
+    // Cuts one page out of a lazily filtered stream. Without a comparator, skip/limit short-circuit
+    // as soon as the page is full. With one, we keep a bounded max-heap of the best offset + limit rows.
+    private static <T> List<T> page(Stream<T> rows, Comparator<T> comparator, long offset, int limit) {
+        if (comparator == null) {
+            return rows.skip(offset).limit(limit).collect(Collectors.toList());
+        }
+        long needed = offset + limit;
+        if (needed > Integer.MAX_VALUE) return Collections.emptyList();
+        int capacity = (int) needed;
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.min(capacity, 1024) + 1, comparator.reversed());
+        rows.forEach(row -> {
+            if (heap.size() < capacity) {
+                heap.add(row);
+            } else if (comparator.compare(row, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(row);
+            }
+        });
+        List<T> best = new ArrayList<>(heap);
+        best.sort(comparator);
+        if (offset >= best.size()) return Collections.emptyList();
+        return best.subList((int) offset, best.size());
+    }
+}
@@ -0,0 +1,73 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Semester;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * The outcome of a semester rollover: how many students were looked at, how many enrollments were
+ * completed or left incomplete, and how much of the work was carried over from an earlier, interrupted run.
+ * Counts are added per partition from several threads, hence the synchronized updates.
+ */
+public class RolloverReport {
+    private final Semester semester;
+    private final int partitionCount;
+    private int resumedPartitions;
+    private long studentsProcessed;
+    private long studentsClosed;
+    private long completedEnrollments;
+    private long incompleteEnrollments;
+    private Duration elapsed = Duration.ZERO;
+
+    RolloverReport(Semester semester, int partitionCount) {
+        this.semester = semester;
+        this.partitionCount = partitionCount;
+    }
+
+    synchronized void addPartition(long processed, long closed, long completed, long incomplete, boolean resumed) {
+        studentsProcessed += processed;
+        studentsClosed += closed;
+        completedEnrollments += completed;
+        incompleteEnrollments += incomplete;
+        if (resumed) resumedPartitions++;
+    }
+
+    synchronized void setElapsed(Duration elapsed) { this.elapsed = elapsed; }
+
+    public Semester getSemester() { return semester; }
+    public int getPartitionCount() { return partitionCount; }
+    public synchronized int getResumedPartitions() { return resumedPartitions; }
+    public synchronized long getStudentsProcessed() { return studentsProcessed; }
+    /** Students that had anything to close out (courses from the term, or credits to reset). */
+    public synchronized long getStudentsClosed() { return studentsClosed; }
+    /** Enrollments that had a grade; those grades are now final. */
+    public synchronized long getCompletedEnrollments() { return completedEnrollments; }
+    /** Enrollments without a grade, recorded as incomplete. */
+    public synchronized long getIncompleteEnrollments() { return incompleteEnrollments; }
+    public synchronized Duration getElapsed() { return elapsed; }
+
+    /**
+     * Writes the summary to a text file, e.g. to keep alongside the term's records.
+     * @param reportPath Where to write the report.
+     * @throws IOException If the file can't be written.
+     */
+    public void writeReport(Path reportPath) throws IOException {
+        Files.write(reportPath, Arrays.asList(toString().split("\\R")));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Semester rollover: %s%n"
+                + "Students processed: %d (%d had something to close out)%n"
+                + "Enrollments completed (grades finalized): %d%n"
+                + "Enrollments marked incomplete: %d%n"
+                + "Partitions: %d (%d resumed from a checkpoint)%n"
+                + "Elapsed: %.1f s",
+            semester, studentsProcessed, studentsClosed, completedEnrollments, incompleteEnrollments,
+            partitionCount, resumedPartitions, elapsed.toMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,189 @@
+package edu.ccrm.service;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseHistoryEntry;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.util.AsyncLogger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The end-of-term batch job that closes out a semester for every student: grades for that term's
+ * courses become final, those enrollments move into the course history (as incomplete if they were
+ * never graded), and their credits come off each student's per-term credit counter.
+ *
+ * Students are split into fixed partitions by registration number, and the partitions are processed
+ * in parallel on a fork-join pool sized by {@code import.parallelism}. Each finished partition is written
+ * to a checkpoint file in the data directory, so if a run fails or is interrupted, running it again skips
+ * the partitions that are already done. Closing a term is idempotent per student, so redoing a partition
+ * that was only half finished is harmless too. The checkpoint is removed once the whole run succeeds.
+ */
+public class SemesterRollover {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("SemesterRollover");
+
+    // Call counts and latency histograms for each public operation, published over JMX.
+    private static final OperationMetrics RUN = MetricsRegistry.register("SemesterRollover", "run");
+
+    // Enough partitions to keep every core busy even when they're uneven, and few enough
+    // that writing the checkpoint after each one costs next to nothing.
+    private static final int DEFAULT_PARTITION_COUNT = 128;
+    private static final String PARTITION_COUNT_KEY = "partitions";
+    private static final String DONE_KEY_PREFIX = "done.";
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final Path checkpointDirectory;
+
+    /**
+     * @param studentService The students to roll over.
+     * @param courseService Used to find which courses belong to the semester.
+     * @param enrollmentService Whose rosters for the semester's courses are cleared at the end.
+     * @param checkpointDirectory Where the checkpoint file is kept (usually the data directory).
+     */
+    public SemesterRollover(StudentService studentService, CourseService courseService,
+                            EnrollmentService enrollmentService, Path checkpointDirectory) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    /**
+     * Rolls over a semester, resuming from a checkpoint if an earlier run didn't finish.
+     * @param semester The semester to close out.
+     * @return A summary of what was done, including anything carried over from the earlier run.
+     * @throws IOException If the checkpoint can't be read or written, or the run is interrupted.
+     */
+    public RolloverReport run(Semester semester) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            Map<String, Integer> termCourseCredits = courseService.courseView().stream()
+                .filter(course -> course.getSemester() == semester)
+                .collect(Collectors.toMap(Course::getCourseCode, Course::getCredits));
+
+            Path checkpointFile = checkpointDirectory.resolve(".rollover-" + semester + ".properties");
+            Properties checkpoint = loadCheckpoint(checkpointFile);
+            int partitionCount = Integer.parseInt(checkpoint.getProperty(PARTITION_COUNT_KEY, String.valueOf(DEFAULT_PARTITION_COUNT)));
+            checkpoint.setProperty(PARTITION_COUNT_KEY, String.valueOf(partitionCount));
+            RolloverReport report = new RolloverReport(semester, partitionCount);
+
+            boolean[] alreadyDone = new boolean[partitionCount];
+            for (int partition = 0; partition < partitionCount; partition++) {
+                String counts = checkpoint.getProperty(DONE_KEY_PREFIX + partition);
+                if (counts == null) continue;
+                long[] values = Arrays.stream(counts.split(",")).mapToLong(Long::parseLong).toArray();
+                report.addPartition(values[0], values[1], values[2], values[3], true);
+                alreadyDone[partition] = true;
+            }
+            if (report.getResumedPartitions() > 0) {
+                LOG.info("Resuming an interrupted rollover.", "semester", semester, "partitionsDone", report.getResumedPartitions());
+            }
+
+            // One pass to split the students up; only partitions that still need doing are kept.
+            List<List<Student>> partitions = new ArrayList<>(partitionCount);
+            for (int partition = 0; partition < partitionCount; partition++) partitions.add(new ArrayList<>());
+            for (Student student : studentService.studentView()) {
+                int partition = partitionOf(student.getRegistrationNumber(), partitionCount);
+                if (!alreadyDone[partition]) partitions.get(partition).add(student);
+            }
+
+            ForkJoinPool workers = new ForkJoinPool(AppConfig.getInstance().getImportParallelism());
+            try {
+                workers.submit(() -> IntStream.range(0, partitionCount)
+                    .parallel()
+                    .filter(partition -> !alreadyDone[partition])
+                    .forEach(partition -> {
+                        long[] counts = closePartition(partitions.get(partition), semester, termCourseCredits);
+                        report.addPartition(counts[0], counts[1], counts[2], counts[3], false);
+                        markDone(checkpoint, checkpointFile, partition, counts);
+                    }))
+                    .get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Semester rollover was interrupted; run it again to resume", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+                throw new IOException("Semester rollover failed; run it again to resume: " + cause.getMessage(), cause);
+            } finally {
+                workers.shutdown();
+            }
+
+            // Nobody is enrolled in the closed term's courses any more.
+            for (String courseCode : termCourseCredits.keySet()) enrollmentService.clearRoster(courseService.getCourse(courseCode));
+            Files.deleteIfExists(checkpointFile);
+            report.setElapsed(Duration.ofNanos(System.nanoTime() - startNanos));
+            LOG.info("Semester rollover complete.", "semester", semester, "students", report.getStudentsProcessed(),
+                "completed", report.getCompletedEnrollments(), "incomplete", report.getIncompleteEnrollments());
+            return report;
+        } catch (IOException e) {
+            RUN.recordError();
+            throw e;
+        } finally {
+            RUN.record(startNanos);
+        }
+    }
+
+    // Returns {students processed, students closed, completed enrollments, incomplete enrollments}.
+    private static long[] closePartition(List<Student> students, Semester semester, Map<String, Integer> termCourseCredits) {
+        long[] counts = new long[4];
+        for (Student student : students) {
+            List<CourseHistoryEntry> closed = student.closeTerm(semester, termCourseCredits);
+            counts[0]++;
+            if (!closed.isEmpty()) counts[1]++;
+            for (CourseHistoryEntry entry : closed) {
+                if (entry.getOutcome() == CourseHistoryEntry.Outcome.COMPLETED) counts[2]++;
+                else counts[3]++;
+            }
+        }
+        return counts;
+    }
+
+    // A stable partition for each registration number, so a resumed run splits students the same way.
+    private static int partitionOf(String registrationNumber, int partitionCount) {
+        return Math.floorMod(registrationNumber.hashCode(), partitionCount);
+    }
+
+    private static Properties loadCheckpoint(Path checkpointFile) throws IOException {
+        Properties checkpoint = new Properties();
+        if (Files.exists(checkpointFile)) {
+            try (Reader reader = Files.newBufferedReader(checkpointFile)) {
+                checkpoint.load(reader);
+            }
+        }
+        return checkpoint;
+    }
+
+    // Written to a temporary file and moved into place, so a crash never leaves a half-written checkpoint.
+    private static void markDone(Properties checkpoint, Path checkpointFile, int partition, long[] counts) {
+        synchronized (checkpoint) {
+            checkpoint.setProperty(DONE_KEY_PREFIX + partition,
+                Arrays.stream(counts).mapToObj(String::valueOf).collect(Collectors.joining(",")));
+            Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temporaryFile)) {
+                    checkpoint.store(writer, "Partitions already rolled over: students processed, closed, completed, incomplete");
+                }
+                Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
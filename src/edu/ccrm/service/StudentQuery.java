@@ -0,0 +1,60 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import java.util.Comparator;
+
+/**
+ * Describes a filtered, sorted, paged student listing. All filters are optional;
+ * anything left unset simply isn't checked. Build one fluently, for example:
+ * {@code StudentQuery.create().active(true).semester(Semester.FALL).limit(50)}.
+ */
+public class StudentQuery {
+
+    /**
+     * The keys we know how to sort students by. Ties are broken by registration number,
+     * so the order is total and paging never repeats or skips a student.
+     */
+    public enum SortKey {
+        NONE(null),
+        REGISTRATION_NUMBER(Comparator.comparing(Student::getRegistrationNumber)),
+        NAME(Comparator.comparing(Student::getName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Student::getRegistrationNumber)),
+        EMAIL(Comparator.comparing(Student::getEmail, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Student::getRegistrationNumber)),
+        CREATION_DATE(Comparator.comparing(Student::getCreationDate).thenComparing(Student::getRegistrationNumber));
+
+        private final Comparator<Student> comparator;
+        SortKey(Comparator<Student> comparator) { this.comparator = comparator; }
+        public Comparator<Student> getComparator() { return comparator; }
+    }
+
+    private Boolean active;
+    private String department;
+    private Semester semester;
+    private String enrolledInCourse;
+    private SortKey sortKey = SortKey.NONE;
+    private int page = 0;
+    private int limit = 50;
+
+    public static StudentQuery create() {
+        return new StudentQuery();
+    }
+
+    public StudentQuery active(boolean active) { this.active = active; return this; }
+    public StudentQuery department(String department) { this.department = department; return this; }
+    public StudentQuery semester(Semester semester) { this.semester = semester; return this; }
+    public StudentQuery enrolledIn(String courseCode) { this.enrolledInCourse = courseCode; return this; }
+    public StudentQuery sortBy(SortKey sortKey) { this.sortKey = sortKey == null ? SortKey.NONE : sortKey; return this; }
+    public StudentQuery page(int page) { this.page = Math.max(0, page); return this; }
+    public StudentQuery limit(int limit) { this.limit = Math.max(1, limit); return this; }
+
+    public Boolean getActive() { return active; }
+    public String getDepartment() { return department; }
+    public Semester getSemester() { return semester; }
+    public String getEnrolledInCourse() { return enrolledInCourse; }
+    public SortKey getSortKey() { return sortKey; }
+    public int getPage() { return page; }
+    public int getLimit() { return limit; }
+    public long getOffset() { return (long) page * limit; }
+}
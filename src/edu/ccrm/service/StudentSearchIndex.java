@@ -0,0 +1,315 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import java.util.*;
+
+/**
+ * An in-memory search index over student names and emails.
+ * Every word of the name and email goes into a character trie, and each trie node remembers
+ * which registration numbers end there. That lets us answer prefix queries by walking down the trie,
+ * and typo-tolerant queries by walking it with a Levenshtein row, without ever scanning the whole student map.
+ * Each node also counts the entries below it, so multi-word queries can start from the rarest word.
+ */
+public class StudentSearchIndex {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    // A single node in the trie. Children are kept in two small arrays sorted by their character,
+    // which is a lot lighter than a HashMap<Character, TrieNode> for the one or two children most nodes have.
+    private static final class TrieNode {
+        private char[] keys = NO_KEYS;
+        private TrieNode[] children = NO_CHILDREN;
+        private int childCount;
+        private Set<String> registrationNumbers; // Only created for nodes where a token ends.
+        private int entryCount; // How many (token, registration number) entries end at or below this node.
+
+        TrieNode child(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        TrieNode childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            if (index >= 0) return children[index];
+            int insertAt = -index - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            TrieNode child = new TrieNode();
+            keys[insertAt] = c;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            if (index < 0) return;
+            System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+
+    private final TrieNode root = new TrieNode();
+    // We keep the tokens we indexed for each student, so we can cleanly remove them on update.
+    private final Map<String, Set<String>> tokensByRegistrationNumber = new HashMap<>();
+
+    /**
+     * Adds (or re-adds) a student to the index. If the student was indexed before,
+     * their old tokens are removed first, so this doubles as the update path.
+     * @param student The student to index.
+     */
+    public void index(Student student) {
+        remove(student.getRegistrationNumber());
+        Set<String> tokens = tokenize(student.getName(), student.getEmail());
+        for (String token : tokens) {
+            TrieNode node = root;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.childOrCreate(token.charAt(i));
+            }
+            if (node.registrationNumbers == null) node.registrationNumbers = new HashSet<>(2);
+            if (node.registrationNumbers.add(student.getRegistrationNumber())) {
+                // Walk the path again to bump the counts, now that we know the entry is new.
+                TrieNode counted = root;
+                counted.entryCount++;
+                for (int i = 0; i < token.length(); i++) {
+                    counted = counted.child(token.charAt(i));
+                    counted.entryCount++;
+                }
+            }
+        }
+        tokensByRegistrationNumber.put(student.getRegistrationNumber(), tokens);
+    }
+
+    /**
+     * Removes a student from the index, pruning any trie branches that become empty.
+     * @param registrationNumber The registration number of the student to remove.
+     */
+    public void remove(String registrationNumber) {
+        Set<String> tokens = tokensByRegistrationNumber.remove(registrationNumber);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            removeToken(root, token, 0, registrationNumber);
+        }
+    }
+
+    // Returns true if an entry was removed somewhere below the given node.
+    private boolean removeToken(TrieNode node, String token, int depth, String registrationNumber) {
+        boolean removed = false;
+        if (depth == token.length()) {
+            if (node.registrationNumbers != null) {
+                removed = node.registrationNumbers.remove(registrationNumber);
+                if (node.registrationNumbers.isEmpty()) node.registrationNumbers = null;
+            }
+        } else {
+            char c = token.charAt(depth);
+            TrieNode child = node.child(c);
+            if (child != null && removeToken(child, token, depth + 1, registrationNumber)) {
+                removed = true;
+                if (child.entryCount == 0) node.removeChild(c);
+            }
+        }
+        if (removed) node.entryCount--;
+        return removed;
+    }
+
+    /**
+     * Searches the index for students matching every word in the query.
+     * Each word matches by prefix first; if a word has no prefix matches at all,
+     * we fall back to a typo-tolerant match (1 edit for short words, 2 for longer ones).
+     * Only the rarest word's matches are ever collected: the other words are checked against
+     * each candidate's own tokens, and we stop as soon as we have {@code limit} results,
+     * so a one-letter query over a million students still only touches {@code limit} of them.
+     * @param query The free-text query typed by the user.
+     * @param limit The maximum number of registration numbers to return.
+     * @return The matching registration numbers, at most {@code limit} of them.
+     */
+    public List<String> search(String query, int limit) {
+        Set<String> terms = tokenize(query, null);
+        if (terms.isEmpty() || limit <= 0) return Collections.emptyList();
+
+        // Sort the words out: the ones with prefix matches (and how many), and the typo-matched ones.
+        List<String> prefixTerms = new ArrayList<>();
+        List<Set<String>> fuzzyTermMatches = new ArrayList<>();
+        String rarestPrefixTerm = null;
+        int rarestPrefixCount = Integer.MAX_VALUE;
+        for (String term : terms) {
+            TrieNode node = find(term);
+            if (node != null) {
+                prefixTerms.add(term);
+                if (node.entryCount < rarestPrefixCount) {
+                    rarestPrefixTerm = term;
+                    rarestPrefixCount = node.entryCount;
+                }
+            } else {
+                Set<String> termMatches = new LinkedHashSet<>();
+                fuzzyMatch(term, term.length() >= 6 ? 2 : 1, termMatches);
+                if (termMatches.isEmpty()) return Collections.emptyList(); // No point looking at the other words.
+                fuzzyTermMatches.add(termMatches);
+            }
+        }
+
+        // The smallest set of candidates drives the search: a typo-matched word's matches if there are any
+        // (those are always small), otherwise the rarest prefix word's subtree.
+        Collection<String> candidates;
+        if (!fuzzyTermMatches.isEmpty()) {
+            Set<String> smallest = Collections.min(fuzzyTermMatches, Comparator.comparingInt(Set::size));
+            fuzzyTermMatches.remove(smallest);
+            candidates = smallest;
+        } else if (prefixTerms.size() == 1) {
+            Set<String> matches = new LinkedHashSet<>();
+            collectPrefix(rarestPrefixTerm, matches, limit);
+            return new ArrayList<>(matches);
+        } else {
+            Set<String> matches = new LinkedHashSet<>();
+            collectPrefix(rarestPrefixTerm, matches, Integer.MAX_VALUE);
+            prefixTerms.remove(rarestPrefixTerm);
+            candidates = matches;
+        }
+
+        List<String> results = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (String registrationNumber : candidates) {
+            if (results.size() >= limit) break;
+            if (matchesAll(registrationNumber, prefixTerms, fuzzyTermMatches)) results.add(registrationNumber);
+        }
+        return results;
+    }
+
+    // Checks a candidate against the remaining words: every prefix word has to start one of its tokens,
+    // and it has to be among every typo-matched word's matches.
+    private boolean matchesAll(String registrationNumber, List<String> prefixTerms, List<Set<String>> fuzzyTermMatches) {
+        for (Set<String> termMatches : fuzzyTermMatches) {
+            if (!termMatches.contains(registrationNumber)) return false;
+        }
+        Set<String> tokens = tokensByRegistrationNumber.get(registrationNumber);
+        if (tokens == null) return prefixTerms.isEmpty();
+        for (String term : prefixTerms) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds students that have a name or email word starting with the given prefix.
+     * @param prefix The prefix to look for (case-insensitive).
+     * @param limit The maximum number of registration numbers to return.
+     * @return The matching registration numbers.
+     */
+    public List<String> prefixSearch(String prefix, int limit) {
+        Set<String> matches = new LinkedHashSet<>();
+        collectPrefix(prefix.toLowerCase(), matches, limit);
+        return new ArrayList<>(matches);
+    }
+
+    /**
+     * Finds students that have a name or email word within {@code maxEdits} edits of the term.
+     * @param term The (possibly misspelled) word to look for.
+     * @param maxEdits The maximum Levenshtein distance we'll accept.
+     * @param limit The maximum number of registration numbers to return.
+     * @return The matching registration numbers.
+     */
+    public List<String> fuzzySearch(String term, int maxEdits, int limit) {
+        Set<String> matches = new LinkedHashSet<>();
+        fuzzyMatch(term.toLowerCase(), maxEdits, matches);
+        List<String> limited = new ArrayList<>();
+        for (String registrationNumber : matches) {
+            if (limited.size() >= limit) break;
+            limited.add(registrationNumber);
+        }
+        return limited;
+    }
+
+    public int size() {
+        return tokensByRegistrationNumber.size();
+    }
+
+    // Walks down to the node for a prefix, or returns null if no token starts with it.
+    private TrieNode find(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private void collectPrefix(String prefix, Set<String> out, int limit) {
+        TrieNode node = find(prefix);
+        if (node == null) return;
+        // Iterative depth-first walk, so deep tokens (long emails) can't blow the stack.
+        Deque<TrieNode> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty() && out.size() < limit) {
+            TrieNode current = stack.pop();
+            if (current.registrationNumbers != null) {
+                for (String registrationNumber : current.registrationNumbers) {
+                    if (out.size() >= limit) break;
+                    out.add(registrationNumber);
+                }
+            }
+            for (int i = current.childCount - 1; i >= 0; i--) stack.push(current.children[i]);
+        }
+    }
+
+    // Classic trie + Levenshtein walk: each level computes one row of the edit-distance matrix,
+    // and we stop descending as soon as every cell in the row is above maxEdits.
+    private void fuzzyMatch(String term, int maxEdits, Set<String> out) {
+        int[] firstRow = new int[term.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) firstRow[i] = i;
+        for (int i = 0; i < root.childCount; i++) {
+            fuzzyWalk(root.children[i], root.keys[i], term, firstRow, maxEdits, out);
+        }
+    }
+
+    private void fuzzyWalk(TrieNode node, char letter, String term, int[] previousRow, int maxEdits, Set<String> out) {
+        int columns = term.length() + 1;
+        int[] currentRow = new int[columns];
+        currentRow[0] = previousRow[0] + 1;
+        int rowMinimum = currentRow[0];
+        for (int column = 1; column < columns; column++) {
+            int insertCost = currentRow[column - 1] + 1;
+            int deleteCost = previousRow[column] + 1;
+            int replaceCost = previousRow[column - 1] + (term.charAt(column - 1) == letter ? 0 : 1);
+            currentRow[column] = Math.min(insertCost, Math.min(deleteCost, replaceCost));
+            rowMinimum = Math.min(rowMinimum, currentRow[column]);
+        }
+        if (currentRow[columns - 1] <= maxEdits && node.registrationNumbers != null) {
+            out.addAll(node.registrationNumbers);
+        }
+        if (rowMinimum <= maxEdits) {
+            for (int i = 0; i < node.childCount; i++) {
+                fuzzyWalk(node.children[i], node.keys[i], term, currentRow, maxEdits, out);
+            }
+        }
+    }
+
+    // Splits the name and email into lowercase words. Queries are split the same way, so
+    // "ishan@ma" still finds ishan.reddy@mail.com through its "ishan" and "mail" words; indexing the
+    // whole email as one more token would only add a long, unshared trie branch per student.
+    private static Set<String> tokenize(String name, String email) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addWords(name, tokens);
+        addWords(email, tokens);
+        return tokens;
+    }
+
+    private static void addWords(String text, Set<String> tokens) {
+        if (text == null) return;
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) tokens.add(word);
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package edu.ccrm.service;
 
 import edu.ccrm.domain.Student;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.util.AsyncLogger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This service manages all student-related operations, such as adding new students,
  * retrieving student information, and deactivating student accounts.
  */
 public class StudentService {
-    // I'm using a HashMap to store student records, with the registration number as the key.
-    // This allows for really fast lookups, which is great for a system like this.
-    private Map<String, Student> students = new HashMap<>();
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("StudentService");
+
+    // Call counts and latency histograms for each public operation that does real work, published over JMX.
+    private static final OperationMetrics ADD_STUDENT = MetricsRegistry.register("StudentService", "addStudent");
+    private static final OperationMetrics UPDATE_STUDENT = MetricsRegistry.register("StudentService", "updateStudent");
+    private static final OperationMetrics SEARCH_STUDENTS = MetricsRegistry.register("StudentService", "searchStudents");
+    private static final OperationMetrics LIST_STUDENTS = MetricsRegistry.register("StudentService", "listStudents");
+    private static final OperationMetrics DEACTIVATE_STUDENT = MetricsRegistry.register("StudentService", "deactivateStudent");
+
+    // I'm using a ConcurrentHashMap to store student records, with the registration number as the key.
+    // Lookups are really fast, and background jobs (like the auto-ingest daemon) can add students safely.
+    private final Map<String, Student> students = new ConcurrentHashMap<>();
+    // A name/email search index, kept in sync every time a student is added or updated.
+    // It isn't thread-safe on its own, so every use of it is synchronized on the index.
+    private final StudentSearchIndex searchIndex = new StudentSearchIndex();
 
     /**
      * Adds a new student to the system. It first checks if a student with the same
@@ -18,11 +34,19 @@ public class StudentService {
      * @param student The Student object to be added.
      */
     public void addStudent(Student student) {
-        if (students.containsKey(student.getRegistrationNumber())) {
-            System.out.println("Heads up! A student with registration number '" + student.getRegistrationNumber() + "' already exists. Skipping addition.");
-        } else {
-            students.put(student.getRegistrationNumber(), student);
-            System.out.println("Student '" + student.getName() + "' (Reg. No: " + student.getRegistrationNumber() + ") was successfully added.");
+        long startNanos = System.nanoTime();
+        try {
+            if (students.putIfAbsent(student.getRegistrationNumber(), student) != null) {
+                LOG.warn("Heads up! A student with this registration number already exists. Skipping addition.",
+                    "registrationNumber", student.getRegistrationNumber());
+            } else {
+                synchronized (searchIndex) {
+                    searchIndex.index(student);
+                }
+                LOG.info("Student was successfully added.", "registrationNumber", student.getRegistrationNumber(), "name", student.getName());
+            }
+        } finally {
+            ADD_STUDENT.record(startNanos);
         }
     }
 
@@ -32,7 +56,56 @@ public class StudentService {
      * @return The Student object if found, otherwise null.
      */
     public Student getStudent(String registrationNumber) {
-        return students.get(registrationNumber);
+        return registrationNumber == null ? null : students.get(registrationNumber);
+    }
+
+    /**
+     * Updates a student's name and email, and refreshes the search index so it never goes stale.
+     * Passing null for either field leaves it unchanged.
+     * @param registrationNumber The registration number of the student to update.
+     * @param fullName The new full name, or null to keep the current one.
+     * @param email The new email, or null to keep the current one.
+     * @return true if the student was found and updated, false otherwise.
+     */
+    public boolean updateStudent(String registrationNumber, String fullName, String email) {
+        long startNanos = System.nanoTime();
+        try {
+            Student student = students.get(registrationNumber);
+            if (student == null) return false;
+            if (fullName != null) student.setName(fullName);
+            if (email != null) student.setEmail(email);
+            synchronized (searchIndex) {
+                searchIndex.index(student);
+            }
+            return true;
+        } finally {
+            UPDATE_STUDENT.record(startNanos);
+        }
+    }
+
+    /**
+     * Type-ahead search over student names and emails. Words match by prefix,
+     * and fall back to a typo-tolerant match if nothing starts with them.
+     * @param query What the user typed, e.g. "ish sin" or "ayaan@".
+     * @param limit The maximum number of students to return.
+     * @return The matching students, at most {@code limit} of them.
+     */
+    public List<Student> searchStudents(String query, int limit) {
+        long startNanos = System.nanoTime();
+        try {
+            List<String> registrationNumbers;
+            synchronized (searchIndex) {
+                registrationNumbers = searchIndex.search(query, limit);
+            }
+            List<Student> matches = new ArrayList<>();
+            for (String registrationNumber : registrationNumbers) {
+                Student student = students.get(registrationNumber);
+                if (student != null) matches.add(student);
+            }
+            return matches;
+        } finally {
+            SEARCH_STUDENTS.record(startNanos);
+        }
     }
 
     /**
@@ -40,7 +113,30 @@ public class StudentService {
      * @return A List containing all Student objects.
      */
     public List<Student> listStudents() {
-        return new ArrayList<>(students.values());
+        long startNanos = System.nanoTime();
+        try {
+            return new ArrayList<>(students.values());
+        } finally {
+            LIST_STUDENTS.record(startNanos);
+        }
+    }
+
+    /**
+     * Returns a read-only live view of all students. Nothing is copied, so this is what
+     * queries and paging should iterate over instead of listStudents().
+     * @return An unmodifiable view over all Student objects.
+     */
+    public Collection<Student> studentView() {
+        return Collections.unmodifiableCollection(students.values());
+    }
+
+    /**
+     * Opens a consistent point-in-time view of all students. This is O(1): it copies nothing,
+     * and writers keep going while it's open. Close it when you're done.
+     * @return The snapshot.
+     */
+    public StudentSnapshot openSnapshot() {
+        return new StudentSnapshot(students);
     }
 
     /**
@@ -49,12 +145,17 @@ public class StudentService {
      * @param registrationNumber The registration number of the student to deactivate.
      */
     public void deactivateStudent(String registrationNumber) {
-        Student student = students.get(registrationNumber);
-        if (student != null) {
-            student.setActive(false);
-            System.out.println("Student '" + registrationNumber + "' has been deactivated.");
-        } else {
-            System.out.println("Couldn't find student with registration number '" + registrationNumber + "' to deactivate.");
+        long startNanos = System.nanoTime();
+        try {
+            Student student = students.get(registrationNumber);
+            if (student != null) {
+                student.setActive(false);
+                LOG.info("Student has been deactivated.", "registrationNumber", registrationNumber);
+            } else {
+                LOG.warn("Couldn't find student to deactivate.", "registrationNumber", registrationNumber);
+            }
+        } finally {
+            DEACTIVATE_STUDENT.record(startNanos);
         }
     }
 }
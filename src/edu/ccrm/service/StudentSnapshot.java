@@ -0,0 +1,57 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentVersion;
+import edu.ccrm.domain.VersionClock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * A consistent, point-in-time view of every student, for long reads like exports and rankings.
+ * Opening one just pins a version number, so it's O(1) no matter how many students there are,
+ * and enrollments and grading keep running at full speed while it's open. Whatever changes after
+ * it was opened stays invisible to it, and so do students created since.
+ * Always close it (try-with-resources is easiest), or old student states can't be freed.
+ */
+public class StudentSnapshot implements AutoCloseable {
+    private final Map<String, Student> students;
+    private final long version;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    StudentSnapshot(Map<String, Student> students) {
+        this.students = students;
+        this.version = VersionClock.getInstance().pin();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Looks up one student as of this snapshot.
+     * @param registrationNumber The registration number of the student.
+     * @return The student's state at this snapshot, or null if they didn't exist yet.
+     */
+    public StudentVersion getStudent(String registrationNumber) {
+        Student student = registrationNumber == null ? null : students.get(registrationNumber);
+        return student == null ? null : student.versionAt(version);
+    }
+
+    /**
+     * Streams every student as of this snapshot. Nothing is copied up front; the stream can be made
+     * parallel, and it's only valid until the snapshot is closed.
+     * @return The students' states at this snapshot.
+     */
+    public Stream<StudentVersion> students() {
+        return students.values().stream()
+            .map(student -> student.versionAt(version))
+            .filter(Objects::nonNull);
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) VersionClock.getInstance().unpin(version);
+    }
+}
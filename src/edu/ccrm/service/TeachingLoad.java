@@ -0,0 +1,49 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Semester;
+
+/**
+ * One instructor's teaching load for one semester: how many courses they teach, how many credits
+ * those add up to, and how many students are enrolled across them. InstructorService keeps these
+ * up to date as courses and enrollments change, so reading one is instant.
+ */
+public class TeachingLoad {
+    private final String instructorId;
+    private final Semester semester;
+    private int courseCount;
+    private int totalCredits;
+    private int enrolledStudents;
+
+    TeachingLoad(String instructorId, Semester semester) {
+        this.instructorId = instructorId;
+        this.semester = semester;
+    }
+
+    synchronized void addCourse(int credits, int enrolled) {
+        courseCount++;
+        totalCredits += credits;
+        enrolledStudents += enrolled;
+    }
+
+    synchronized void removeCourse(int credits, int enrolled) {
+        courseCount--;
+        totalCredits -= credits;
+        enrolledStudents -= enrolled;
+    }
+
+    synchronized void addEnrolledStudents(int delta) {
+        enrolledStudents += delta;
+    }
+
+    public String getInstructorId() { return instructorId; }
+    public Semester getSemester() { return semester; }
+    public synchronized int getCourseCount() { return courseCount; }
+    public synchronized int getTotalCredits() { return totalCredits; }
+    public synchronized int getEnrolledStudents() { return enrolledStudents; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Instructor %s, %s: %d courses, %d credits, %d students enrolled",
+            instructorId, semester, courseCount, totalCredits, enrolledStudents);
+    }
+}
@@ -0,0 +1,183 @@
+package edu.ccrm.shard;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The router's connection to one shard. Connections are opened on demand, checked with a HELLO,
+ * and kept in a small idle pool, so each request normally costs one round trip and no handshake.
+ * A connection that hits an I/O error is closed rather than reused.
+ */
+class ShardClient implements Closeable {
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    // Long enough for a big export or listing to start streaming back.
+    private static final int READ_TIMEOUT_MILLIS = 120_000;
+
+    private final InetSocketAddress address;
+    private final int partition;
+    private final int partitionCount;
+    private final ConcurrentLinkedQueue<Connection> idleConnections = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    ShardClient(InetSocketAddress address, int partition, int partitionCount) {
+        this.address = address;
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+    }
+
+    InetSocketAddress getAddress() { return address; }
+
+    /** Takes reply rows one at a time, as they come off the connection. */
+    interface RowHandler {
+        void row(String[] row) throws IOException;
+    }
+
+    /**
+     * Sends one request and waits for the whole reply.
+     * @param request The command followed by its arguments.
+     * @return The rows the shard sent back (often none).
+     * @throws IOException If the shard can't be reached, or it answered with an error.
+     */
+    List<String[]> call(String... request) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        stream(ShardProtocol.encode(request), rows::add);
+        return rows;
+    }
+
+    List<String[]> call(List<String> request) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        stream(ShardProtocol.encode(request), rows::add);
+        return rows;
+    }
+
+    /**
+     * Sends one request and hands each row of the reply to the handler as soon as it's read,
+     * so a big reply (an export, say) never has to fit in memory at once.
+     * If the handler fails, the rest of the reply is abandoned along with the connection.
+     * @param handler What to do with each row.
+     * @param request The command followed by its arguments.
+     * @throws IOException If the shard can't be reached, it answered with an error, or the handler failed.
+     */
+    void stream(RowHandler handler, String... request) throws IOException {
+        stream(ShardProtocol.encode(request), handler);
+    }
+
+    private void stream(String requestLine, RowHandler handler) throws IOException {
+        if (closed) throw new IOException("Connection to shard " + partition + " is closed");
+        Connection connection = idleConnections.poll();
+        if (connection == null) connection = openConnection();
+        try {
+            connection.exchange(requestLine, handler);
+            idleConnections.offer(connection);
+        } catch (ShardErrorException e) {
+            // The shard answered properly, just with an error, so the connection is still good.
+            idleConnections.offer(connection);
+            throw new IOException("Shard " + partition + " (" + address + ") refused the request: " + e.getMessage());
+        } catch (RowHandlerException e) {
+            // The rest of the reply is still on its way, so this connection can't be used for anything else.
+            connection.close();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw (IOException) e.getCause();
+        } catch (IOException e) {
+            connection.close();
+            throw new IOException("Shard " + partition + " (" + address + ") didn't answer: " + e.getMessage(), e);
+        }
+    }
+
+    private Connection openConnection() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket);
+            connection.exchange(ShardProtocol.encode(ShardProtocol.HELLO, String.valueOf(partition), String.valueOf(partitionCount)),
+                row -> { });
+            return connection;
+        } catch (ShardErrorException e) {
+            socket.close();
+            throw new IOException("Shard at " + address + " doesn't match this router: " + e.getMessage());
+        } catch (IOException e) {
+            socket.close();
+            throw new IOException("Couldn't connect to shard " + partition + " at " + address + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) connection.close();
+    }
+
+    private static final class Connection {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        void exchange(String requestLine, RowHandler handler) throws IOException {
+            out.write(requestLine);
+            out.write('\n');
+            out.flush();
+            while (true) {
+                String line = in.readLine();
+                if (line == null) throw new EOFException("connection closed mid-reply");
+                if (line.isEmpty()) throw new IOException("empty reply line");
+                switch (line.charAt(0)) {
+                    case ShardProtocol.ROW: {
+                        String[] row = ShardProtocol.decode(line.substring(2));
+                        try {
+                            handler.row(row);
+                        } catch (IOException | RuntimeException e) {
+                            throw new RowHandlerException(e);
+                        }
+                        break;
+                    }
+                    case ShardProtocol.END:
+                        return;
+                    case ShardProtocol.ERROR:
+                        throw new ShardErrorException(ShardProtocol.decode(line.substring(2))[0]);
+                    default:
+                        throw new IOException("unexpected reply line");
+                }
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing more we can do with it anyway.
+            }
+        }
+    }
+
+    // An error the shard reported on purpose, as opposed to a broken connection.
+    private static final class ShardErrorException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        ShardErrorException(String message) {
+            super(message);
+        }
+    }
+
+    // A row handler failed; the cause is what it threw.
+    private static final class RowHandlerException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        RowHandlerException(Exception cause) {
+            super(cause);
+        }
+    }
+}
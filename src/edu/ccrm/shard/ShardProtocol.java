@@ -0,0 +1,124 @@
+package edu.ccrm.shard;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The little line protocol the router and the shards speak over TCP. A request is one line of
+ * tab-separated fields, the first being the command. The reply is any number of row lines
+ * (tagged {@code R}), then either {@code E} (done) or {@code X} with an error message.
+ * Tabs, newlines and backslashes inside fields are escaped, and {@code \0} stands for null.
+ */
+final class ShardProtocol {
+    // Sent first on every connection, so a router pointed at the wrong port (or a shard started
+    // with the wrong partition settings) fails straight away instead of misplacing data.
+    static final String HELLO = "HELLO";
+
+    // Student commands, routed by registration number (or fanned out for the LIST/RANK/EXPORT/COUNT ones).
+    static final String ADD_STUDENTS = "ADD_STUDENTS";
+    static final String GET_STUDENT = "GET_STUDENT";
+    static final String UPDATE_STUDENT = "UPDATE_STUDENT";
+    static final String DEACTIVATE_STUDENT = "DEACTIVATE_STUDENT";
+    static final String ENROLL = "ENROLL";
+    static final String RECORD_GRADE = "RECORD_GRADE";
+    static final String LIST_STUDENTS = "LIST_STUDENTS";
+    static final String RANK_BY_GPA = "RANK_BY_GPA";
+    static final String EXPORT_STUDENTS = "EXPORT_STUDENTS";
+    static final String COUNT = "COUNT";
+
+    // Course commands, routed by course code (or fanned out for LIST_COURSES).
+    static final String ADD_COURSES = "ADD_COURSES";
+    static final String GET_COURSE = "GET_COURSE";
+    static final String LIST_COURSES = "LIST_COURSES";
+    static final String GRADE_FOR = "GRADE_FOR";
+    // Fanned out: grades live with the students, so every shard holds part of each course's statistics.
+    static final String COURSE_STATISTICS = "COURSE_STATISTICS";
+
+    static final char ROW = 'R';
+    static final char END = 'E';
+    static final char ERROR = 'X';
+
+    private static final String NULL_FIELD = "\\0";
+
+    private ShardProtocol() { }
+
+    /**
+     * Works out which partition owns a key. String.hashCode is fixed by the language spec,
+     * so every JVM (router or shard) agrees on the answer.
+     * @param key A registration number or course code.
+     * @param partitionCount How many partitions there are.
+     * @return The partition index, from 0 to partitionCount - 1.
+     */
+    static int partitionOf(String key, int partitionCount) {
+        int hash = key.hashCode();
+        // Spread the high bits down, so keys that only differ at the end still land on different partitions.
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, partitionCount);
+    }
+
+    static String encode(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) line.append('\t');
+            appendField(line, fields[i]);
+        }
+        return line.toString();
+    }
+
+    static String encode(List<String> fields) {
+        return encode(fields.toArray(new String[0]));
+    }
+
+    static String[] decode(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean nullField = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(nullField ? null : field.toString());
+                field.setLength(0);
+                nullField = false;
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                switch (escaped) {
+                    case 't': field.append('\t'); break;
+                    case 'n': field.append('\n'); break;
+                    case 'r': field.append('\r'); break;
+                    case '0': nullField = true; break;
+                    default: field.append(escaped);
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(nullField ? null : field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    static void writeRow(BufferedWriter out, String... fields) throws IOException {
+        out.write(ROW);
+        out.write('\t');
+        out.write(encode(fields));
+        out.write('\n');
+    }
+
+    private static void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            line.append(NULL_FIELD);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': line.append("\\\\"); break;
+                case '\t': line.append("\\t"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                default: line.append(c);
+            }
+        }
+    }
+}
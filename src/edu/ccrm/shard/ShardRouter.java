@@ -0,0 +1,561 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.service.CourseGradeStatistics;
+import edu.ccrm.util.AsyncLogger;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Sits in front of a set of ShardServers and makes them look like one store. Students are partitioned
+ * by a hash of their registration number and courses by a hash of their course code, so anything keyed
+ * by one of those goes to exactly one shard. Listing, ranking and export go to every shard at once.
+ * Rankings and course lists are small and merged here; students are streamed through as they arrive,
+ * so exporting or walking the whole student body never holds it all in the router's heap.
+ * Students and courses handed back are detached copies: changing them doesn't change the shard,
+ * use the router's own methods for that.
+ */
+public class ShardRouter implements Closeable {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("ShardRouter");
+
+    // Call counts and latency histograms for each public operation, published over JMX.
+    private static final OperationMetrics ADD_STUDENTS = MetricsRegistry.register("ShardRouter", "addStudents");
+    private static final OperationMetrics GET_STUDENT = MetricsRegistry.register("ShardRouter", "getStudent");
+    private static final OperationMetrics UPDATE_STUDENT = MetricsRegistry.register("ShardRouter", "updateStudent");
+    private static final OperationMetrics DEACTIVATE_STUDENT = MetricsRegistry.register("ShardRouter", "deactivateStudent");
+    private static final OperationMetrics ENROLL = MetricsRegistry.register("ShardRouter", "enroll");
+    private static final OperationMetrics ASSIGN_MARKS = MetricsRegistry.register("ShardRouter", "assignMarks");
+    private static final OperationMetrics LIST_STUDENTS = MetricsRegistry.register("ShardRouter", "listStudents");
+    private static final OperationMetrics FOR_EACH_STUDENT = MetricsRegistry.register("ShardRouter", "forEachStudent");
+    private static final OperationMetrics RANK_BY_GPA = MetricsRegistry.register("ShardRouter", "rankByGPA");
+    private static final OperationMetrics EXPORT_STUDENTS = MetricsRegistry.register("ShardRouter", "exportStudents");
+    private static final OperationMetrics ADD_COURSES = MetricsRegistry.register("ShardRouter", "addCourses");
+    private static final OperationMetrics GET_COURSE = MetricsRegistry.register("ShardRouter", "getCourse");
+    private static final OperationMetrics LIST_COURSES = MetricsRegistry.register("ShardRouter", "listCourses");
+    private static final OperationMetrics GET_COURSE_STATISTICS = MetricsRegistry.register("ShardRouter", "getCourseStatistics");
+
+    private final List<ShardClient> shards = new ArrayList<>();
+    private final ExecutorService fanOutPool;
+
+    /** A student's place in a cluster-wide GPA ranking. */
+    public static class RankedStudent {
+        private final String registrationNumber;
+        private final String name;
+        private final double gpa;
+
+        RankedStudent(String registrationNumber, String name, double gpa) {
+            this.registrationNumber = registrationNumber;
+            this.name = name;
+            this.gpa = gpa;
+        }
+
+        public String getRegistrationNumber() { return registrationNumber; }
+        public String getName() { return name; }
+        public double getGpa() { return gpa; }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%s): %.2f", name, registrationNumber, gpa);
+        }
+    }
+
+    // Something to run against one shard, as part of a fan-out.
+    private interface ShardCall<T> {
+        T call(ShardClient shard, int partition) throws IOException;
+    }
+
+    /**
+     * @param shardAddresses Where each partition is listening, in partition order. Every router and shard
+     *                       in a deployment has to agree on this order, since it decides where keys live.
+     */
+    public ShardRouter(List<InetSocketAddress> shardAddresses) {
+        if (shardAddresses.isEmpty()) throw new IllegalArgumentException("A sharded deployment needs at least one shard");
+        for (int partition = 0; partition < shardAddresses.size(); partition++) {
+            shards.add(new ShardClient(shardAddresses.get(partition), partition, shardAddresses.size()));
+        }
+        fanOutPool = Executors.newFixedThreadPool(shards.size() * 2, runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-shard-router");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Parses a list of shard addresses like "localhost:7101,localhost:7102".
+     * @param addresses Comma-separated host:port pairs, in partition order.
+     * @return The addresses.
+     * @throws IllegalArgumentException If one of them isn't a host:port pair.
+     */
+    public static List<InetSocketAddress> parseAddresses(String addresses) {
+        List<InetSocketAddress> parsed = new ArrayList<>();
+        for (String address : addresses.split(",")) {
+            String trimmed = address.trim();
+            int colon = trimmed.lastIndexOf(':');
+            if (colon <= 0) throw new IllegalArgumentException("Expected host:port but got '" + trimmed + "'");
+            parsed.add(new InetSocketAddress(trimmed.substring(0, colon), Integer.parseInt(trimmed.substring(colon + 1))));
+        }
+        return parsed;
+    }
+
+    public int getPartitionCount() { return shards.size(); }
+
+    /**
+     * Adds students, each to the shard that owns their registration number. The students are grouped
+     * by shard and sent in batches (import.batch.size at a time), to every shard at once.
+     * @param students The students to add. Ones that already exist are skipped by their shard.
+     * @throws IOException If a shard can't be reached.
+     */
+    public void addStudents(Collection<Student> students) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            List<List<Student>> studentsByShard = new ArrayList<>();
+            for (int i = 0; i < shards.size(); i++) studentsByShard.add(new ArrayList<>());
+            for (Student student : students) studentsByShard.get(partitionOf(student.getRegistrationNumber())).add(student);
+            int batchSize = AppConfig.getInstance().getImportBatchSize();
+            onEveryShard((shard, partition) -> {
+                List<Student> shardStudents = studentsByShard.get(partition);
+                for (int from = 0; from < shardStudents.size(); from += batchSize) {
+                    List<String> request = new ArrayList<>();
+                    request.add(ShardProtocol.ADD_STUDENTS);
+                    for (Student student : shardStudents.subList(from, Math.min(from + batchSize, shardStudents.size()))) {
+                        Collections.addAll(request, student.getId(), student.getRegistrationNumber(), student.getName(), student.getEmail());
+                    }
+                    shard.call(request);
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            ADD_STUDENTS.recordError();
+            throw e;
+        } finally {
+            ADD_STUDENTS.record(startNanos);
+        }
+    }
+
+    /**
+     * Adds a single student to the shard that owns their registration number.
+     * @param student The student to add.
+     * @throws IOException If the shard can't be reached.
+     */
+    public void addStudent(Student student) throws IOException {
+        addStudents(Collections.singletonList(student));
+    }
+
+    /**
+     * Looks up a student on the shard that owns their registration number.
+     * @param registrationNumber The student's registration number.
+     * @return A detached copy of the student, or null if there's no such student.
+     * @throws IOException If the shard can't be reached.
+     */
+    public Student getStudent(String registrationNumber) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            List<String[]> rows = shardFor(registrationNumber).call(ShardProtocol.GET_STUDENT, registrationNumber);
+            return rows.isEmpty() ? null : toStudent(rows.get(0));
+        } catch (IOException e) {
+            GET_STUDENT.recordError();
+            throw e;
+        } finally {
+            GET_STUDENT.record(startNanos);
+        }
+    }
+
+    /**
+     * Updates a student's name and email on the shard that owns them.
+     * @param registrationNumber The student's registration number.
+     * @param fullName The new name, or null to keep the current one.
+     * @param email The new email, or null to keep the current one.
+     * @return true if the student was found.
+     * @throws IOException If the shard can't be reached.
+     */
+    public boolean updateStudent(String registrationNumber, String fullName, String email) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            List<String[]> rows = shardFor(registrationNumber).call(ShardProtocol.UPDATE_STUDENT, registrationNumber, fullName, email);
+            return Boolean.parseBoolean(rows.get(0)[0]);
+        } catch (IOException e) {
+            UPDATE_STUDENT.recordError();
+            throw e;
+        } finally {
+            UPDATE_STUDENT.record(startNanos);
+        }
+    }
+
+    /**
+     * Deactivates a student on the shard that owns them.
+     * @param registrationNumber The student's registration number.
+     * @throws IOException If the shard can't be reached.
+     */
+    public void deactivateStudent(String registrationNumber) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            shardFor(registrationNumber).call(ShardProtocol.DEACTIVATE_STUDENT, registrationNumber);
+        } catch (IOException e) {
+            DEACTIVATE_STUDENT.recordError();
+            throw e;
+        } finally {
+            DEACTIVATE_STUDENT.record(startNanos);
+        }
+    }
+
+    /**
+     * Enrolls a student in a course, under the same rules as EnrollmentService: both the student and the
+     * course have to exist. The course's own shard is checked first and supplies the credits, so a student's
+     * shard never takes credits from anywhere else; then the student's shard records the enrollment.
+     * @param registrationNumber The student's registration number.
+     * @param courseCode The course to enroll in.
+     * @return true if both the student and the course exist.
+     * @throws IOException If either shard can't be reached.
+     */
+    public boolean enroll(String registrationNumber, String courseCode) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            Course course = getCourse(courseCode);
+            if (course == null) return false;
+            List<String[]> rows = shardFor(registrationNumber).call(ShardProtocol.ENROLL, registrationNumber, courseCode,
+                String.valueOf(course.getCredits()));
+            return Boolean.parseBoolean(rows.get(0)[0]);
+        } catch (IOException e) {
+            ENROLL.recordError();
+            throw e;
+        } finally {
+            ENROLL.record(startNanos);
+        }
+    }
+
+    /**
+     * Assigns marks to a student. The course's shard works out the grade (it knows the course's grading
+     * scheme), then the student's shard records it on the transcript.
+     * @param registrationNumber The student's registration number.
+     * @param courseCode The course the marks are for.
+     * @param marks The marks obtained.
+     * @return The grade that was recorded, or null if there's no such student, they aren't enrolled in the course,
+     *         or their grade for it is final.
+     * @throws IOException If either shard can't be reached.
+     */
+    public Grade assignMarks(String registrationNumber, String courseCode, int marks) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            Grade grade = Grade.valueOf(shardFor(courseCode).call(ShardProtocol.GRADE_FOR, courseCode, String.valueOf(marks)).get(0)[0]);
+            List<String[]> rows = shardFor(registrationNumber).call(ShardProtocol.RECORD_GRADE, registrationNumber, courseCode,
+                String.valueOf(marks), grade.name());
+            return Boolean.parseBoolean(rows.get(0)[0]) ? grade : null;
+        } catch (IOException e) {
+            ASSIGN_MARKS.recordError();
+            throw e;
+        } finally {
+            ASSIGN_MARKS.record(startNanos);
+        }
+    }
+
+    /**
+     * Lists every student on every shard. Each shard lists its own students from a snapshot, all at once.
+     * This holds the whole list in memory to sort it; use forEachStudent to walk a big deployment.
+     * @return Detached copies of all students, sorted by registration number.
+     * @throws IOException If a shard can't be reached.
+     */
+    public List<Student> listStudents() throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            List<Student> students = new ArrayList<>();
+            streamStudents(students::add);
+            students.sort(Comparator.comparing(Student::getRegistrationNumber));
+            return students;
+        } catch (IOException e) {
+            LIST_STUDENTS.recordError();
+            throw e;
+        } finally {
+            LIST_STUDENTS.record(startNanos);
+        }
+    }
+
+    /**
+     * Hands every student on every shard to an action, as each one arrives, without collecting them first.
+     * All shards are read at once, each from its own snapshot, so students come in no particular order.
+     * The action is called from the router's threads, but never by two of them at the same time.
+     * @param action What to do with each student (a detached copy).
+     * @return How many students there were.
+     * @throws IOException If a shard can't be reached.
+     */
+    public long forEachStudent(Consumer<Student> action) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            return streamStudents(action);
+        } catch (IOException e) {
+            FOR_EACH_STUDENT.recordError();
+            throw e;
+        } finally {
+            FOR_EACH_STUDENT.record(startNanos);
+        }
+    }
+
+    private long streamStudents(Consumer<Student> action) throws IOException {
+        Object lock = new Object();
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicLong count = new AtomicLong();
+        try {
+            onEveryShard((shard, partition) -> {
+                shard.stream(row -> {
+                    Student student = toStudent(row);
+                    synchronized (lock) {
+                        // If another shard failed, the caller has already had the error; don't call them again.
+                        if (finished.get()) throw new IOException("Listing was abandoned");
+                        action.accept(student);
+                    }
+                    count.incrementAndGet();
+                }, ShardProtocol.LIST_STUDENTS);
+                return null;
+            });
+            return count.get();
+        } finally {
+            synchronized (lock) {
+                finished.set(true);
+            }
+        }
+    }
+
+    /**
+     * Ranks students by GPA across the whole deployment. Every shard sends back only its own top
+     * {@code limit}, and those are merged here, so no more than shards x limit rows ever cross the wire.
+     * @param limit How many students to return.
+     * @return Up to {@code limit} students, highest GPA first (ties broken by registration number).
+     * @throws IOException If a shard can't be reached.
+     */
+    public List<RankedStudent> rankByGPA(int limit) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            if (limit <= 0) return Collections.emptyList();
+            List<RankedStudent> ranking = new ArrayList<>();
+            for (List<String[]> rows : onEveryShard((shard, partition) -> shard.call(ShardProtocol.RANK_BY_GPA, String.valueOf(limit)))) {
+                for (String[] row : rows) ranking.add(new RankedStudent(row[0], row[1], Double.parseDouble(row[2])));
+            }
+            ranking.sort(Comparator.comparingDouble(RankedStudent::getGpa).reversed()
+                .thenComparing(RankedStudent::getRegistrationNumber));
+            return ranking.size() > limit ? new ArrayList<>(ranking.subList(0, limit)) : ranking;
+        } catch (IOException e) {
+            RANK_BY_GPA.recordError();
+            throw e;
+        } finally {
+            RANK_BY_GPA.record(startNanos);
+        }
+    }
+
+    /**
+     * Exports every student to a CSV file, in the same personId,registrationNumber,fullName,email format
+     * as a single-process export. All shards are read at once, each from its own snapshot, and rows are
+     * written as they arrive, so rows from different shards are interleaved.
+     * @param file Where to write the CSV.
+     * @return How many students were exported.
+     * @throws IOException If a shard can't be reached or the file can't be written.
+     */
+    public long exportStudents(Path file) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            AtomicLong exported = new AtomicLong();
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                // Rows go straight from each shard's connection into the file; the lock just keeps lines whole.
+                onEveryShard((shard, partition) -> {
+                    shard.stream(row -> {
+                        synchronized (out) {
+                            out.write(String.join(",", row));
+                            out.newLine();
+                        }
+                        exported.incrementAndGet();
+                    }, ShardProtocol.EXPORT_STUDENTS);
+                    return null;
+                });
+            }
+            LOG.info("Student data exported from all shards.", "file", file, "rows", exported.get(), "shards", shards.size());
+            return exported.get();
+        } catch (IOException e) {
+            EXPORT_STUDENTS.recordError();
+            throw e;
+        } finally {
+            EXPORT_STUDENTS.record(startNanos);
+        }
+    }
+
+    /**
+     * Adds courses, each to the shard that owns its course code, in batches, to every shard at once.
+     * @param courses The courses to add.
+     * @throws IOException If a shard can't be reached.
+     */
+    public void addCourses(Collection<Course> courses) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            List<List<String>> requestsByShard = new ArrayList<>();
+            for (int i = 0; i < shards.size(); i++) requestsByShard.add(new ArrayList<>(Collections.singletonList(ShardProtocol.ADD_COURSES)));
+            for (Course course : courses) {
+                Collections.addAll(requestsByShard.get(partitionOf(course.getCourseCode())), course.getCourseCode(), course.getTitle(),
+                    String.valueOf(course.getCredits()), course.getInstructorId(), course.getSemester().name(), course.getDepartment());
+            }
+            // Course catalogs are small, so each shard gets its share in one go.
+            onEveryShard((shard, partition) -> requestsByShard.get(partition).size() > 1 ? shard.call(requestsByShard.get(partition)) : null);
+        } catch (IOException e) {
+            ADD_COURSES.recordError();
+            throw e;
+        } finally {
+            ADD_COURSES.record(startNanos);
+        }
+    }
+
+    /**
+     * Looks up a course on the shard that owns its code.
+     * @param courseCode The course code.
+     * @return A detached copy of the course, or null if there's no such course.
+     * @throws IOException If the shard can't be reached.
+     */
+    public Course getCourse(String courseCode) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            List<String[]> rows = shardFor(courseCode).call(ShardProtocol.GET_COURSE, courseCode);
+            return rows.isEmpty() ? null : toCourse(rows.get(0));
+        } catch (IOException e) {
+            GET_COURSE.recordError();
+            throw e;
+        } finally {
+            GET_COURSE.record(startNanos);
+        }
+    }
+
+    /**
+     * Lists courses from every shard, optionally just one department's.
+     * @param department The department to list, or null for all of them.
+     * @return Detached copies of the courses, sorted by course code.
+     * @throws IOException If a shard can't be reached.
+     */
+    public List<Course> listCourses(String department) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            List<Course> courses = new ArrayList<>();
+            for (List<String[]> rows : onEveryShard((shard, partition) -> department == null
+                    ? shard.call(ShardProtocol.LIST_COURSES) : shard.call(ShardProtocol.LIST_COURSES, department))) {
+                for (String[] row : rows) courses.add(toCourse(row));
+            }
+            courses.sort(Comparator.comparing(Course::getCourseCode));
+            return courses;
+        } catch (IOException e) {
+            LIST_COURSES.recordError();
+            throw e;
+        } finally {
+            LIST_COURSES.record(startNanos);
+        }
+    }
+
+    /**
+     * Returns a course's grade statistics for the whole deployment. Grades are kept with the students,
+     * so every shard has the statistics for its own students; their counters are added up here.
+     * @param courseCode The course code.
+     * @return The combined statistics, or null if nobody has been graded in that course yet.
+     * @throws IOException If a shard can't be reached.
+     */
+    public CourseGradeStatistics getCourseStatistics(String courseCode) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            long[] totals = null;
+            for (List<String[]> rows : onEveryShard((shard, partition) -> shard.call(ShardProtocol.COURSE_STATISTICS, courseCode))) {
+                if (rows.isEmpty()) continue;
+                String[] counters = rows.get(0);
+                if (totals == null) totals = new long[counters.length];
+                for (int i = 0; i < counters.length; i++) totals[i] += Long.parseLong(counters[i]);
+            }
+            if (totals == null) return null;
+            CourseGradeStatistics statistics = CourseGradeStatistics.fromCounters(courseCode, totals);
+            return statistics.getCount() == 0 ? null : statistics;
+        } catch (IOException e) {
+            GET_COURSE_STATISTICS.recordError();
+            throw e;
+        } finally {
+            GET_COURSE_STATISTICS.record(startNanos);
+        }
+    }
+
+    /**
+     * Describes how the data is spread over the shards, one line per shard.
+     * @return Lines like "Partition 0 (localhost/127.0.0.1:7101): 25012 students, 498 courses".
+     * @throws IOException If a shard can't be reached.
+     */
+    public List<String> describeShards() throws IOException {
+        List<List<String[]>> counts = onEveryShard((shard, partition) -> shard.call(ShardProtocol.COUNT));
+        List<String> lines = new ArrayList<>();
+        for (int partition = 0; partition < shards.size(); partition++) {
+            String[] count = counts.get(partition).get(0);
+            lines.add("Partition " + partition + " (" + shards.get(partition).getAddress() + "): "
+                + count[0] + " students, " + count[1] + " courses");
+        }
+        return lines;
+    }
+
+    @Override
+    public void close() {
+        fanOutPool.shutdownNow();
+        for (ShardClient shard : shards) shard.close();
+    }
+
+    private int partitionOf(String key) {
+        return ShardProtocol.partitionOf(key, shards.size());
+    }
+
+    private ShardClient shardFor(String key) {
+        return shards.get(partitionOf(key));
+    }
+
+    // Runs a call against every shard at the same time and waits for all of them.
+    // The results come back in partition order.
+    private <T> List<T> onEveryShard(ShardCall<T> call) throws IOException {
+        List<Future<T>> replies = new ArrayList<>(shards.size());
+        for (int partition = 0; partition < shards.size(); partition++) {
+            ShardClient shard = shards.get(partition);
+            int shardPartition = partition;
+            replies.add(fanOutPool.submit(() -> call.call(shard, shardPartition)));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        try {
+            for (Future<T> reply : replies) results.add(reply.get());
+            return results;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            // Most likely thrown by a caller's action in forEachStudent, so let it through as it was.
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the shards", e);
+        } finally {
+            for (Future<T> reply : replies) reply.cancel(true);
+        }
+    }
+
+    private static Student toStudent(String[] row) {
+        Student student = new Student(row[0], row[1], row[2], row[3]);
+        int enrolledCount = Integer.parseInt(row[5]);
+        for (int i = 6; i < 6 + enrolledCount; i++) student.enroll(row[i]);
+        for (int i = 6 + enrolledCount; i + 2 < row.length; i += 3) {
+            student.addTranscriptEntry(row[i], Integer.parseInt(row[i + 1]), Grade.valueOf(row[i + 2]));
+        }
+        if (!Boolean.parseBoolean(row[4])) student.setActive(false);
+        return student;
+    }
+
+    private static Course toCourse(String[] row) {
+        return new Course(row[0], row[1], Integer.parseInt(row[2]), row[3], Semester.valueOf(row[4]), row[5]);
+    }
+}
@@ -0,0 +1,290 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentVersion;
+import edu.ccrm.domain.TranscriptEntry;
+import edu.ccrm.service.CourseGradeStatistics;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.GradingService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.service.StudentSnapshot;
+import edu.ccrm.util.AsyncLogger;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One partition of a sharded deployment. It owns the students whose registration numbers hash to it
+ * and the courses whose codes hash to it, in its own ordinary services, and answers the router's
+ * requests over TCP. Run one per process (see edu.ccrm.tools.ShardNode), and each partition only
+ * needs the heap for its own share of the data.
+ */
+public class ShardServer {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("ShardServer");
+
+    private final int partition;
+    private final int partitionCount;
+    private final StudentService studentService = new StudentService();
+    private final CourseService courseService = new CourseService();
+    private final GradingService gradingService = new GradingService(courseService);
+    // One thread per router connection; the router keeps a small pool of them open.
+    private final ExecutorService connectionHandlers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "ccrm-shard-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    /**
+     * @param partition Which partition this is, from 0 to partitionCount - 1.
+     * @param partitionCount How many partitions the deployment has in total.
+     */
+    public ShardServer(int partition, int partitionCount) {
+        if (partitionCount < 1 || partition < 0 || partition >= partitionCount) {
+            throw new IllegalArgumentException("Partition " + partition + " isn't valid for " + partitionCount + " partitions");
+        }
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Starts listening for the router on the loopback interface (or all interfaces, if asked).
+     * @param port The port to listen on, or 0 for any free port.
+     * @param allInterfaces Whether to accept connections from other hosts too.
+     * @throws IOException If the port can't be bound.
+     */
+    public synchronized void start(int port, boolean allInterfaces) throws IOException {
+        if (running) return;
+        serverSocket = allInterfaces ? new ServerSocket(port) : new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        running = true;
+        Thread acceptThread = new Thread(this::acceptConnections, "ccrm-shard-accept-" + partition);
+        acceptThread.start();
+        LOG.info("Shard is listening.", "partition", partition, "partitions", partitionCount, "port", serverSocket.getLocalPort());
+    }
+
+    public synchronized int getPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    public int getPartition() { return partition; }
+
+    /**
+     * Stops accepting connections and closes the open ones. The data is only in memory, so it's gone too.
+     */
+    public synchronized void stop() {
+        running = false;
+        try {
+            if (serverSocket != null) serverSocket.close();
+        } catch (IOException e) {
+            LOG.warn("Couldn't close the shard's server socket.", "reason", e.getMessage());
+        }
+        connectionHandlers.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connectionHandlers.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                if (running) LOG.error("Shard stopped accepting connections.", "reason", e.getMessage());
+                return;
+            } catch (IOException e) {
+                LOG.warn("Couldn't accept a connection.", "reason", e.getMessage());
+            }
+        }
+    }
+
+    // Reads requests off one connection until the router hangs up, answering each in turn.
+    private void serve(Socket socket) {
+        try (Socket connection = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] request = ShardProtocol.decode(line);
+                try {
+                    handle(request, out);
+                    out.write(ShardProtocol.END);
+                } catch (RuntimeException e) {
+                    out.write(ShardProtocol.ERROR);
+                    out.write('\t');
+                    out.write(ShardProtocol.encode(e.getClass().getSimpleName() + ": " + e.getMessage()));
+                }
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            if (running) LOG.warn("Lost a router connection.", "reason", e.getMessage());
+        }
+    }
+
+    private void handle(String[] request, BufferedWriter out) throws IOException {
+        String command = request[0];
+        switch (command) {
+            case ShardProtocol.HELLO:
+                requireFields(request, 3);
+                if (Integer.parseInt(request[1]) != partition || Integer.parseInt(request[2]) != partitionCount) {
+                    throw new IllegalStateException("This is partition " + partition + " of " + partitionCount
+                        + ", not partition " + request[1] + " of " + request[2]);
+                }
+                break;
+            case ShardProtocol.ADD_STUDENTS:
+                // personId, registrationNumber, fullName, email - repeated for each student.
+                for (int i = 1; i + 3 < request.length; i += 4) {
+                    checkOwned(request[i + 1]);
+                    studentService.addStudent(new Student(request[i], request[i + 1], request[i + 2], request[i + 3]));
+                }
+                break;
+            case ShardProtocol.GET_STUDENT: {
+                requireFields(request, 2);
+                Student student = studentService.getStudent(request[1]);
+                if (student != null) ShardProtocol.writeRow(out, studentRow(student.getLatestVersion()));
+                break;
+            }
+            case ShardProtocol.UPDATE_STUDENT:
+                requireFields(request, 4);
+                ShardProtocol.writeRow(out, String.valueOf(studentService.updateStudent(request[1], request[2], request[3])));
+                break;
+            case ShardProtocol.DEACTIVATE_STUDENT:
+                requireFields(request, 2);
+                studentService.deactivateStudent(request[1]);
+                break;
+            case ShardProtocol.ENROLL: {
+                requireFields(request, 4);
+                Student student = studentService.getStudent(request[1]);
+                if (student != null) student.enroll(request[2], Integer.parseInt(request[3]));
+                ShardProtocol.writeRow(out, String.valueOf(student != null));
+                break;
+            }
+            case ShardProtocol.RECORD_GRADE: {
+                requireFields(request, 5);
+                // Same rule as the single-process path: only students enrolled in the course can be graded in it.
+                Student student = studentService.getStudent(request[1]);
+                boolean recorded = student != null && student.getEnrolledCourses().contains(request[2])
+                    && gradingService.recordGrade(student, request[2], Integer.parseInt(request[3]), Grade.valueOf(request[4]));
+                ShardProtocol.writeRow(out, String.valueOf(recorded));
+                break;
+            }
+            case ShardProtocol.LIST_STUDENTS:
+                try (StudentSnapshot snapshot = studentService.openSnapshot()) {
+                    for (StudentVersion student : (Iterable<StudentVersion>) snapshot.students()::iterator) {
+                        ShardProtocol.writeRow(out, studentRow(student));
+                    }
+                }
+                break;
+            case ShardProtocol.RANK_BY_GPA:
+                requireFields(request, 2);
+                try (StudentSnapshot snapshot = studentService.openSnapshot()) {
+                    for (StudentVersion student : gradingService.rankByGPA(snapshot, Integer.parseInt(request[1]))) {
+                        ShardProtocol.writeRow(out, student.getRegistrationNumber(), student.getName(),
+                            String.valueOf(gradingService.computeGPA(student)));
+                    }
+                }
+                break;
+            case ShardProtocol.EXPORT_STUDENTS:
+                try (StudentSnapshot snapshot = studentService.openSnapshot()) {
+                    for (StudentVersion student : (Iterable<StudentVersion>) snapshot.students()::iterator) {
+                        ShardProtocol.writeRow(out, student.getId(), student.getRegistrationNumber(), student.getName(), student.getEmail());
+                    }
+                }
+                break;
+            case ShardProtocol.COUNT:
+                ShardProtocol.writeRow(out, String.valueOf(studentService.studentView().size()),
+                    String.valueOf(courseService.courseView().size()));
+                break;
+            case ShardProtocol.ADD_COURSES:
+                // courseCode, title, credits, instructorId, semester, department - repeated for each course.
+                for (int i = 1; i + 5 < request.length; i += 6) {
+                    checkOwned(request[i]);
+                    courseService.addCourse(new Course(request[i], request[i + 1], Integer.parseInt(request[i + 2]),
+                        request[i + 3], Semester.valueOf(request[i + 4]), request[i + 5]));
+                }
+                break;
+            case ShardProtocol.GET_COURSE: {
+                requireFields(request, 2);
+                Course course = courseService.getCourse(request[1]);
+                if (course != null) ShardProtocol.writeRow(out, courseRow(course));
+                break;
+            }
+            case ShardProtocol.LIST_COURSES: {
+                // An optional second field limits the list to one department.
+                String department = request.length > 1 ? request[1] : null;
+                for (Course course : courseService.courseView()) {
+                    if (department == null || department.equalsIgnoreCase(course.getDepartment())) {
+                        ShardProtocol.writeRow(out, courseRow(course));
+                    }
+                }
+                break;
+            }
+            case ShardProtocol.GRADE_FOR:
+                requireFields(request, 3);
+                ShardProtocol.writeRow(out, gradingService.gradeFor(request[1], Integer.parseInt(request[2])).name());
+                break;
+            case ShardProtocol.COURSE_STATISTICS: {
+                requireFields(request, 2);
+                CourseGradeStatistics statistics = gradingService.getCourseStatistics(request[1]);
+                if (statistics != null) {
+                    long[] counters = statistics.getCounters();
+                    String[] fields = new String[counters.length];
+                    for (int i = 0; i < counters.length; i++) fields[i] = String.valueOf(counters[i]);
+                    ShardProtocol.writeRow(out, fields);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown command " + command);
+        }
+    }
+
+    // Refuses keys that belong to another partition, so a misconfigured router can't scatter data around.
+    private void checkOwned(String key) {
+        int owner = ShardProtocol.partitionOf(key, partitionCount);
+        if (owner != partition) {
+            throw new IllegalStateException("Key " + key + " belongs to partition " + owner + ", not " + partition);
+        }
+    }
+
+    private static void requireFields(String[] request, int count) {
+        if (request.length < count) {
+            throw new IllegalArgumentException(request[0] + " needs " + (count - 1) + " argument(s)");
+        }
+    }
+
+    // id, registrationNumber, name, email, active, the number of enrolled courses, their codes,
+    // then courseCode, marks, grade for each transcript entry.
+    private static String[] studentRow(StudentVersion student) {
+        List<String> fields = new ArrayList<>();
+        fields.add(student.getId());
+        fields.add(student.getRegistrationNumber());
+        fields.add(student.getName());
+        fields.add(student.getEmail());
+        fields.add(String.valueOf(student.isActive()));
+        fields.add(String.valueOf(student.getEnrolledCourses().size()));
+        fields.addAll(student.getEnrolledCourses());
+        for (TranscriptEntry entry : student.getTranscript().values()) {
+            fields.add(entry.getCourseCode());
+            fields.add(String.valueOf(entry.getMarks()));
+            fields.add(entry.getGrade().name());
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    private static String[] courseRow(Course course) {
+        return new String[] { course.getCourseCode(), course.getTitle(), String.valueOf(course.getCredits()),
+            course.getInstructorId(), course.getSemester().name(), course.getDepartment() };
+    }
+}
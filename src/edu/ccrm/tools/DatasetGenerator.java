@@ -0,0 +1,179 @@
+package edu.ccrm.tools;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Generates realistic, reproducible datasets for soak and load testing.
+ * Everything is derived from a seed, so the same arguments always give byte-for-byte the same files.
+ * Registration numbers follow our usual pattern (e.g. 24MIP10032), course popularity follows
+ * a Zipf curve (a few courses are very popular, most are small), and marks cluster around
+ * the high 60s with a long tail, much like a real marks sheet.
+ *
+ * Usage: {@code java -cp target/classes edu.ccrm.tools.DatasetGenerator --out data/generated
+ * --students 1000000 --courses 2000 --seed 42}
+ */
+public class DatasetGenerator {
+    private static final String[] PROGRAMS = { "MIP", "BCE", "BCS", "BEC", "BME", "MCA", "MBA", "BIT", "MEE", "BPH" };
+    private static final String[] DEPARTMENTS = { "CS", "EE", "ME", "CE", "MA", "PH", "CH", "BT", "HS", "MG" };
+    private static final String[] SUBJECTS = { "Programming", "Databases", "Networks", "Algorithms", "Circuits",
+        "Thermodynamics", "Statistics", "Mechanics", "Optics", "Economics", "Biology", "Chemistry", "Design", "Ethics" };
+    private static final String[] FIRST_NAMES = { "Aarav", "Ayaan", "Ishan", "Vivaan", "Aditya", "Diya", "Ananya",
+        "Saanvi", "Meera", "Kabir", "Rohan", "Priya", "Neha", "Arjun", "Zara", "Kavya", "Reyansh", "Myra", "Dev", "Tara" };
+    private static final String[] LAST_NAMES = { "Singh", "Sharma", "Patel", "Gupta", "Kumar", "Iyer", "Reddy",
+        "Nair", "Das", "Mehta", "Joshi", "Rao", "Khan", "Bose", "Chopra", "Menon", "Verma", "Pillai", "Jain", "Sen" };
+    private static final int SERIALS_PER_PROGRAM = 100_000; // Five-digit serial numbers per program per year.
+
+    private final long seed;
+    private final int studentCount;
+    private final int courseCount;
+    private final int maxCoursesPerStudent;
+    private final double[] courseCumulativeWeights;
+
+    public DatasetGenerator(long seed, int studentCount, int courseCount, int maxCoursesPerStudent) {
+        if (studentCount > SERIALS_PER_PROGRAM * PROGRAMS.length * 25) {
+            throw new IllegalArgumentException("Too many students for unique registration numbers: " + studentCount);
+        }
+        this.seed = seed;
+        this.studentCount = studentCount;
+        this.courseCount = courseCount;
+        this.maxCoursesPerStudent = Math.max(1, Math.min(maxCoursesPerStudent, courseCount));
+        // Zipf weights with exponent 1.1, accumulated so a sample is just a binary search.
+        this.courseCumulativeWeights = new double[courseCount];
+        double total = 0;
+        for (int rank = 0; rank < courseCount; rank++) {
+            total += 1.0 / Math.pow(rank + 1, 1.1);
+            courseCumulativeWeights[rank] = total;
+        }
+        for (int rank = 0; rank < courseCount; rank++) courseCumulativeWeights[rank] /= total;
+    }
+
+    public int getStudentCount() { return studentCount; }
+    public int getCourseCount() { return courseCount; }
+
+    /**
+     * Builds the registration number for the i-th student, e.g. 24MIP10032.
+     * @param index The student index, from 0 to studentCount - 1.
+     * @return A unique, validly formatted registration number.
+     */
+    public static String registrationNumber(int index) {
+        int serial = index % SERIALS_PER_PROGRAM;
+        int program = (index / SERIALS_PER_PROGRAM) % PROGRAMS.length;
+        int year = 24 - index / (SERIALS_PER_PROGRAM * PROGRAMS.length);
+        return String.format("%02d%s%05d", year, PROGRAMS[program], serial);
+    }
+
+    public Student student(int index) {
+        Random random = randomFor(1, index);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String email = (firstName + "." + lastName + index + "@mail.com").toLowerCase();
+        return new Student(String.valueOf(index + 1), registrationNumber(index), firstName + " " + lastName, email);
+    }
+
+    public String courseCode(int index) {
+        return String.valueOf(1000 + index);
+    }
+
+    public Course course(int index) {
+        Random random = randomFor(2, index);
+        String department = DEPARTMENTS[index % DEPARTMENTS.length];
+        String title = SUBJECTS[random.nextInt(SUBJECTS.length)] + " " + (1 + index / DEPARTMENTS.length % 4) + "0" + (index % 10);
+        Semester semester = Semester.values()[random.nextInt(Semester.values().length)];
+        return new Course(courseCode(index), title, 1 + random.nextInt(5), String.format("%03d", random.nextInt(Math.max(1, courseCount / 4)) + 1),
+            semester, department);
+    }
+
+    /**
+     * Picks the courses a student is enrolled in. Popular courses get picked far more often.
+     * @param studentIndex The student index.
+     * @return The distinct course indexes for that student.
+     */
+    public int[] enrollmentsFor(int studentIndex) {
+        Random random = randomFor(3, studentIndex);
+        int wanted = 1 + random.nextInt(maxCoursesPerStudent);
+        LinkedHashSet<Integer> picked = new LinkedHashSet<>();
+        for (int attempt = 0; picked.size() < wanted && attempt < wanted * 8; attempt++) {
+            picked.add(sampleCourse(random));
+        }
+        return picked.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Marks for one student in one course: roughly normal around 68 with a spread of 15,
+     * plus a small chance of a failing score, clamped to 0–100.
+     */
+    public int marksFor(int studentIndex, int courseIndex) {
+        Random random = randomFor(4, (long) studentIndex * 31 + courseIndex);
+        if (random.nextInt(20) == 0) return random.nextInt(40);
+        int marks = (int) Math.round(68 + random.nextGaussian() * 15);
+        return Math.max(0, Math.min(100, marks));
+    }
+
+    public int sampleCourse(Random random) {
+        int index = Arrays.binarySearch(courseCumulativeWeights, random.nextDouble());
+        return Math.min(courseCount - 1, index >= 0 ? index : -index - 1);
+    }
+
+    /**
+     * Writes students.csv, courses.csv, enrollments.csv and marks.csv into the given directory,
+     * in the same formats ImportExportService reads. Rows are streamed, so memory stays flat.
+     * @param outputDirectory Where to put the files; created if needed.
+     * @throws IOException If any of the files can't be written.
+     */
+    public void writeDataset(Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        try (BufferedWriter writer = Files.newBufferedWriter(outputDirectory.resolve("courses.csv"))) {
+            for (int i = 0; i < courseCount; i++) {
+                Course course = course(i);
+                writer.write(course.getCourseCode() + "," + course.getTitle() + "," + course.getCredits() + ","
+                    + course.getInstructorId() + "," + course.getSemester() + "," + course.getDepartment());
+                writer.newLine();
+            }
+        }
+        try (BufferedWriter students = Files.newBufferedWriter(outputDirectory.resolve("students.csv"));
+             BufferedWriter enrollments = Files.newBufferedWriter(outputDirectory.resolve("enrollments.csv"));
+             BufferedWriter marks = Files.newBufferedWriter(outputDirectory.resolve("marks.csv"))) {
+            for (int i = 0; i < studentCount; i++) {
+                Student student = student(i);
+                students.write(student.getId() + "," + student.getRegistrationNumber() + "," + student.getName() + "," + student.getEmail());
+                students.newLine();
+                for (int courseIndex : enrollmentsFor(i)) {
+                    enrollments.write(student.getRegistrationNumber() + "," + courseCode(courseIndex));
+                    enrollments.newLine();
+                    marks.write(student.getRegistrationNumber() + "," + courseCode(courseIndex) + "," + marksFor(i, courseIndex));
+                    marks.newLine();
+                }
+            }
+        }
+    }
+
+    // Every entity gets its own Random derived from (seed, kind, index), so any record can be
+    // regenerated on its own without replaying everything before it.
+    private Random randomFor(int kind, long index) {
+        long mixed = seed * 0x9E3779B97F4A7C15L + kind * 0xBF58476D1CE4E5B9L + index * 0x94D049BB133111EBL;
+        return new Random(mixed ^ (mixed >>> 31));
+    }
+
+    public static void main(String[] args) throws IOException {
+        ToolArguments arguments = new ToolArguments(args);
+        Path outputDirectory = Paths.get(arguments.getString("out", "data/generated"));
+        DatasetGenerator generator = new DatasetGenerator(
+            arguments.getLong("seed", 42L),
+            arguments.getInt("students", 100_000),
+            arguments.getInt("courses", 1_000),
+            arguments.getInt("max-courses-per-student", 6));
+        long start = System.nanoTime();
+        generator.writeDataset(outputDirectory);
+        System.out.printf("Generated %,d students and %,d courses in %s (%.1f s).%n", generator.getStudentCount(),
+            generator.getCourseCount(), outputDirectory, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,223 @@
+package edu.ccrm.tools;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.GradingService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.AsyncLogger;
+import edu.ccrm.util.LogLevel;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a configurable mix of enroll, grade, lookup and export operations against the services
+ * at a target rate, then reports throughput and latency percentiles per operation.
+ * The services are loaded in memory from a DatasetGenerator, so runs are reproducible.
+ * Latency is measured from when each operation was <em>scheduled</em> to start, not when it actually
+ * started, so a slow operation that delays the ones behind it shows up in their numbers too.
+ *
+ * Usage: {@code java -cp target/classes edu.ccrm.tools.LoadDriver --students 100000 --courses 1000
+ * --rate 5000 --duration 30 --mix enroll=40,grade=30,lookup=25,export=5}
+ */
+public class LoadDriver {
+
+    /** The operations the driver knows how to replay. */
+    public enum Operation { ENROLL, GRADE, LOOKUP, EXPORT }
+
+    private final DatasetGenerator generator;
+    private final StudentService studentService = new StudentService();
+    private final CourseService courseService = new CourseService();
+    private final EnrollmentService enrollmentService = new EnrollmentService();
+    private final GradingService gradingService = new GradingService(courseService);
+    private final ImportExportService importExportService = new ImportExportService();
+    private final Map<Operation, LatencySamples> samplesByOperation = new EnumMap<>(Operation.class);
+    private final Path exportDirectory;
+    private final Random random;
+    private long missedOperations;
+
+    public LoadDriver(DatasetGenerator generator, long seed, Path exportDirectory) {
+        this.generator = generator;
+        this.random = new Random(seed);
+        this.exportDirectory = exportDirectory;
+        for (Operation operation : Operation.values()) samplesByOperation.put(operation, new LatencySamples());
+    }
+
+    /**
+     * Loads every generated course and student into the services, and enrolls each student in
+     * the first of their generated courses, so grade operations have something to work with.
+     */
+    public void populate() {
+        for (int i = 0; i < generator.getCourseCount(); i++) courseService.addCourse(generator.course(i));
+        for (int i = 0; i < generator.getStudentCount(); i++) {
+            Student student = generator.student(i);
+            studentService.addStudent(student);
+            int[] courses = generator.enrollmentsFor(i);
+            enrollmentService.enrollStudentInCourse(student, courseService.getCourse(generator.courseCode(courses[0])));
+        }
+    }
+
+    /**
+     * Runs the load for the given duration at the given rate. The run stops at the wall-clock deadline
+     * even if slow operations (exports, say) put it behind schedule; whatever was scheduled but never
+     * started is counted as missed (see getMissedOperations) rather than run late, past the deadline.
+     * @param operationsPerSecond The target rate.
+     * @param durationSeconds How long to keep going.
+     * @param mix The relative weight of each operation.
+     * @return The number of operations that were run.
+     * @throws IOException If an export operation fails.
+     */
+    public long run(int operationsPerSecond, int durationSeconds, Map<Operation, Integer> mix) throws IOException {
+        Operation[] weightedOperations = expandMix(mix);
+        long intervalNanos = 1_000_000_000L / Math.max(1, operationsPerSecond);
+        long start = System.nanoTime();
+        long end = start + durationSeconds * 1_000_000_000L;
+        long operationsRun = 0;
+        for (long intendedStart = start; intendedStart < end; intendedStart += intervalNanos) {
+            long now = System.nanoTime();
+            if (now >= end) break; // Out of time: this one and everything after it are missed.
+            long waitNanos = intendedStart - now;
+            if (waitNanos > 0) LockSupport.parkNanos(waitNanos);
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            execute(operation);
+            samplesByOperation.get(operation).record(System.nanoTime() - intendedStart);
+            operationsRun++;
+        }
+        // The schedule had one slot per interval up to the deadline; every slot we didn't run was missed.
+        long operationsScheduled = (end - start + intervalNanos - 1) / intervalNanos;
+        missedOperations = operationsScheduled - operationsRun;
+        return operationsRun;
+    }
+
+    /**
+     * How many operations the last run had scheduled but never got to before its deadline,
+     * because earlier ones took longer than the schedule allowed.
+     * @return The number of missed operations (0 if the driver kept up).
+     */
+    public long getMissedOperations() {
+        return missedOperations;
+    }
+
+    private void execute(Operation operation) throws IOException {
+        Student student = studentService.getStudent(DatasetGenerator.registrationNumber(random.nextInt(generator.getStudentCount())));
+        switch (operation) {
+            case ENROLL: {
+                Course course = courseService.getCourse(generator.courseCode(generator.sampleCourse(random)));
+                enrollmentService.enrollStudentInCourse(student, course);
+                break;
+            }
+            case GRADE: {
+                List<String> enrolledCourses = student.getEnrolledCourses();
+                if (!enrolledCourses.isEmpty()) {
+                    String courseCode = enrolledCourses.get(random.nextInt(enrolledCourses.size()));
+                    gradingService.assignMarks(student, courseCode, random.nextInt(101));
+                }
+                break;
+            }
+            case LOOKUP:
+                // The student lookup above is the operation; nothing more to do.
+                break;
+            case EXPORT:
+                importExportService.exportStudents(exportDirectory.resolve("load-export.csv").toString(), studentService);
+                break;
+        }
+    }
+
+    /**
+     * Prints throughput and latency percentiles (in microseconds) for each operation.
+     * @param out Where to print the report.
+     * @param elapsedSeconds How long the run actually took.
+     */
+    public void printReport(PrintStream out, double elapsedSeconds) {
+        out.printf("%-8s %10s %10s %10s %10s %10s %10s %10s%n", "op", "count", "ops/s", "p50(us)", "p90(us)", "p99(us)", "p99.9(us)", "max(us)");
+        long total = 0;
+        for (Map.Entry<Operation, LatencySamples> entry : samplesByOperation.entrySet()) {
+            LatencySamples samples = entry.getValue();
+            if (samples.size() == 0) continue;
+            samples.sort();
+            total += samples.size();
+            out.printf("%-8s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n", entry.getKey(), samples.size(),
+                samples.size() / elapsedSeconds, samples.percentile(50) / 1e3, samples.percentile(90) / 1e3,
+                samples.percentile(99) / 1e3, samples.percentile(99.9) / 1e3, samples.percentile(100) / 1e3);
+        }
+        out.printf("Total: %,d operations in %.1f s (%.1f ops/s achieved)%n", total, elapsedSeconds, total / elapsedSeconds);
+        if (missedOperations > 0) {
+            out.printf("Missed: %,d scheduled operations never started before the deadline (the driver fell behind).%n",
+                missedOperations);
+        }
+    }
+
+    static Map<Operation, Integer> parseMix(String mixText) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : mixText.split(",")) {
+            String[] nameAndWeight = part.strip().split("=");
+            if (nameAndWeight.length != 2) throw new IllegalArgumentException("Expected op=weight but got '" + part + "'");
+            mix.put(Operation.valueOf(nameAndWeight[0].strip().toUpperCase()), Integer.parseInt(nameAndWeight[1].strip()));
+        }
+        return mix;
+    }
+
+    // Turns {ENROLL=40, GRADE=30...} into one array slot per unit of weight, so picking an operation is one random index.
+    private static Operation[] expandMix(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) slots.add(operation);
+        });
+        if (slots.isEmpty()) throw new IllegalArgumentException("The operation mix must have at least one positive weight");
+        return slots.toArray(new Operation[0]);
+    }
+
+    // A growable array of latency samples in nanoseconds. Sorting once at the end is plenty for a report.
+    private static class LatencySamples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+        }
+
+        int size() { return size; }
+        void sort() { Arrays.sort(values, 0, size); }
+
+        long percentile(double percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return values[Math.max(0, Math.min(size - 1, index))];
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ToolArguments arguments = new ToolArguments(args);
+        long seed = arguments.getLong("seed", 42L);
+        DatasetGenerator generator = new DatasetGenerator(seed,
+            arguments.getInt("students", 100_000), arguments.getInt("courses", 1_000),
+            arguments.getInt("max-courses-per-student", 6));
+        Path exportDirectory = arguments.has("export-dir")
+            ? Files.createDirectories(Paths.get(arguments.getString("export-dir", null)))
+            : Files.createTempDirectory("ccrm-load");
+        LoadDriver driver = new LoadDriver(generator, seed, exportDirectory);
+
+        // Per-record service messages are just noise at this scale; only warnings and errors get through.
+        AsyncLogger.getInstance().setLevel(LogLevel.WARN);
+        AsyncLogger.getInstance().setOverflowPolicy(AsyncLogger.OverflowPolicy.DROP);
+        long loadStart = System.nanoTime();
+        driver.populate();
+        System.out.printf("Loaded %,d students and %,d courses in %.1f s.%n", generator.getStudentCount(),
+            generator.getCourseCount(), (System.nanoTime() - loadStart) / 1e9);
+        long runStart = System.nanoTime();
+        long operationsRun = driver.run(arguments.getInt("rate", 5_000), arguments.getInt("duration", 30),
+            parseMix(arguments.getString("mix", "enroll=40,grade=30,lookup=25,export=5")));
+        double elapsedSeconds = (System.nanoTime() - runStart) / 1e9;
+        AsyncLogger.getInstance().flush();
+        System.out.printf("Ran %,d operations.%n", operationsRun);
+        driver.printReport(System.out, elapsedSeconds);
+    }
+}
@@ -0,0 +1,142 @@
+package edu.ccrm.tools;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.service.CourseGradeStatistics;
+import edu.ccrm.shard.ShardRouter;
+import edu.ccrm.util.AsyncLogger;
+import edu.ccrm.util.LogLevel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Drives a sharded deployment through a ShardRouter: loads the usual CSV files into it, then runs
+ * whichever queries were asked for, and prints how the data ended up spread over the shards.
+ * Every step is timed, so it doubles as a quick scaling check with several ShardNode JVMs on one host.
+ *
+ * Usage: {@code java -cp target/classes edu.ccrm.tools.ShardAdmin --shards localhost:7101,localhost:7102
+ * --courses data/generated/courses.csv --students data/generated/students.csv
+ * --enrollments data/generated/enrollments.csv --marks data/generated/marks.csv --rank 10 --export sharded-students.csv}
+ */
+public class ShardAdmin {
+    public static void main(String[] args) throws IOException {
+        ToolArguments arguments = new ToolArguments(args);
+        if (!arguments.has("shards")) {
+            System.err.println("Usage: ShardAdmin --shards host:port,host:port,... [--courses file] [--students file]"
+                + " [--enrollments file] [--marks file] [--student regNo] [--list-students] [--list-courses department] [--course-statistics code] [--rank n] [--export file]");
+            System.exit(2);
+        }
+        AsyncLogger.getInstance().setLevel(LogLevel.WARN);
+        try (ShardRouter router = new ShardRouter(ShardRouter.parseAddresses(arguments.getString("shards", null)))) {
+            if (arguments.has("courses")) {
+                long start = System.nanoTime();
+                List<Course> courses = new ArrayList<>();
+                try (Stream<String> lines = Files.lines(Paths.get(arguments.getString("courses", null)))) {
+                    for (String line : (Iterable<String>) lines::iterator) {
+                        Course course = ImportExportService.parseCourseRow(line);
+                        if (course != null) courses.add(course);
+                    }
+                }
+                router.addCourses(courses);
+                printElapsed("Loaded " + courses.size() + " courses", start);
+            }
+            if (arguments.has("students")) {
+                long start = System.nanoTime();
+                List<Student> students = new ArrayList<>();
+                try (Stream<String> lines = Files.lines(Paths.get(arguments.getString("students", null)))) {
+                    for (String line : (Iterable<String>) lines::iterator) {
+                        Student student = ImportExportService.parseStudentRow(line);
+                        if (student != null) students.add(student);
+                    }
+                }
+                router.addStudents(students);
+                printElapsed("Loaded " + students.size() + " students", start);
+            }
+            if (arguments.has("enrollments")) {
+                long start = System.nanoTime();
+                long enrolled = applyInParallel(arguments.getString("enrollments", null), 2,
+                    fields -> router.enroll(fields[0], fields[1]));
+                printElapsed("Made " + enrolled + " enrollments", start);
+            }
+            if (arguments.has("marks")) {
+                long start = System.nanoTime();
+                long graded = applyInParallel(arguments.getString("marks", null), 3,
+                    fields -> router.assignMarks(fields[0], fields[1], Integer.parseInt(fields[2])) != null);
+                printElapsed("Assigned " + graded + " marks", start);
+            }
+            if (arguments.has("student")) {
+                Student student = router.getStudent(arguments.getString("student", null));
+                System.out.println(student == null ? "No such student." : student.getProfile());
+            }
+            if (arguments.has("list-students")) {
+                long start = System.nanoTime();
+                long listed = router.forEachStudent(System.out::println);
+                printElapsed("Listed " + listed + " students", start);
+            }
+            if (arguments.has("list-courses")) {
+                String department = arguments.getString("list-courses", "true");
+                long start = System.nanoTime();
+                List<Course> courses = router.listCourses("true".equals(department) ? null : department);
+                courses.forEach(System.out::println);
+                printElapsed("Listed " + courses.size() + " courses", start);
+            }
+            if (arguments.has("course-statistics")) {
+                CourseGradeStatistics statistics = router.getCourseStatistics(arguments.getString("course-statistics", null));
+                System.out.println(statistics == null ? "Nobody has been graded in that course yet." : statistics);
+            }
+            if (arguments.has("rank")) {
+                long start = System.nanoTime();
+                List<ShardRouter.RankedStudent> ranking = router.rankByGPA(arguments.getInt("rank", 10));
+                int position = 1;
+                for (ShardRouter.RankedStudent student : ranking) System.out.printf("%2d. %s%n", position++, student);
+                printElapsed("Ranked the top " + ranking.size() + " students", start);
+            }
+            if (arguments.has("export")) {
+                long start = System.nanoTime();
+                Path file = Paths.get(arguments.getString("export", null));
+                long exported = router.exportStudents(file);
+                printElapsed("Exported " + exported + " students to " + file, start);
+            }
+            router.describeShards().forEach(System.out::println);
+        } finally {
+            AsyncLogger.getInstance().flush();
+        }
+    }
+
+    // Something to do with one CSV row; returns whether it took effect.
+    private interface RowAction {
+        boolean apply(String[] fields) throws IOException;
+    }
+
+    // The router is thread-safe, so row-by-row files (enrollments, marks) go through it from several threads at once.
+    private static long applyInParallel(String file, int minimumFields, RowAction action) throws IOException {
+        AtomicLong applied = new AtomicLong();
+        try (Stream<String> lines = Files.lines(Paths.get(file))) {
+            lines.parallel().forEach(line -> {
+                String[] fields = line.strip().split(",");
+                if (fields.length < minimumFields) return;
+                try {
+                    if (action.apply(fields)) applied.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return applied.get();
+    }
+
+    private static void printElapsed(String what, long startNanos) {
+        System.out.printf("%s in %.2f s.%n", what, (System.nanoTime() - startNanos) / 1e9);
+    }
+}
@@ -0,0 +1,33 @@
+package edu.ccrm.tools;
+
+import edu.ccrm.shard.ShardServer;
+import edu.ccrm.util.AsyncLogger;
+import edu.ccrm.util.LogLevel;
+
+import java.io.IOException;
+
+/**
+ * Runs one partition of a sharded deployment in this JVM, until it's stopped (Ctrl+C).
+ * Start one per partition, each on its own port, then point a ShardRouter (or ShardAdmin) at all of them.
+ *
+ * Usage: {@code java -Xmx2g -cp target/classes edu.ccrm.tools.ShardNode --partition 0 --partitions 4 --port 7101}
+ * (add {@code --bind-all} to accept routers from other hosts, not just this one).
+ */
+public class ShardNode {
+    public static void main(String[] args) throws IOException {
+        ToolArguments arguments = new ToolArguments(args);
+        int partition = arguments.getInt("partition", 0);
+        int partitionCount = arguments.getInt("partitions", 1);
+        // Per-record service messages are just noise at this scale; only warnings and errors get through.
+        AsyncLogger.getInstance().setLevel(LogLevel.WARN);
+        AsyncLogger.getInstance().setOverflowPolicy(AsyncLogger.OverflowPolicy.DROP);
+
+        ShardServer server = new ShardServer(partition, partitionCount);
+        server.start(arguments.getInt("port", 7101 + partition), arguments.has("bind-all"));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            AsyncLogger.getInstance().flush();
+        }, "ccrm-shard-shutdown"));
+        System.out.printf("Partition %d of %d is listening on port %d.%n", partition, partitionCount, server.getPort());
+    }
+}
@@ -0,0 +1,44 @@
+package edu.ccrm.tools;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A tiny "--name value" command-line parser shared by the command-line tools.
+ */
+class ToolArguments {
+    private final Map<String, String> values = new HashMap<>();
+
+    ToolArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            // A flag with no value (or followed by another flag) is just "true".
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                values.put(name, args[++i]);
+            } else {
+                values.put(name, "true");
+            }
+        }
+    }
+
+    String getString(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Long.parseLong(value.replace("_", ""));
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+}
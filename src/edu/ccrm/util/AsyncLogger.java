@@ -0,0 +1,315 @@
+package edu.ccrm.util;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous, structured logger for the service layer. Callers only pay for a level check
+ * and an enqueue into a bounded ring buffer; a single background thread does the formatting and
+ * the actual console I/O. Each event carries a component, a message and optional key/value fields:
+ * <pre>
+ * LOG.info("Student added", "registrationNumber", "24MIP10001", "name", "Ayaan Singh");
+ * </pre>
+ * comes out as {@code 2025-01-01T10:00:00.000 INFO  StudentService - Student added registrationNumber=24MIP10001 name=Ayaan Singh}.
+ * When the buffer is full, the overflow policy decides whether callers wait (BLOCK, the default,
+ * so interactive messages are never lost) or the event is dropped and counted (DROP, for bulk jobs).
+ * Like AppConfig, there's a single shared instance.
+ * <p>
+ * A bulk job that wants less noise opens a {@link QuietScope} instead of touching the global level,
+ * so other threads (and a config reload mid-job) are unaffected:
+ * <pre>
+ * try (AsyncLogger.QuietScope quiet = AsyncLogger.getInstance().quietScope(LogLevel.WARN, OverflowPolicy.DROP)) { ... }
+ * </pre>
+ */
+public class AsyncLogger {
+
+    /** What to do when the ring buffer is full. */
+    public enum OverflowPolicy { BLOCK, DROP }
+
+    private static final int DEFAULT_CAPACITY = 8_192;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+    private static final AsyncLogger INSTANCE = new AsyncLogger(DEFAULT_CAPACITY);
+    private static final Object[] NO_FIELDS = new Object[0];
+
+    private final BlockingQueue<LogEvent> ringBuffer;
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile LogLevel level = LogLevel.INFO;
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    // The quiet scope open on each thread, if any. It's inheritable so the worker threads of a pool
+    // created inside the scope stay quiet too. Only consulted while some scope is open, so the
+    // normal path is still a single volatile read.
+    private final InheritableThreadLocal<QuietScope> quietScopes = new InheritableThreadLocal<>();
+    private final AtomicInteger openQuietScopes = new AtomicInteger();
+
+    private AsyncLogger(int capacity) {
+        this.ringBuffer = new ArrayBlockingQueue<>(capacity);
+        Thread writer = new Thread(this::drainForever, "ccrm-async-logger");
+        writer.setDaemon(true);
+        writer.start();
+        // Make sure whatever is still buffered reaches the console when the JVM exits.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(2, TimeUnit.SECONDS), "ccrm-async-logger-flush"));
+    }
+
+    public static AsyncLogger getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a logger bound to a component name, meant for a static final field in each class.
+     * @param component The component name that appears on every line, e.g. "StudentService".
+     * @return A lightweight handle that logs through the shared instance.
+     */
+    public static Logger forComponent(String component) {
+        return new Logger(component);
+    }
+
+    public LogLevel getLevel() { return level; }
+    public void setLevel(LogLevel level) { this.level = level; }
+    public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+    public long getDroppedCount() { return droppedCount.get(); }
+
+    /**
+     * Checks whether an event at this level would be logged on the calling thread, taking any
+     * open quiet scope into account. Worth calling before building expensive log fields.
+     * @param eventLevel The level of the event.
+     * @return true if the event would be enqueued.
+     */
+    public boolean isEnabled(LogLevel eventLevel) {
+        LogLevel threshold = level;
+        if (threshold == LogLevel.OFF) return false;
+        QuietScope scope = currentQuietScope();
+        if (scope != null && scope.minimumLevel.compareTo(threshold) > 0) threshold = scope.minimumLevel;
+        return eventLevel.compareTo(threshold) >= 0 && threshold != LogLevel.OFF;
+    }
+
+    /**
+     * Raises the log level and swaps the overflow policy for the calling thread (and any threads it
+     * starts) until the scope is closed. Everyone else keeps logging as before, and the global level
+     * can still be changed by a config reload while the scope is open. Scopes can be nested.
+     * @param minimumLevel The lowest level still logged inside the scope. Never lowers the global level.
+     * @param overflowPolicy What to do if the ring buffer fills up inside the scope.
+     * @return The scope; close it in a finally block or try-with-resources.
+     */
+    public QuietScope quietScope(LogLevel minimumLevel, OverflowPolicy overflowPolicy) {
+        QuietScope scope = new QuietScope(minimumLevel, overflowPolicy, quietScopes.get());
+        quietScopes.set(scope);
+        openQuietScopes.incrementAndGet();
+        return scope;
+    }
+
+    private QuietScope currentQuietScope() {
+        if (openQuietScopes.get() == 0) return null;
+        QuietScope scope = quietScopes.get();
+        // A pool thread may have inherited a scope that has since been closed; skip past those.
+        while (scope != null && scope.closed) scope = scope.enclosing;
+        return scope;
+    }
+
+    /**
+     * Waits until every event enqueued so far has been written, or the timeout passes.
+     * The CLI calls this before showing a menu, so service messages never land in the middle of a prompt.
+     * @param timeout How long to wait at most.
+     * @param unit The unit of the timeout.
+     * @return true if everything was written in time.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = enqueuedCount.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (writtenCount.get() < target) {
+            if (System.nanoTime() > deadline) return false;
+            LockSupport.parkNanos(100_000);
+        }
+        return true;
+    }
+
+    public void flush() {
+        flush(5, TimeUnit.SECONDS);
+    }
+
+    // Callers have already checked isEnabled, so the fields array is only built for events we keep.
+    private void enqueue(LogLevel eventLevel, String component, String message, Object[] fields) {
+        LogEvent event = new LogEvent(System.currentTimeMillis(), eventLevel, component, message, fields);
+        QuietScope scope = currentQuietScope();
+        OverflowPolicy policy = scope != null ? scope.overflowPolicy : overflowPolicy;
+        if (policy == OverflowPolicy.DROP) {
+            if (ringBuffer.offer(event)) {
+                enqueuedCount.incrementAndGet();
+            } else {
+                droppedCount.incrementAndGet();
+                if (scope != null) scope.droppedCount.incrementAndGet();
+            }
+            return;
+        }
+        try {
+            // Count first, so a concurrent flush() never sees "written" get ahead of "enqueued".
+            enqueuedCount.incrementAndGet();
+            ringBuffer.put(event);
+        } catch (InterruptedException e) {
+            enqueuedCount.decrementAndGet();
+            droppedCount.incrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainForever() {
+        List<LogEvent> batch = new ArrayList<>(256);
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            try {
+                batch.add(ringBuffer.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            ringBuffer.drainTo(batch, 255);
+            for (LogEvent event : batch) {
+                line.setLength(0);
+                try {
+                    event.appendTo(line);
+                    // Looked up each time, so anything that swaps System.out/err (like the benchmarks) still works.
+                    PrintStream target = event.level.compareTo(LogLevel.WARN) >= 0 ? System.err : System.out;
+                    target.println(line);
+                } catch (RuntimeException e) {
+                    // A field whose toString() throws mustn't take the only writer thread down with it,
+                    // or BLOCK callers and flush() would wait forever. The event still counts as written.
+                    System.err.println("AsyncLogger couldn't write a " + event.level + " event from " + event.component
+                        + " (" + event.message + "): " + e);
+                }
+            }
+            writtenCount.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * A per-thread override of the level and overflow policy, opened with {@link #quietScope}.
+     * Closing it puts back whatever scope was open before on this thread.
+     */
+    public final class QuietScope implements AutoCloseable {
+        private final LogLevel minimumLevel;
+        private final OverflowPolicy overflowPolicy;
+        private final QuietScope enclosing;
+        private final AtomicLong droppedCount = new AtomicLong();
+        private volatile boolean closed;
+
+        private QuietScope(LogLevel minimumLevel, OverflowPolicy overflowPolicy, QuietScope enclosing) {
+            this.minimumLevel = minimumLevel;
+            this.overflowPolicy = overflowPolicy;
+            this.enclosing = enclosing;
+        }
+
+        /**
+         * @return How many events logged inside this scope were dropped because the buffer was full.
+         */
+        public long getDroppedCount() { return droppedCount.get(); }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            openQuietScopes.decrementAndGet();
+            if (quietScopes.get() == this) {
+                if (enclosing == null) quietScopes.remove(); else quietScopes.set(enclosing);
+            }
+        }
+    }
+
+    /**
+     * A component-bound logging handle. All the real work happens on the shared AsyncLogger.
+     * The fixed-arity methods cover up to three key/value pairs, which is nearly every call, so
+     * a disabled level costs a check and nothing is allocated. Longer calls fall back to varargs.
+     */
+    public static final class Logger {
+        private final String component;
+
+        private Logger(String component) {
+            this.component = component;
+        }
+
+        public boolean isDebugEnabled() { return INSTANCE.isEnabled(LogLevel.DEBUG); }
+        public boolean isInfoEnabled() { return INSTANCE.isEnabled(LogLevel.INFO); }
+
+        public void debug(String message) { log(LogLevel.DEBUG, message); }
+        public void debug(String message, Object k1, Object v1) { log(LogLevel.DEBUG, message, k1, v1); }
+        public void debug(String message, Object k1, Object v1, Object k2, Object v2) { log(LogLevel.DEBUG, message, k1, v1, k2, v2); }
+        public void debug(String message, Object k1, Object v1, Object k2, Object v2, Object k3, Object v3) { log(LogLevel.DEBUG, message, k1, v1, k2, v2, k3, v3); }
+        public void debug(String message, Object... fields) { log(LogLevel.DEBUG, message, fields); }
+
+        public void info(String message) { log(LogLevel.INFO, message); }
+        public void info(String message, Object k1, Object v1) { log(LogLevel.INFO, message, k1, v1); }
+        public void info(String message, Object k1, Object v1, Object k2, Object v2) { log(LogLevel.INFO, message, k1, v1, k2, v2); }
+        public void info(String message, Object k1, Object v1, Object k2, Object v2, Object k3, Object v3) { log(LogLevel.INFO, message, k1, v1, k2, v2, k3, v3); }
+        public void info(String message, Object... fields) { log(LogLevel.INFO, message, fields); }
+
+        public void warn(String message) { log(LogLevel.WARN, message); }
+        public void warn(String message, Object k1, Object v1) { log(LogLevel.WARN, message, k1, v1); }
+        public void warn(String message, Object k1, Object v1, Object k2, Object v2) { log(LogLevel.WARN, message, k1, v1, k2, v2); }
+        public void warn(String message, Object k1, Object v1, Object k2, Object v2, Object k3, Object v3) { log(LogLevel.WARN, message, k1, v1, k2, v2, k3, v3); }
+        public void warn(String message, Object... fields) { log(LogLevel.WARN, message, fields); }
+
+        public void error(String message) { log(LogLevel.ERROR, message); }
+        public void error(String message, Object k1, Object v1) { log(LogLevel.ERROR, message, k1, v1); }
+        public void error(String message, Object k1, Object v1, Object k2, Object v2) { log(LogLevel.ERROR, message, k1, v1, k2, v2); }
+        public void error(String message, Object k1, Object v1, Object k2, Object v2, Object k3, Object v3) { log(LogLevel.ERROR, message, k1, v1, k2, v2, k3, v3); }
+        public void error(String message, Object... fields) { log(LogLevel.ERROR, message, fields); }
+
+        private void log(LogLevel level, String message) {
+            if (INSTANCE.isEnabled(level)) INSTANCE.enqueue(level, component, message, NO_FIELDS);
+        }
+
+        private void log(LogLevel level, String message, Object k1, Object v1) {
+            if (INSTANCE.isEnabled(level)) INSTANCE.enqueue(level, component, message, new Object[] { k1, v1 });
+        }
+
+        private void log(LogLevel level, String message, Object k1, Object v1, Object k2, Object v2) {
+            if (INSTANCE.isEnabled(level)) INSTANCE.enqueue(level, component, message, new Object[] { k1, v1, k2, v2 });
+        }
+
+        private void log(LogLevel level, String message, Object k1, Object v1, Object k2, Object v2, Object k3, Object v3) {
+            if (INSTANCE.isEnabled(level)) INSTANCE.enqueue(level, component, message, new Object[] { k1, v1, k2, v2, k3, v3 });
+        }
+
+        private void log(LogLevel level, String message, Object[] fields) {
+            if (INSTANCE.isEnabled(level)) INSTANCE.enqueue(level, component, message, fields);
+        }
+    }
+
+    // One buffered log line. Fields are kept as raw objects and only turned into text on the writer thread.
+    private static final class LogEvent {
+        private final long timestampMillis;
+        private final LogLevel level;
+        private final String component;
+        private final String message;
+        private final Object[] fields;
+
+        private LogEvent(long timestampMillis, LogLevel level, String component, String message, Object[] fields) {
+            this.timestampMillis = timestampMillis;
+            this.level = level;
+            this.component = component;
+            this.message = message;
+            this.fields = fields;
+        }
+
+        private void appendTo(StringBuilder line) {
+            line.append(TIMESTAMP_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault())))
+                .append(' ').append(String.format("%-5s", level))
+                .append(' ').append(component).append(" - ").append(message);
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                line.append(' ').append(fields[i]).append('=').append(fields[i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package edu.ccrm.util;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks one backup as it runs: how far along it is, how it ended, and whether someone asked to cancel it.
+ * The copy workers update it, and anyone (like the CLI status view) can read it at any time.
+ */
+public class BackupProgress {
+
+    /** Where a backup is in its life. */
+    public enum State { PENDING, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final Path sourceDirectory;
+    private final Path destinationDirectory;
+    private final AtomicLong copiedFiles = new AtomicLong();
+    private final AtomicLong copiedBytes = new AtomicLong();
+    private final AtomicLong failedFiles = new AtomicLong();
+    private volatile State state = State.PENDING;
+    private volatile boolean cancelRequested;
+    private volatile long totalFiles;
+    private volatile long totalBytes;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failureMessage;
+
+    public BackupProgress(Path sourceDirectory, Path destinationDirectory) {
+        this.sourceDirectory = sourceDirectory;
+        this.destinationDirectory = destinationDirectory;
+    }
+
+    void start(long totalFiles, long totalBytes) {
+        this.totalFiles = totalFiles;
+        this.totalBytes = totalBytes;
+        this.startedAt = Instant.now();
+        this.state = State.RUNNING;
+    }
+
+    void addCopiedBytes(long byteCount) { copiedBytes.addAndGet(byteCount); }
+    void fileCopied() { copiedFiles.incrementAndGet(); }
+    void fileFailed() { failedFiles.incrementAndGet(); }
+
+    /**
+     * Records how the backup ended.
+     * @param finalState COMPLETED, FAILED or CANCELLED.
+     * @param message Why it failed, or null.
+     */
+    public void finish(State finalState, String message) {
+        if (startedAt == null) startedAt = Instant.now();
+        this.failureMessage = message;
+        this.finishedAt = Instant.now();
+        this.state = finalState;
+    }
+
+    /** Asks the copy workers to stop as soon as they finish their current chunk. */
+    public void cancel() { cancelRequested = true; }
+
+    public boolean isCancelRequested() { return cancelRequested; }
+
+    public boolean isFinished() {
+        State current = state;
+        return current == State.COMPLETED || current == State.FAILED || current == State.CANCELLED;
+    }
+
+    public State getState() { return state; }
+    public Path getSourceDirectory() { return sourceDirectory; }
+    public Path getDestinationDirectory() { return destinationDirectory; }
+    public long getTotalFiles() { return totalFiles; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getCopiedFiles() { return copiedFiles.get(); }
+    public long getCopiedBytes() { return copiedBytes.get(); }
+    public long getFailedFiles() { return failedFiles.get(); }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public String getFailureMessage() { return failureMessage; }
+
+    /** How far along the backup is, by bytes copied, from 0 to 100. */
+    public double getPercentComplete() {
+        if (state == State.COMPLETED) return 100.0;
+        long total = totalBytes;
+        return total == 0 ? 0.0 : Math.min(100.0, 100.0 * copiedBytes.get() / total);
+    }
+
+    /** How long the backup has been running (or ran for, once it's finished). */
+    public Duration getElapsed() {
+        Instant start = startedAt;
+        if (start == null) return Duration.ZERO;
+        Instant end = finishedAt;
+        return Duration.between(start, end == null ? Instant.now() : end);
+    }
+
+    /** The average copy rate so far. */
+    public double getBytesPerSecond() {
+        double seconds = getElapsed().toNanos() / 1e9;
+        return seconds <= 0 ? 0.0 : copiedBytes.get() / seconds;
+    }
+}
@@ -1,7 +1,14 @@
 package edu.ccrm.util;
 
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
 
 /**
  * A utility class for performing directory backups. It can recursively copy
@@ -9,6 +16,13 @@ import java.io.IOException;
  * This is pretty crucial for data safety, you know?
  */
 public class BackupUtility {
+    private static final AsyncLogger.Logger LOG = AsyncLogger.forComponent("BackupUtility");
+
+    // Call counts and latency histograms for each public operation, published over JMX.
+    private static final OperationMetrics BACKUP_DIRECTORY = MetricsRegistry.register("BackupUtility", "backupDirectory");
+
+    // Files are copied in chunks of this size, so throttling and cancelling both kick in mid-file.
+    private static final long COPY_CHUNK_BYTES = 256 * 1024;
 
     /**
      * Backs up the contents of a source directory to a destination directory.
@@ -18,37 +32,116 @@ public class BackupUtility {
      * @throws IOException If any I/O error occurs during the backup process.
      */
     public static void backupDirectory(Path sourcePath, Path destinationPath) throws IOException {
-        // First things first, let's make sure the source directory actually exists and is a directory.
-        if (!Files.exists(sourcePath) || !Files.isDirectory(sourcePath))
-            throw new IOException("Source not found or not a directory: " + sourcePath);
-
-        // We need to make sure our target backup directory exists. If not, we'll create it.
-        if (!Files.exists(destinationPath)) {
-            Files.createDirectories(destinationPath);
+        try {
+            backupDirectory(sourcePath, destinationPath, IoThrottle.UNLIMITED, 1, new BackupProgress(sourcePath, destinationPath));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Backup interrupted", e);
         }
+    }
 
-        // Now, let's walk through the source directory, copying everything over.
-        // This uses a stream to process each file and directory found.
-        Files.walk(sourcePath)
-            .forEach(source -> {
-                try {
-                    // Calculate the relative path of the current item from the source root.
-                    Path relativePath = sourcePath.relativize(source);
-                    // Construct the full path for the item in the destination.
-                    Path destination = destinationPath.resolve(relativePath);
+    /**
+     * Backs up a directory the way a background job should: several files at a time, within an I/O budget,
+     * reporting progress as it goes, and stopping early if the progress is cancelled.
+     * A file that can't be copied is logged and counted, and the backup carries on with the rest.
+     * If the destination is inside the source (e.g. data/backups), it's left out of the copy.
+     * @param sourcePath The path to the directory that needs to be backed up.
+     * @param destinationPath The path to the directory where the backup should be stored.
+     * @param throttle The bandwidth and files-per-second limits to stay within.
+     * @param concurrency How many files to copy at the same time.
+     * @param progress Where to report progress; also checked for cancellation.
+     * @throws IOException If the source can't be read or the destination can't be created.
+     * @throws InterruptedException If the thread is interrupted while waiting for the copy workers.
+     */
+    public static void backupDirectory(Path sourcePath, Path destinationPath, IoThrottle throttle, int concurrency,
+                                       BackupProgress progress) throws IOException, InterruptedException {
+        long startNanos = System.nanoTime();
+        ExecutorService copyWorkers = null;
+        try {
+            // First things first, let's make sure the source directory actually exists and is a directory.
+            if (!Files.exists(sourcePath) || !Files.isDirectory(sourcePath))
+                throw new IOException("Source not found or not a directory: " + sourcePath);
 
-                    // If it's a directory, we just need to make sure it exists in the destination.
+            // We need to make sure our target backup directory exists. If not, we'll create it.
+            Files.createDirectories(destinationPath);
+
+            // A quick pass over the metadata first: recreate the directories and size up the work,
+            // so progress can be reported as a percentage.
+            Path excludedPath = destinationPath.toAbsolutePath().normalize();
+            List<Path> sourceFiles = new ArrayList<>();
+            long totalBytes = 0;
+            try (Stream<Path> sourceEntries = Files.walk(sourcePath)) {
+                for (Path source : (Iterable<Path>) sourceEntries::iterator) {
+                    if (source.toAbsolutePath().normalize().startsWith(excludedPath)) continue;
                     if (Files.isDirectory(source)) {
-                        if (!Files.exists(destination))
-                            Files.createDirectories(destination);
+                        Files.createDirectories(destinationPath.resolve(sourcePath.relativize(source)));
                     } else {
-                        // If it's a file, we copy it over, replacing it if it already exists.
-                        Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+                        sourceFiles.add(source);
+                        totalBytes += Files.size(source);
                     }
-                } catch (IOException e) {
-                    // If something goes wrong during copying, we'll print an error, but try to continue.
-                    System.err.println("Oh no! Failed to copy: " + source + " - " + e.getMessage());
                 }
-            });
+            }
+            progress.start(sourceFiles.size(), totalBytes);
+
+            copyWorkers = Executors.newFixedThreadPool(Math.max(1, concurrency), copyWorkerThreads());
+            List<Future<?>> copies = new ArrayList<>(sourceFiles.size());
+            for (Path source : sourceFiles) {
+                Path destination = destinationPath.resolve(sourcePath.relativize(source));
+                copies.add(copyWorkers.submit(() -> {
+                    copyFile(source, destination, throttle, progress);
+                    return null;
+                }));
+            }
+            for (Future<?> copy : copies) {
+                try {
+                    copy.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof InterruptedException || cause instanceof CancellationException) break;
+                    throw new IOException(cause);
+                }
+            }
+        } catch (IOException e) {
+            BACKUP_DIRECTORY.recordError();
+            throw e;
+        } finally {
+            if (copyWorkers != null) copyWorkers.shutdownNow();
+            BACKUP_DIRECTORY.record(startNanos);
+        }
+    }
+
+    // Copies one file chunk by chunk, asking the throttle for budget before each chunk.
+    private static void copyFile(Path source, Path destination, IoThrottle throttle, BackupProgress progress)
+            throws InterruptedException {
+        if (progress.isCancelRequested()) throw new CancellationException();
+        throttle.acquireFile();
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination, StandardOpenOption.WRITE,
+                 StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                if (progress.isCancelRequested()) throw new CancellationException();
+                long chunk = Math.min(COPY_CHUNK_BYTES, size - position);
+                throttle.acquireBytes(chunk);
+                long copied = in.transferTo(position, chunk, out);
+                if (copied <= 0) break; // The file shrank while we were copying it.
+                position += copied;
+                progress.addCopiedBytes(copied);
+            }
+            progress.fileCopied();
+        } catch (IOException e) {
+            // If something goes wrong during copying, we'll log an error, but carry on with the other files.
+            progress.fileFailed();
+            LOG.error("Oh no! Failed to copy a file.", "source", source, "reason", e.getMessage());
+        }
+    }
+
+    private static ThreadFactory copyWorkerThreads() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-backup-copy");
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 }
@@ -0,0 +1,61 @@
+package edu.ccrm.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how fast a background job may read and write, in bytes per second and files (I/O operations)
+ * per second, so something like a backup can't starve imports and other live I/O.
+ * Callers ask for budget before doing the work and simply wait until it's available.
+ * It's shared safely between threads, so several copy workers together stay under the limits.
+ */
+public class IoThrottle {
+    /** A throttle that never waits. */
+    public static final IoThrottle UNLIMITED = new IoThrottle(0, 0);
+
+    private final RateLimiter bytes;
+    private final RateLimiter files;
+
+    /**
+     * @param bytesPerSecond The maximum bytes per second, or 0 for no limit.
+     * @param filesPerSecond The maximum files per second, or 0 for no limit.
+     */
+    public IoThrottle(long bytesPerSecond, long filesPerSecond) {
+        this.bytes = bytesPerSecond > 0 ? new RateLimiter(bytesPerSecond) : null;
+        this.files = filesPerSecond > 0 ? new RateLimiter(filesPerSecond) : null;
+    }
+
+    /**
+     * Waits until we're allowed to start on one more file.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void acquireFile() throws InterruptedException {
+        if (files != null) TimeUnit.NANOSECONDS.sleep(files.reserve(1));
+    }
+
+    /**
+     * Waits until we're allowed to move the given number of bytes.
+     * @param byteCount How many bytes are about to be copied.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void acquireBytes(long byteCount) throws InterruptedException {
+        if (bytes != null) TimeUnit.NANOSECONDS.sleep(bytes.reserve(byteCount));
+    }
+
+    // Hands out time slots: each reservation pushes the next free moment forward by units / rate,
+    // and the caller waits until its own slot starts. Idle time isn't saved up, so there are no bursts.
+    private static class RateLimiter {
+        private final double nanosPerUnit;
+        private long nextFreeNanos = System.nanoTime();
+
+        RateLimiter(long unitsPerSecond) {
+            this.nanosPerUnit = 1e9 / unitsPerSecond;
+        }
+
+        synchronized long reserve(long units) {
+            long now = System.nanoTime();
+            long start = Math.max(nextFreeNanos, now);
+            nextFreeNanos = start + (long) (units * nanosPerUnit);
+            return start - now;
+        }
+    }
+}
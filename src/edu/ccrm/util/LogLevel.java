@@ -0,0 +1,9 @@
+package edu.ccrm.util;
+
+/**
+ * Severity levels for the AsyncLogger, from chattiest to quietest.
+ * Setting the logger to OFF turns every log call into a single comparison.
+ */
+public enum LogLevel {
+    DEBUG, INFO, WARN, ERROR, OFF;
+}
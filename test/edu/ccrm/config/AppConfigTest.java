@@ -0,0 +1,64 @@
+package edu.ccrm.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppConfigTest {
+    @TempDir
+    Path directory;
+    private String originalDataDirectory;
+
+    @BeforeEach
+    void rememberDataDirectory() {
+        originalDataDirectory = AppConfig.getInstance().getApplicationDataDirectory();
+    }
+
+    @AfterEach
+    void restoreDefaults() throws IOException {
+        // AppConfig is a singleton, so put back the values other tests rely on.
+        Path configFile = directory.resolve("ccrm.properties");
+        Files.writeString(configFile, "search.max.results=20\nimport.batch.size=5000\n");
+        AppConfig.getInstance().loadConfig(new String[] { "--data.dir=" + originalDataDirectory });
+        System.clearProperty("ccrm.config");
+    }
+
+    @Test
+    void reloadPicksUpFileChangesButCommandLineStillWins() throws IOException {
+        Path configFile = directory.resolve("ccrm.properties");
+        // A stale cache.max.entries line from an older config file is simply ignored.
+        Files.writeString(configFile, "search.max.results=7\nimport.batch.size=100\ncache.max.entries=10000\n");
+        System.setProperty("ccrm.config", configFile.toString());
+        AppConfig config = AppConfig.getInstance();
+        config.loadConfig(new String[] { "--data.dir=" + directory.resolve("data"), "--import.batch.size=250" });
+
+        assertEquals(7, config.getSearchMaxResults());
+        assertEquals(250, config.getImportBatchSize());
+
+        Files.writeString(configFile, "search.max.results=9\nimport.batch.size=100\n");
+        config.reload();
+        assertEquals(9, config.getSearchMaxResults());
+        assertEquals(250, config.getImportBatchSize());
+    }
+
+    @Test
+    void invalidValuesKeepThePreviousSetting() throws IOException {
+        Path configFile = directory.resolve("ccrm.properties");
+        Files.writeString(configFile, "search.max.results=12\n");
+        System.setProperty("ccrm.config", configFile.toString());
+        AppConfig config = AppConfig.getInstance();
+        config.loadConfig(new String[] { "--data.dir=" + directory.resolve("data") });
+        assertEquals(12, config.getSearchMaxResults());
+
+        Files.writeString(configFile, "search.max.results=-3\n");
+        config.reload();
+        assertEquals(12, config.getSearchMaxResults());
+    }
+}
@@ -0,0 +1,60 @@
+package edu.ccrm.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentTest {
+
+    @Test
+    void closeTermOnlyTakesOffTheClosedCoursesCredits() {
+        Student student = new Student("p1", "R1", "Asha Rao", "asha@x.com");
+        student.enroll("CS101", 4);   // FALL
+        student.enroll("MA101", 3);   // FALL, never graded
+        student.enroll("PH201", 2);   // SPRING, stays enrolled
+        student.addTranscriptEntry("CS101", 85, Grade.A);
+
+        List<CourseHistoryEntry> closed = student.closeTerm(Semester.FALL, Map.of("CS101", 4, "MA101", 3));
+
+        assertEquals(2, closed.size());
+        assertEquals(List.of("PH201"), student.getEnrolledCourses());
+        assertEquals(2, student.getTermCredits());
+        assertTrue(student.getTranscript().get("CS101").isFinalized());
+        assertEquals(CourseHistoryEntry.Outcome.INCOMPLETE, student.getCourseHistory().get(1).getOutcome());
+        assertEquals(Grade.A, student.getCourseHistory().get(0).getGrade());
+        assertEquals(85, student.getCourseHistory().get(0).getMarks());
+        assertNull(student.getCourseHistory().get(1).getGrade());
+    }
+
+    @Test
+    void reEnrollingStartsAFreshTranscriptEntry() {
+        Student student = new Student("p1", "R1", "Asha Rao", "asha@x.com");
+        student.enroll("CS101", 4);
+        student.addTranscriptEntry("CS101", 35, Grade.F);
+        student.closeTerm(Semester.FALL, Map.of("CS101", 4));
+
+        student.enroll("CS101", 4);
+        assertNull(student.getTranscript().get("CS101"));
+        assertEquals(4, student.getTermCredits());
+        // The failed attempt is still on record.
+        assertEquals(Grade.F, student.getCourseHistory().get(0).getGrade());
+    }
+
+    @Test
+    void closingTheSameTermAgainChangesNothing() {
+        Student student = new Student("p1", "R1", "Asha Rao", "asha@x.com");
+        student.enroll("CS101", 4);
+        student.enroll("PH201", 2);
+        Map<String, Integer> fall = Map.of("CS101", 4);
+        student.closeTerm(Semester.FALL, fall);
+        StudentVersion afterFirstClose = student.getLatestVersion();
+
+        assertTrue(student.closeTerm(Semester.FALL, fall).isEmpty());
+        assertSame(afterFirstClose, student.getLatestVersion());
+        assertEquals(2, student.getTermCredits());
+        assertEquals(1, student.getCourseHistory().size());
+    }
+}
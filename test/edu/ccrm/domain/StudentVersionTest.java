@@ -0,0 +1,79 @@
+package edu.ccrm.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentVersionTest {
+    private final VersionClock clock = VersionClock.getInstance();
+
+    @Test
+    void withoutOpenSnapshotsOnlyTheLatestStateIsKept() {
+        Student student = new Student("p1", "R1", "Asha Rao", "asha@x.com");
+        student.enroll("CS101", 4);
+        student.addTranscriptEntry("CS101", 80, Grade.A);
+        student.setEmail("asha.rao@x.com");
+        assertEquals(1, chainLength(student));
+    }
+
+    @Test
+    void publishKeepsJustWhatThePinnedVersionNeeds() {
+        Student student = new Student("p1", "R1", "Asha Rao", "asha@x.com");
+        student.enroll("CS101", 4);
+        long pinned = clock.pin();
+        try {
+            for (int i = 0; i < 10; i++) student.addTranscriptEntry("CS101", 50 + i, Grade.C);
+
+            // Everything published after the pin shares one version, so each replaces the last outright:
+            // the chain is just the pinned state plus the newest one.
+            assertEquals(2, chainLength(student));
+            StudentVersion asOfPin = student.versionAt(pinned);
+            assertTrue(asOfPin.getTranscript().isEmpty());
+            assertEquals(4, asOfPin.getTermCredits());
+            assertEquals(59, student.getTranscript().get("CS101").getMarks());
+
+            // A second pin keeps the state between the two alive as well.
+            long secondPin = clock.pin();
+            try {
+                student.addTranscriptEntry("CS101", 75, Grade.B);
+                assertEquals(3, chainLength(student));
+                assertEquals(59, student.versionAt(secondPin).getTranscript().get("CS101").getMarks());
+            } finally {
+                clock.unpin(secondPin);
+            }
+        } finally {
+            clock.unpin(pinned);
+        }
+        student.setActive(false);
+        assertEquals(1, chainLength(student));
+    }
+
+    @Test
+    void studentsCreatedAfterAPinAreInvisibleToIt() {
+        long pinned = clock.pin();
+        try {
+            Student student = new Student("p2", "R2", "Ben Ito", "ben@x.com");
+            assertNull(student.versionAt(pinned));
+            assertNotNull(student.versionAt(Long.MAX_VALUE));
+        } finally {
+            clock.unpin(pinned);
+        }
+    }
+
+    @Test
+    void publishedStatesAreReadOnly() {
+        Student student = new Student("p1", "R1", "Asha Rao", "asha@x.com");
+        student.enroll("CS101", 4);
+        StudentVersion state = student.getLatestVersion();
+        assertThrows(UnsupportedOperationException.class, () -> state.getEnrolledCourses().add("MA101"));
+        assertThrows(UnsupportedOperationException.class, () -> state.getTranscript().put("MA101", null));
+        student.enroll("MA101", 3);
+        assertEquals(1, state.getEnrolledCourses().size());
+    }
+
+    private static int chainLength(Student student) {
+        int length = 0;
+        for (StudentVersion state = student.getLatestVersion(); state != null; state = state.previous) length++;
+        return length;
+    }
+}
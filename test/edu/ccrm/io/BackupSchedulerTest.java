@@ -0,0 +1,57 @@
+package edu.ccrm.io;
+
+import edu.ccrm.util.BackupProgress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackupSchedulerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void backupNowRunsInTheBackgroundAndReportsCompletion() throws Exception {
+        Path source = directory.resolve("data");
+        Files.createDirectories(source);
+        Files.writeString(source.resolve("courses.csv"), "CS101,Intro,4,I1,FALL,CSE\n");
+        BackupScheduler scheduler = new BackupScheduler(source);
+        try {
+            BackupProgress progress = scheduler.backupNow(directory.resolve("backup"));
+            assertNotNull(progress);
+            assertSame(progress, scheduler.getLatestBackup());
+
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (!progress.isFinished()) {
+                assertTrue(System.nanoTime() < deadline, "backup never finished");
+                Thread.sleep(10);
+            }
+            assertEquals(BackupProgress.State.COMPLETED, progress.getState());
+            assertEquals(1, progress.getCopiedFiles());
+            assertTrue(Files.exists(directory.resolve("backup/courses.csv")));
+            assertFalse(scheduler.cancel()); // Nothing left to cancel.
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void aMissingSourceEndsInFailedRatherThanThrowing() throws Exception {
+        BackupScheduler scheduler = new BackupScheduler(directory.resolve("missing"));
+        try {
+            BackupProgress progress = scheduler.backupNow(directory.resolve("backup"));
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (!progress.isFinished()) {
+                assertTrue(System.nanoTime() < deadline, "backup never finished");
+                Thread.sleep(10);
+            }
+            assertEquals(BackupProgress.State.FAILED, progress.getState());
+            assertNotNull(progress.getFailureMessage());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportExportRoundTripTest {
+    @TempDir
+    Path directory;
+
+    private final ImportExportService importExportService = new ImportExportService();
+
+    @Test
+    void studentsSurviveAnExportAndImport() throws IOException {
+        StudentService original = new StudentService();
+        for (int i = 0; i < 50; i++) original.addStudent(new Student("p" + i, "R" + i, "Student " + i, "s" + i + "@x.com"));
+        String file = directory.resolve("students.csv").toString();
+        importExportService.exportStudents(file, original);
+
+        StudentService reloaded = new StudentService();
+        assertEquals(50, importExportService.importStudents(file, reloaded));
+        Student student = reloaded.getStudent("R7");
+        assertEquals("p7", student.getId());
+        assertEquals("Student 7", student.getName());
+        assertEquals("s7@x.com", student.getEmail());
+    }
+
+    @Test
+    void coursesSurviveAnExportAndImport() throws IOException {
+        CourseService original = new CourseService();
+        original.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        original.addCourse(new Course("MA101", "Calculus", 3, "I2", Semester.SPRING, "MATH"));
+        String file = directory.resolve("courses.csv").toString();
+        importExportService.exportCourses(file, original);
+
+        CourseService reloaded = new CourseService();
+        assertEquals(2, importExportService.importCourses(file, reloaded));
+        Course course = reloaded.getCourse("MA101");
+        assertEquals("Calculus", course.getTitle());
+        assertEquals(3, course.getCredits());
+        assertEquals(Semester.SPRING, course.getSemester());
+        assertEquals("MATH", course.getDepartment());
+    }
+
+    @Test
+    void shortRowsAreSkipped() {
+        assertNull(ImportExportService.parseStudentRow("p1,R1,Name"));
+        assertNull(ImportExportService.parseCourseRow("CS101,Intro,4"));
+        assertThrows(IllegalArgumentException.class, () -> ImportExportService.parseCourseRow("CS101,Intro,4,I1,WINTER,CSE"));
+    }
+}
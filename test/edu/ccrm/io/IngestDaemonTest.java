@@ -0,0 +1,103 @@
+package edu.ccrm.io;
+
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestDaemonTest {
+    @TempDir
+    Path directory;
+
+    private final StudentService studentService = new StudentService();
+    private final CourseService courseService = new CourseService();
+    private IngestDaemon daemon;
+
+    @AfterEach
+    void stopDaemon() {
+        if (daemon != null) daemon.stop();
+    }
+
+    @Test
+    void importsAppendedRowsAndWaitsForHalfWrittenLines() throws Exception {
+        Path students = directory.resolve("students-feed.csv");
+        Files.writeString(students, "p1,R1,First Student,first@x.com\n");
+        daemon = new IngestDaemon(directory, studentService, courseService);
+        daemon.start();
+        waitFor(() -> studentService.getStudent("R1") != null);
+
+        // The second row arrives in two writes; nothing is imported until its newline shows up.
+        append(students, "p2,R2,Second Student,sec");
+        append(students, "ond@x.com\np3,R3,Third Student,third@x.com\n");
+        // The count is bumped once the whole change has been imported, so it's the thing to wait on.
+        waitFor(() -> daemon.getIngestedRowCount() == 3);
+        assertEquals("second@x.com", studentService.getStudent("R2").getEmail());
+        assertNotNull(studentService.getStudent("R3"));
+
+        Files.writeString(directory.resolve("courses.csv"), "CS101,Intro,4,I1,FALL,CSE\nnot,a,valid,row,XYZ,CSE\n");
+        waitFor(() -> courseService.getCourse("CS101") != null);
+        assertNull(courseService.getCourse("not"));
+    }
+
+    @Test
+    void restartResumesFromTheCheckpoint() throws Exception {
+        Path students = directory.resolve("students.csv");
+        Files.writeString(students, "p1,R1,First Student,first@x.com\n");
+        daemon = new IngestDaemon(directory, studentService, courseService);
+        daemon.start();
+        waitFor(() -> daemon.getIngestedRowCount() == 1);
+        daemon.stop();
+
+        // Appended while the daemon was down: a fresh daemon reads only this row on catch-up.
+        append(students, "p2,R2,Second Student,second@x.com\n");
+        StudentService restartedStudents = new StudentService();
+        daemon = new IngestDaemon(directory, restartedStudents, courseService);
+        daemon.start();
+        waitFor(() -> daemon.getIngestedRowCount() == 1);
+        assertNotNull(restartedStudents.getStudent("R2"));
+        assertNull(restartedStudents.getStudent("R1"));
+    }
+
+    @Test
+    void aRewrittenFileIsReadAgainFromTheStart() throws Exception {
+        Path students = directory.resolve("students.csv");
+        Files.writeString(students, "p1,R1,First Student,first@x.com\n");
+        daemon = new IngestDaemon(directory, studentService, courseService);
+        daemon.start();
+        waitFor(() -> daemon.getIngestedRowCount() == 1);
+        daemon.stop();
+
+        // Overwritten in place with a longer file, the way an export over students.csv does it.
+        // Resuming from the old offset would land part-way through the second row.
+        Files.writeString(students, "p7,R7,Seventh Student,seventh@x.com\n"
+            + "p8,R8,Eighth Student,eighth@x.com\np9,R9,Ninth Student,ninth@x.com\n");
+        StudentService restartedStudents = new StudentService();
+        daemon = new IngestDaemon(directory, restartedStudents, courseService);
+        daemon.start();
+        waitFor(() -> daemon.getIngestedRowCount() == 3);
+        assertEquals("Seventh Student", restartedStudents.getStudent("R7").getName());
+        assertEquals("eighth@x.com", restartedStudents.getStudent("R8").getEmail());
+        assertEquals("Ninth Student", restartedStudents.getStudent("R9").getName());
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardOpenOption.APPEND);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the ingest daemon");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.GradingService;
+import edu.ccrm.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarksImportTest {
+    @TempDir
+    Path directory;
+
+    private final StudentService studentService = new StudentService();
+    private final CourseService courseService = new CourseService();
+    private final EnrollmentService enrollmentService = new EnrollmentService();
+    private final GradingService gradingService = new GradingService(courseService);
+
+    @Test
+    void appliesValidRowsAndRejectsTheRest() throws IOException {
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        courseService.addCourse(new Course("MA101", "Calculus", 3, "I2", Semester.FALL, "MATH"));
+        Student enrolled = new Student("1", "R1", "A", "a@x.com");
+        Student notEnrolled = new Student("2", "R2", "B", "b@x.com");
+        studentService.addStudent(enrolled);
+        studentService.addStudent(notEnrolled);
+        enrollmentService.enrollStudentInCourse(enrolled, courseService.getCourse("CS101"));
+
+        Path marksFile = Files.write(directory.resolve("marks.csv"), Arrays.asList(
+            "R1,CS101,85",
+            "R2,CS101,70",
+            "R9,CS101,70",
+            "R1,XX999,70",
+            "R1,CS101,abc",
+            "R1,CS101,101",
+            "",
+            "R1,MA101,60,extra,\"quoted\""));
+        MarksImportReport report = new ImportExportService().importMarks(marksFile.toString(), studentService,
+            courseService, enrollmentService, gradingService);
+
+        assertEquals(1, report.getAppliedCount());
+        assertEquals(Grade.A, enrolled.getTranscript().get("CS101").getGrade());
+        assertTrue(notEnrolled.getTranscript().isEmpty());
+        assertEquals(6, report.getRejectedRows().size());
+        assertEquals(2, report.getRejectedRows().get(0).getLineNumber());
+        assertTrue(report.getRejectedRows().get(0).getReason().startsWith("student not enrolled"));
+        assertEquals(8, report.getRejectedRows().get(5).getLineNumber()); // Blank lines are skipped, not rejected.
+    }
+
+    @Test
+    void finalGradesStayPutButARetakeCanBeGraded() throws IOException {
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        Student student = new Student("1", "R1", "A", "a@x.com");
+        studentService.addStudent(student);
+        enrollmentService.enrollStudentInCourse(student, courseService.getCourse("CS101"));
+        gradingService.assignMarks(student, "CS101", 85);
+        student.closeTerm(Semester.FALL, Map.of("CS101", 4));
+        enrollmentService.clearRoster(courseService.getCourse("CS101"));
+
+        Path marksFile = Files.write(directory.resolve("marks.csv"), Arrays.asList("R1,CS101,40"));
+        MarksImportReport report = new ImportExportService().importMarks(marksFile.toString(), studentService,
+            courseService, enrollmentService, gradingService);
+        assertEquals(0, report.getAppliedCount());
+        assertEquals(85, student.getTranscript().get("CS101").getMarks());
+
+        // Retaking the course starts a new attempt, which takes the new marks; the old grade stays in the history.
+        enrollmentService.enrollStudentInCourse(student, courseService.getCourse("CS101"));
+        report = new ImportExportService().importMarks(marksFile.toString(), studentService,
+            courseService, enrollmentService, gradingService);
+        assertEquals(1, report.getAppliedCount());
+        assertEquals(40, student.getTranscript().get("CS101").getMarks());
+        assertEquals(85, student.getCourseHistory().get(0).getMarks());
+    }
+
+    @Test
+    void exceptionsReportQuotesFieldsWithCommas() throws IOException {
+        MarksImportReport report = new MarksImportReport();
+        report.recordRejected(new MarksImportReport.RejectedRow(3, "R1,CS101,\"x\"", "marks is not a number"));
+        Path reportFile = directory.resolve("exceptions.csv");
+        report.writeExceptionsReport(reportFile);
+
+        List<String> lines = Files.readAllLines(reportFile);
+        assertEquals("lineNumber,reason,originalRow", lines.get(0));
+        assertEquals("3,marks is not a number,\"R1,CS101,\"\"x\"\"\"", lines.get(1));
+        assertEquals("plain", MarksImportReport.csvField("plain"));
+    }
+}
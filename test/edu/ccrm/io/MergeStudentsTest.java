@@ -0,0 +1,70 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MergeStudentsTest {
+    @TempDir
+    Path directory;
+
+    private final StudentService studentService = new StudentService();
+    private final ImportExportService importExportService = new ImportExportService();
+
+    @Test
+    void insertsNewRowsUpdatesChangedOnesAndLeavesTheRestAlone() throws IOException {
+        studentService.addStudent(new Student("p1", "R1", "Asha Rao", "asha@x.com"));
+        studentService.addStudent(new Student("p2", "R2", "Ben Ito", "ben@x.com"));
+        Path file = directory.resolve("students.csv");
+        Files.write(file, List.of(
+            "p1,R1,Asha Rao,asha@x.com",          // unchanged
+            "p2,R2,Ben Ito,ben.ito@x.com",        // email changed
+            "p3,R3,Cara Diaz,cara@x.com",         // new
+            "p3,R3,Cara Diaz,cara@x.com",         // the same new row again further down
+            "not enough fields",
+            ""));
+
+        MergeReport report = importExportService.mergeStudents(file.toString(), studentService);
+
+        assertEquals(1, report.getInsertedCount());
+        assertEquals(1, report.getUpdatedCount());
+        assertEquals(2, report.getUnchangedCount());
+        assertEquals(1, report.getSkippedCount());
+        assertEquals("ben.ito@x.com", studentService.getStudent("R2").getEmail());
+        assertEquals("Cara Diaz", studentService.getStudent("R3").getName());
+        // Updates go through the service, so the search index follows them.
+        assertEquals(List.of("R2"), registrationNumbers(studentService.searchStudents("ben.ito", 10)));
+    }
+
+    @Test
+    void mergingTheSameFileTwiceChangesNothingTheSecondTime() throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) rows.add("p" + i + ",R" + i + ",Student " + i + ",s" + i + "@x.com");
+        Path file = directory.resolve("students.csv");
+        Files.write(file, rows);
+
+        MergeReport first = importExportService.mergeStudents(file.toString(), studentService);
+        MergeReport second = importExportService.mergeStudents(file.toString(), studentService);
+
+        assertEquals(5_000, first.getInsertedCount());
+        assertEquals(0, second.getInsertedCount());
+        assertEquals(0, second.getUpdatedCount());
+        assertEquals(5_000, second.getUnchangedCount());
+        assertEquals(5_000, studentService.studentView().size());
+    }
+
+    private static List<String> registrationNumbers(List<Student> students) {
+        List<String> numbers = new ArrayList<>();
+        for (Student student : students) numbers.add(student.getRegistrationNumber());
+        return numbers;
+    }
+}
@@ -0,0 +1,104 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.GradingService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.service.StudentSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranscriptGeneratorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void editedTemplatesReplaceTheirCacheEntry() throws IOException {
+        Path template = directory.resolve("transcript.txt");
+        Files.writeString(template, "first {{name}}{{#courses}}{{/courses}}");
+        Files.setLastModifiedTime(template, FileTime.fromMillis(1_000_000L));
+        TranscriptTemplate first = TranscriptGenerator.templateFor(TranscriptGenerator.Format.TEXT, directory);
+        int cached = TranscriptGenerator.cachedTemplateCount();
+        assertSame(first, TranscriptGenerator.templateFor(TranscriptGenerator.Format.TEXT, directory));
+
+        for (int edit = 1; edit <= 5; edit++) {
+            Files.writeString(template, "edit " + edit + " {{name}}{{#courses}}{{/courses}}");
+            Files.setLastModifiedTime(template, FileTime.fromMillis(1_000_000L + edit * 1000L));
+            TranscriptTemplate edited = TranscriptGenerator.templateFor(TranscriptGenerator.Format.TEXT, directory);
+            StringBuilder out = new StringBuilder();
+            edited.render(out, new String[] { "Ada", "R1", "e", "d", "0.00", "0" }, Collections.emptyList());
+            assertEquals("edit " + edit + " Ada", out.toString());
+        }
+        assertEquals(cached, TranscriptGenerator.cachedTemplateCount());
+    }
+
+    @Test
+    void anInvalidCustomTemplateIsReportedAsAnIOException() throws IOException {
+        Files.writeString(directory.resolve("transcript.html"), "{{nope}}{{#courses}}{{/courses}}");
+        IOException e = assertThrows(IOException.class,
+            () -> TranscriptGenerator.templateFor(TranscriptGenerator.Format.HTML, directory));
+        assertTrue(e.getMessage().contains("nope"));
+    }
+
+    @Test
+    void aWriterCarriesOnAfterARuntimeFailure() throws IOException, InterruptedException {
+        // Writing into a zip file system that has been closed throws ClosedFileSystemException, a RuntimeException.
+        Path zip = directory.resolve("closed.zip");
+        FileSystem zipFileSystem = FileSystems.newFileSystem(URI.create("jar:" + zip.toUri()), Map.of("create", "true"));
+        Path unwritable = zipFileSystem.getPath("R1.txt");
+        zipFileSystem.close();
+
+        BlockingQueue<TranscriptGenerator.RenderedTranscript> queue = new LinkedBlockingQueue<>();
+        queue.put(new TranscriptGenerator.RenderedTranscript(unwritable, "lost"));
+        queue.put(new TranscriptGenerator.RenderedTranscript(directory.resolve("R2.txt"), "kept"));
+        queue.put(TranscriptGenerator.END_OF_BATCH);
+        TranscriptBatchReport report = new TranscriptBatchReport(directory);
+        TranscriptGenerator.drainWriteQueue(queue, report);
+
+        assertEquals(1, report.getFailedCount());
+        assertEquals(1, report.getWrittenCount());
+        assertEquals("kept", Files.readString(directory.resolve("R2.txt")));
+    }
+
+    @Test
+    void writesOneTranscriptPerMatchingStudent() throws IOException {
+        CourseService courses = new CourseService();
+        courses.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        GradingService grading = new GradingService(courses);
+        StudentService students = new StudentService();
+        Student ada = new Student("p1", "R/1", "Ada", "ada@x.com");
+        students.addStudent(ada);
+        students.addStudent(new Student("p2", "R2", "Bob", "bob@x.com"));
+        grading.recordGrade(ada, "CS101", 91, Grade.S);
+
+        Path output = directory.resolve("out");
+        TranscriptBatchReport report;
+        try (StudentSnapshot snapshot = students.openSnapshot()) {
+            report = new TranscriptGenerator(courses, grading).generateTranscripts(snapshot,
+                student -> student.getName().equals("Ada"), output, TranscriptGenerator.Format.TEXT);
+        }
+
+        assertEquals(1, report.getWrittenCount());
+        assertEquals(0, report.getFailedCount());
+        String transcript = Files.readString(output.resolve("R_1.txt"));
+        assertTrue(transcript.contains("CS101 | Intro | 4 | 91 | S | Graded"), transcript);
+        assertFalse(Files.exists(output.resolve("R2.txt")));
+    }
+}
@@ -0,0 +1,49 @@
+package edu.ccrm.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranscriptTemplateTest {
+    private static final String[] STUDENT = { "Ada <Lovelace>", "R1", "ada@x.com", "2026-01-01", "3.50", "7" };
+
+    @Test
+    void fillsPlaceholdersAndRepeatsTheCourseRows() {
+        TranscriptTemplate template = TranscriptTemplate.compile(
+            "{{registrationNumber}}: {{ name }}\n{{#courses}}{{courseCode}}={{grade}};{{/courses}}\nGPA {{gpa}}", false);
+        StringBuilder out = new StringBuilder();
+        template.render(out, STUDENT, Arrays.asList(
+            new String[] { "CS101", "Intro", "4", "91", "S", "Final" },
+            new String[] { "MA101", "Calculus", "3", "-", "-", "In Progress" }));
+        assertEquals("R1: Ada <Lovelace>\nCS101=S;MA101=-;\nGPA 3.50", out.toString());
+    }
+
+    @Test
+    void htmlTemplatesEscapeValuesButNotTheTemplateItself() {
+        TranscriptTemplate template = TranscriptTemplate.compile("<b>{{name}}</b>{{#courses}}<i>{{title}}</i>{{/courses}}", true);
+        StringBuilder out = new StringBuilder();
+        template.render(out, STUDENT, Collections.singletonList(new String[] { "CS101", "R&D \"Lab\"", "4", "91", "S", "Final" }));
+        assertEquals("<b>Ada &lt;Lovelace&gt;</b><i>R&amp;D &quot;Lab&quot;</i>", out.toString());
+    }
+
+    @Test
+    void noCoursesStillRendersTheRest() {
+        TranscriptTemplate template = TranscriptTemplate.compile("{{name}}|{{#courses}}x{{/courses}}|{{creditsEarned}}", false);
+        StringBuilder out = new StringBuilder();
+        template.render(out, STUDENT, Collections.emptyList());
+        assertEquals("Ada <Lovelace>||7", out.toString());
+    }
+
+    @Test
+    void badTemplatesAreRejectedWhenCompiled() {
+        assertThrows(IllegalArgumentException.class, () -> TranscriptTemplate.compile("{{name}} with no rows", false));
+        assertThrows(IllegalArgumentException.class, () -> TranscriptTemplate.compile("{{nmae}}{{#courses}}{{/courses}}", false));
+        // Course fields only make sense inside the rows, and student fields only outside them.
+        assertThrows(IllegalArgumentException.class, () -> TranscriptTemplate.compile("{{grade}}{{#courses}}{{/courses}}", false));
+        assertThrows(IllegalArgumentException.class, () -> TranscriptTemplate.compile("{{#courses}}{{name}}{{/courses}}", false));
+        assertThrows(IllegalArgumentException.class, () -> TranscriptTemplate.compile("{{name{{#courses}}{{/courses}}", false));
+    }
+}
@@ -0,0 +1,60 @@
+package edu.ccrm.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesStayWithinTheBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) histogram.record(value * 1_000);
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        assertEquals(50_000_500.0, histogram.getMean(), 1e-3);
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 * 0.016);
+        assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 * 0.016);
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void negativeValuesCountAsZeroAndResetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(63);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(63, histogram.getMax());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0.0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void concurrentRecordersLoseNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final long base = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) histogram.record(base * 1_000 + i % 1_000);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(7_999, histogram.getMax());
+        // Each thread's values average base * 1000 + 499.5, and the bases average 3.5.
+        assertEquals(3_999.5, histogram.getMean(), 1e-9);
+    }
+}
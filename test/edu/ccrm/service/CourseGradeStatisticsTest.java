@@ -0,0 +1,116 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseGradeStatisticsTest {
+
+    @Test
+    void aggregatesMatchAFullRecomputation() {
+        CourseGradeStatistics statistics = new CourseGradeStatistics("CS101");
+        int[] marks = { 40, 55, 55, 70, 90 };
+        for (int mark : marks) statistics.add(mark, GradingService.calculateGrade(mark));
+
+        assertEquals(5, statistics.getCount());
+        assertEquals(62.0, statistics.getMean(), 1e-9);
+        // Population standard deviation of the marks above.
+        double sumOfSquaredDeviations = 0;
+        for (int mark : marks) sumOfSquaredDeviations += (mark - 62.0) * (mark - 62.0);
+        assertEquals(Math.sqrt(sumOfSquaredDeviations / 5), statistics.getStandardDeviation(), 1e-9);
+        assertEquals(55, statistics.getMedian());
+        assertEquals(40, statistics.getPercentile(0));
+        assertEquals(90, statistics.getPercentile(100));
+        assertEquals(2, statistics.getGradeCount(GradingService.calculateGrade(55)));
+    }
+
+    @Test
+    void countersFromSeveralSourcesAddUp() {
+        CourseGradeStatistics first = new CourseGradeStatistics("CS101");
+        CourseGradeStatistics second = new CourseGradeStatistics("CS101");
+        first.add(40, Grade.E);
+        first.add(90, Grade.S);
+        second.add(70, Grade.B);
+        long[] totals = first.getCounters();
+        long[] secondCounters = second.getCounters();
+        for (int i = 0; i < totals.length; i++) totals[i] += secondCounters[i];
+
+        CourseGradeStatistics combined = CourseGradeStatistics.fromCounters("CS101", totals);
+        assertEquals(3, combined.getCount());
+        assertEquals(200.0 / 3, combined.getMean(), 1e-9);
+        assertEquals(70, combined.getMedian());
+        assertEquals(1, combined.getGradeCount(Grade.B));
+        assertThrows(IllegalArgumentException.class, () -> CourseGradeStatistics.fromCounters("CS101", new long[3]));
+    }
+
+    @Test
+    void removeUndoesAdd() {
+        CourseGradeStatistics statistics = new CourseGradeStatistics("CS101");
+        statistics.add(80, Grade.A);
+        statistics.add(30, Grade.F);
+        statistics.remove(30, Grade.F);
+        assertEquals(1, statistics.getCount());
+        assertEquals(80.0, statistics.getMean(), 1e-9);
+        assertEquals(0.0, statistics.getStandardDeviation(), 1e-9);
+        assertEquals(0, statistics.getGradeCount(Grade.F));
+
+        statistics.remove(80, Grade.A);
+        assertEquals(0, statistics.getCount());
+        assertEquals(0.0, statistics.getMean());
+        assertEquals(0, statistics.getMedian());
+    }
+
+    @Test
+    void regradingAStudentReplacesTheirOldMarks() {
+        GradingService gradingService = new GradingService();
+        Student first = new Student("1", "R1", "A", "a@x.com");
+        Student second = new Student("2", "R2", "B", "b@x.com");
+        gradingService.assignMarks(first, "CS101", 50);
+        gradingService.assignMarks(second, "CS101", 70);
+        gradingService.assignMarks(first, "CS101", 90);
+
+        CourseGradeStatistics statistics = gradingService.getCourseStatistics("CS101");
+        assertEquals(2, statistics.getCount());
+        assertEquals(80.0, statistics.getMean(), 1e-9);
+        assertEquals(0, statistics.getGradeCount(GradingService.calculateGrade(50)));
+        assertNull(gradingService.getCourseStatistics("MA101"));
+    }
+
+    @Test
+    void concurrentGradesForOneCourseAreAllCounted() throws InterruptedException {
+        GradingService gradingService = new GradingService();
+        int threadCount = 4;
+        int studentsPerThread = 500;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < studentsPerThread; i++) {
+                    String id = thread + "-" + i;
+                    gradingService.assignMarks(new Student(id, "R" + id, "S", "s@x.com"), "CS101", 60 + thread * 10);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        CourseGradeStatistics statistics = gradingService.getCourseStatistics("CS101");
+        assertEquals(threadCount * studentsPerThread, statistics.getCount());
+        assertEquals(75.0, statistics.getMean(), 1e-9);
+        assertEquals(60, statistics.getPercentile(0));
+        assertEquals(90, statistics.getPercentile(100));
+    }
+}
@@ -0,0 +1,90 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrollmentServiceTest {
+
+    @Test
+    void rosterFollowsEnrollAndUnenrollAndNotifiesListeners() {
+        EnrollmentService enrollmentService = new EnrollmentService();
+        AtomicInteger enrolledCount = new AtomicInteger();
+        enrollmentService.addListener((courseCode, delta) -> enrolledCount.addAndGet(delta));
+        Course course = new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE");
+        Student first = new Student("p1", "R1", "First", "first@x.com");
+        Student second = new Student("p2", "R2", "Second", "second@x.com");
+
+        enrollmentService.enrollStudentInCourse(first, course);
+        enrollmentService.enrollStudentInCourse(second, course);
+        enrollmentService.enrollStudentInCourse(second, course); // Already enrolled, so no second notification.
+        assertEquals(2, enrolledCount.get());
+        assertEquals(2, enrollmentService.getRoster("CS101").size());
+
+        enrollmentService.unenrollStudentFromCourse(first, course);
+        assertEquals(1, enrolledCount.get());
+        assertFalse(enrollmentService.getRoster("CS101").contains("R1"));
+
+        enrollmentService.clearRoster(course);
+        assertEquals(0, enrolledCount.get());
+        assertTrue(enrollmentService.getRoster("CS101").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> enrollmentService.getRoster("MA101").add("R9"));
+    }
+
+    @Test
+    void concurrentEnrollmentsWhileReadingLoseNothing() throws InterruptedException {
+        EnrollmentService enrollmentService = new EnrollmentService();
+        AtomicInteger enrolledCount = new AtomicInteger();
+        enrollmentService.addListener((courseCode, delta) -> enrolledCount.addAndGet(delta));
+        List<Course> courses = new ArrayList<>();
+        for (int c = 0; c < 4; c++) courses.add(new Course("C" + c, "Course " + c, 3, "I1", Semester.FALL, "CSE"));
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean readerFailed = new AtomicBoolean();
+        // Plays the part of the ingest daemon or a course listener reading rosters mid-import.
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                try {
+                    for (Course course : courses) {
+                        for (String registrationNumber : enrollmentService.getRoster(course.getCourseCode())) {
+                            if (registrationNumber == null) readerFailed.set(true);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    readerFailed.set(true);
+                }
+            }
+        });
+        reader.start();
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            final int writer = w;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    Student student = new Student("p" + writer + "-" + i, "R" + writer + "-" + i, "Student", "s@x.com");
+                    enrollmentService.enrollStudentInCourse(student, courses.get(i % courses.size()));
+                }
+            });
+            writers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : writers) thread.join();
+        done.set(true);
+        reader.join();
+
+        assertFalse(readerFailed.get());
+        int total = 0;
+        for (Course course : courses) total += enrollmentService.getRoster(course.getCourseCode()).size();
+        assertEquals(8_000, total);
+        assertEquals(8_000, enrolledCount.get());
+    }
+}
@@ -0,0 +1,113 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingSchemeTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void defaultSchemeCutOffs() {
+        assertEquals(Grade.S, GradingService.calculateGrade(100));
+        assertEquals(Grade.S, GradingService.calculateGrade(90));
+        assertEquals(Grade.A, GradingService.calculateGrade(89));
+        assertEquals(Grade.E, GradingService.calculateGrade(40));
+        assertEquals(Grade.F, GradingService.calculateGrade(39));
+        assertEquals(Grade.F, GradingService.calculateGrade(-5));
+        assertEquals(Grade.S, GradingService.calculateGrade(150));
+    }
+
+    @Test
+    void parseRejectsMalformedDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> GradingScheme.parse("bad", "A80"));
+        assertThrows(IllegalArgumentException.class, () -> GradingScheme.parse("bad", "A:eighty"));
+        assertThrows(IllegalArgumentException.class, () -> GradingScheme.parse("bad", "Q:80"));
+        assertEquals(Grade.F, GradingScheme.parse("empty", "").gradeFor(100));
+    }
+
+    @Test
+    void mostSpecificAssignmentWins() throws IOException {
+        Path file = Files.write(directory.resolve("grading.properties"), Arrays.asList(
+            "scheme.strict=S:95,A:85,B:75,C:65,D:55,E:45",
+            "scheme.lenient=S:85,A:75,B:65,C:55,D:45,E:35",
+            "use.CSE=strict",
+            "use.CSE.FALL=lenient",
+            "use.SUMMER=lenient"));
+        GradingSchemeRegistry registry = GradingSchemeRegistry.load(file);
+
+        assertEquals("lenient", registry.schemeFor("cse", Semester.FALL).getName());
+        assertEquals("strict", registry.schemeFor("CSE", Semester.SPRING).getName());
+        assertEquals("strict", registry.schemeFor("CSE", Semester.SUMMER).getName());
+        assertEquals("lenient", registry.schemeFor("MATH", Semester.SUMMER).getName());
+        assertEquals("default", registry.schemeFor("MATH", Semester.SPRING).getName());
+        assertEquals("default", registry.schemeFor(null, null).getName());
+    }
+
+    @Test
+    void missingFileMeansDefaultEverywhereAndUnknownSchemesAreRejected() throws IOException {
+        GradingSchemeRegistry registry = GradingSchemeRegistry.load(directory.resolve("missing.properties"));
+        assertSame(GradingScheme.DEFAULT, registry.schemeFor("CSE", Semester.FALL));
+        assertThrows(IllegalArgumentException.class, () -> registry.assign("CSE", null, "nope"));
+    }
+
+    @Test
+    void gradingServiceUsesTheCoursesScheme() {
+        CourseService courseService = new CourseService();
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        GradingService gradingService = new GradingService(courseService);
+        GradingSchemeRegistry registry = new GradingSchemeRegistry();
+        registry.register(GradingScheme.parse("strict", "S:95,A:85,B:75,C:65,D:55,E:45"));
+        registry.assign("CSE", null, "strict");
+        gradingService.setGradingSchemes(registry);
+
+        assertEquals(Grade.A, gradingService.gradeFor("CS101", 90));
+        assertEquals(Grade.S, gradingService.gradeFor("UNKNOWN", 90));
+    }
+
+    @Test
+    void regradeLeavesMarksAssignedMeanwhileAlone() {
+        CourseService courseService = new CourseService();
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        GradingService gradingService = new GradingService(courseService);
+        Student regraded = new Student("1", "R1", "A", "a@x.com");
+        Student changedMeanwhile = new Student("2", "R2", "B", "b@x.com");
+        gradingService.assignMarks(regraded, "CS101", 92);
+        gradingService.assignMarks(changedMeanwhile, "CS101", 92);
+
+        // The new scale's lookup stands in for a grader who assigns new marks while the re-grade is working.
+        AtomicBoolean assigned = new AtomicBoolean();
+        GradingSchemeRegistry registry = new GradingSchemeRegistry() {
+            @Override
+            public GradingScheme schemeFor(String department, Semester semester) {
+                if (assigned.compareAndSet(false, true)) gradingService.assignMarks(changedMeanwhile, "CS101", 95);
+                return GradingScheme.parse("strict", "S:95,A:85,B:75,C:65,D:55,E:45");
+            }
+        };
+        gradingService.setGradingSchemes(registry);
+
+        // 92 was an S and would be an A on the new scale, but the entry that re-grade read is gone by the time it writes.
+        assertEquals(0, gradingService.regradeAll(List.of(changedMeanwhile)));
+        assertEquals(95, changedMeanwhile.getTranscript().get("CS101").getMarks());
+        assertEquals(Grade.S, changedMeanwhile.getTranscript().get("CS101").getGrade());
+
+        assertEquals(1, gradingService.regradeAll(List.of(regraded, changedMeanwhile)));
+        assertEquals(Grade.A, regraded.getTranscript().get("CS101").getGrade());
+        assertEquals(95, changedMeanwhile.getTranscript().get("CS101").getMarks());
+        assertEquals(2, gradingService.getCourseStatistics("CS101").getCount());
+        assertEquals(93.5, gradingService.getCourseStatistics("CS101").getMean(), 1e-9);
+    }
+}
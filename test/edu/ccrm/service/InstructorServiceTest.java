@@ -0,0 +1,113 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstructorServiceTest {
+    private final CourseService courseService = new CourseService();
+    private final EnrollmentService enrollmentService = new EnrollmentService();
+    private final InstructorService instructorService = new InstructorService(courseService, enrollmentService);
+
+    private Student enroll(String registrationNumber, String courseCode) {
+        Student student = new Student("p-" + registrationNumber, registrationNumber, "Student", "s@x.com");
+        enrollmentService.enrollStudentInCourse(student, courseService.getCourse(courseCode));
+        return student;
+    }
+
+    @Test
+    void loadsFollowCoursesEnrollmentsAndReassignments() {
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        courseService.addCourse(new Course("CS201", "Algorithms", 3, "I1", Semester.FALL, "CSE"));
+        courseService.addCourse(new Course("MA101", "Calculus", 3, "I2", Semester.SPRING, "MATH"));
+        Student first = enroll("R1", "CS101");
+        enroll("R2", "CS101");
+        enroll("R3", "CS201");
+
+        TeachingLoad load = instructorService.getTeachingLoad("I1", Semester.FALL);
+        assertEquals(2, load.getCourseCount());
+        assertEquals(7, load.getTotalCredits());
+        assertEquals(3, load.getEnrolledStudents());
+
+        enrollmentService.unenrollStudentFromCourse(first, courseService.getCourse("CS101"));
+        assertEquals(2, load.getEnrolledStudents());
+
+        // Moving CS101 takes its credits and its one remaining student along with it.
+        assertTrue(courseService.assignInstructor("CS101", "I3"));
+        assertEquals(1, load.getCourseCount());
+        assertEquals(3, load.getTotalCredits());
+        assertEquals(1, load.getEnrolledStudents());
+        TeachingLoad moved = instructorService.getTeachingLoad("I3", Semester.FALL);
+        assertEquals(4, moved.getTotalCredits());
+        assertEquals(1, moved.getEnrolledStudents());
+
+        enrollmentService.clearRoster(courseService.getCourse("CS101"));
+        assertEquals(0, moved.getEnrolledStudents());
+        assertNull(instructorService.getTeachingLoad("I2", Semester.FALL));
+        assertEquals(List.of("I1", "I2", "I3"), instructorService.findUnregisteredInstructorIds());
+    }
+
+    @Test
+    void theCourseSetterKeepsTheIndexInSyncToo() {
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        enroll("R1", "CS101");
+
+        courseService.getCourse("CS101").setInstructorId("I2");
+
+        assertEquals(0, instructorService.getTeachingLoad("I1", Semester.FALL).getCourseCount());
+        assertEquals(1, instructorService.getTeachingLoad("I2", Semester.FALL).getEnrolledStudents());
+        assertTrue(instructorService.getCoursesTaughtBy("I1").isEmpty());
+        assertEquals("CS101", instructorService.getCoursesTaughtBy("I2").get(0).getCourseCode());
+    }
+
+    @Test
+    void creditAndSemesterChangesMoveTheLoadAlong() {
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        enroll("R1", "CS101");
+        Course course = courseService.getCourse("CS101");
+
+        course.setCredits(3);
+        TeachingLoad fall = instructorService.getTeachingLoad("I1", Semester.FALL);
+        assertEquals(1, fall.getCourseCount());
+        assertEquals(3, fall.getTotalCredits());
+
+        course.setSemester(Semester.SPRING);
+        assertEquals(0, fall.getCourseCount());
+        assertEquals(0, fall.getTotalCredits());
+        assertEquals(0, fall.getEnrolledStudents());
+        TeachingLoad spring = instructorService.getTeachingLoad("I1", Semester.SPRING);
+        assertEquals(1, spring.getCourseCount());
+        assertEquals(3, spring.getTotalCredits());
+        assertEquals(1, spring.getEnrolledStudents());
+        assertEquals("CS101", instructorService.getCoursesTaughtBy("I1").get(0).getCourseCode());
+    }
+
+    @Test
+    void enrollmentsRacingReassignmentsAreCountedOnce() throws InterruptedException {
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < 3; w++) {
+            final int writer = w;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) enroll("R" + writer + "-" + i, "CS101");
+            }));
+        }
+        threads.add(new Thread(() -> {
+            for (int i = 0; i < 2_000; i++) courseService.assignInstructor("CS101", i % 2 == 0 ? "I2" : "I1");
+        }));
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        TeachingLoad current = instructorService.getTeachingLoad("I1", Semester.FALL);
+        TeachingLoad other = instructorService.getTeachingLoad("I2", Semester.FALL);
+        assertEquals(6_000, current.getEnrolledStudents());
+        assertEquals(0, other.getEnrolledStudents());
+        assertEquals(0, other.getCourseCount());
+    }
+}
@@ -0,0 +1,105 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryServiceTest {
+    private final StudentService studentService = new StudentService();
+    private final CourseService courseService = new CourseService();
+    private final EnrollmentService enrollmentService = new EnrollmentService();
+    private final QueryService queryService = new QueryService(studentService, courseService, enrollmentService);
+
+    @BeforeEach
+    void populate() {
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        courseService.addCourse(new Course("MA101", "Calculus", 3, "I2", Semester.SPRING, "MATH"));
+        courseService.addCourse(new Course("CS201", "Algorithms", 4, "I1", Semester.SPRING, "CSE"));
+        for (int i = 0; i < 25; i++) {
+            Student student = new Student("p" + i, String.format("R%02d", i), "Student " + (char) ('Y' - i), "s" + i + "@x.com");
+            studentService.addStudent(student);
+            enrollmentService.enrollStudentInCourse(student, courseService.getCourse(i % 2 == 0 ? "CS101" : "MA101"));
+            if (i % 5 == 0) student.setActive(false);
+        }
+    }
+
+    private static List<String> registrationNumbers(List<Student> students) {
+        return students.stream().map(Student::getRegistrationNumber).collect(Collectors.toList());
+    }
+
+    @Test
+    void sortedPagesDontOverlapAndCoverEverything() {
+        StudentQuery query = StudentQuery.create().sortBy(StudentQuery.SortKey.REGISTRATION_NUMBER).limit(10);
+        assertEquals(List.of("R00", "R01", "R02", "R03", "R04", "R05", "R06", "R07", "R08", "R09"),
+            registrationNumbers(queryService.findStudents(query.page(0))));
+        assertEquals("R10", queryService.findStudents(query.page(1)).get(0).getRegistrationNumber());
+        assertEquals(List.of("R20", "R21", "R22", "R23", "R24"), registrationNumbers(queryService.findStudents(query.page(2))));
+        assertTrue(queryService.findStudents(query.page(3)).isEmpty());
+    }
+
+    @Test
+    void sortByNameUsesTheBoundedHeap() {
+        List<Student> firstPage = queryService.findStudents(StudentQuery.create().sortBy(StudentQuery.SortKey.NAME).limit(3));
+        // Names run from "Student Y" (R00) down to "Student A" (R24), so the last ones sort first.
+        assertEquals(List.of("R24", "R23", "R22"), registrationNumbers(firstPage));
+    }
+
+    @Test
+    void pagesThroughDuplicateSortKeysWithoutRepeatsOrGaps() {
+        StudentService sameNames = new StudentService();
+        for (int i = 0; i < 37; i++) {
+            sameNames.addStudent(new Student("q" + i, String.format("Q%02d", i), "Student " + (i % 3), "same@x.com"));
+        }
+        QueryService queries = new QueryService(sameNames, courseService, enrollmentService);
+        for (StudentQuery.SortKey sortKey : List.of(StudentQuery.SortKey.NAME, StudentQuery.SortKey.EMAIL,
+                StudentQuery.SortKey.CREATION_DATE)) {
+            List<String> seen = new ArrayList<>();
+            for (int page = 0; page < 8; page++) {
+                seen.addAll(registrationNumbers(queries.findStudents(StudentQuery.create().sortBy(sortKey).limit(5).page(page))));
+            }
+            assertEquals(37, seen.size(), sortKey.name());
+            assertEquals(37, new HashSet<>(seen).size(), sortKey.name());
+        }
+
+        CourseService sameCredits = new CourseService();
+        for (int i = 0; i < 12; i++) sameCredits.addCourse(new Course("C" + i, "Same", 3, "I1", Semester.FALL, "CSE"));
+        QueryService courseQueries = new QueryService(studentService, sameCredits, enrollmentService);
+        Set<String> codes = new HashSet<>();
+        for (int page = 0; page < 3; page++) {
+            for (Course course : courseQueries.findCourses(CourseQuery.create().sortBy(CourseQuery.SortKey.CREDITS).limit(5).page(page))) {
+                assertTrue(codes.add(course.getCourseCode()), course.getCourseCode());
+            }
+        }
+        assertEquals(12, codes.size());
+    }
+
+    @Test
+    void filtersCombine() {
+        List<Student> activeInCs101 = queryService.findStudents(StudentQuery.create().enrolledIn("CS101").active(true).limit(100));
+        assertEquals(10, activeInCs101.size()); // 13 even students, minus R00, R10 and R20
+        assertTrue(activeInCs101.stream().allMatch(s -> s.isActive() && s.getEnrolledCourses().contains("CS101")));
+
+        assertEquals(12, queryService.findStudents(StudentQuery.create().department("math").limit(100)).size());
+        assertEquals(12, queryService.findStudents(StudentQuery.create().semester(Semester.SPRING).limit(100)).size());
+    }
+
+    @Test
+    void courseQueriesFilterAndSort() {
+        List<Course> cseBySortedTitle = queryService.findCourses(CourseQuery.create().department("CSE")
+            .sortBy(CourseQuery.SortKey.TITLE));
+        assertEquals(List.of("CS201", "CS101"),
+            cseBySortedTitle.stream().map(Course::getCourseCode).collect(Collectors.toList()));
+        assertEquals(1, queryService.findCourses(CourseQuery.create().instructor("I2")).size());
+        assertEquals(1, queryService.findCourses(CourseQuery.create().sortBy(CourseQuery.SortKey.CREDITS).limit(2).page(1)).size());
+    }
+}
@@ -0,0 +1,109 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SemesterRolloverTest {
+    @TempDir
+    Path directory;
+
+    private final StudentService studentService = new StudentService();
+    private final CourseService courseService = new CourseService();
+    private final EnrollmentService enrollmentService = new EnrollmentService();
+    private final GradingService gradingService = new GradingService(courseService);
+
+    private void populate(int studentCount) {
+        courseService.addCourse(new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"));
+        courseService.addCourse(new Course("MA201", "Linear Algebra", 3, "I2", Semester.SPRING, "MATH"));
+        for (int i = 0; i < studentCount; i++) {
+            Student student = new Student("p" + i, "R" + i, "Student " + i, "s" + i + "@x.com");
+            studentService.addStudent(student);
+            enrollmentService.enrollStudentInCourse(student, courseService.getCourse("CS101"));
+            enrollmentService.enrollStudentInCourse(student, courseService.getCourse("MA201"));
+            if (i % 2 == 0) gradingService.assignMarks(student, "CS101", 70);
+        }
+    }
+
+    @Test
+    void closesTheTermAndKeepsOtherSemestersEnrolled() throws IOException {
+        populate(100);
+        RolloverReport report = new SemesterRollover(studentService, courseService, enrollmentService, directory).run(Semester.FALL);
+
+        assertEquals(100, report.getStudentsProcessed());
+        assertEquals(100, report.getStudentsClosed());
+        assertEquals(50, report.getCompletedEnrollments());
+        assertEquals(50, report.getIncompleteEnrollments());
+        Student student = studentService.getStudent("R0");
+        assertEquals(3, student.getTermCredits());
+        assertTrue(student.getTranscript().get("CS101").isFinalized());
+        assertTrue(enrollmentService.getRoster("CS101").isEmpty());
+        assertEquals(100, enrollmentService.getRoster("MA201").size());
+        assertFalse(Files.exists(directory.resolve(".rollover-FALL.properties")));
+    }
+
+    @Test
+    void aStudentWhoRetakesACourseCanBeGradedAgain() throws IOException {
+        populate(2);
+        new SemesterRollover(studentService, courseService, enrollmentService, directory).run(Semester.FALL);
+        Student student = studentService.getStudent("R0");
+        assertFalse(gradingService.assignMarks(student, "CS101", 90));
+
+        assertTrue(enrollmentService.enrollStudentInCourse(student, courseService.getCourse("CS101")));
+        assertTrue(gradingService.assignMarks(student, "CS101", 90));
+        assertEquals(90, student.getTranscript().get("CS101").getMarks());
+        assertFalse(student.getTranscript().get("CS101").isFinalized());
+        assertEquals(70, student.getCourseHistory().get(0).getMarks());
+    }
+
+    @Test
+    void resumesFromTheCheckpointAndSkipsFinishedPartitions() throws IOException {
+        populate(100);
+        // What an interrupted run leaves behind: two partitions, the first one already done.
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("partitions", "2");
+        checkpoint.setProperty("done.0", "7,7,4,3");
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(".rollover-FALL.properties"))) {
+            checkpoint.store(writer, null);
+        }
+
+        RolloverReport report = new SemesterRollover(studentService, courseService, enrollmentService, directory).run(Semester.FALL);
+
+        assertEquals(2, report.getPartitionCount());
+        assertEquals(1, report.getResumedPartitions());
+        int inSecondPartition = 0;
+        for (Student student : studentService.studentView()) {
+            boolean secondPartition = Math.floorMod(student.getRegistrationNumber().hashCode(), 2) == 1;
+            if (secondPartition) inSecondPartition++;
+            // Only the partition that wasn't done yet gets closed this time.
+            assertEquals(secondPartition ? 3 : 7, student.getTermCredits(), student.getRegistrationNumber());
+        }
+        assertEquals(7 + inSecondPartition, report.getStudentsProcessed());
+        assertFalse(Files.exists(directory.resolve(".rollover-FALL.properties")));
+    }
+
+    @Test
+    void finalGradesCantBeChangedAfterTheRollover() throws IOException {
+        populate(2);
+        new SemesterRollover(studentService, courseService, enrollmentService, directory).run(Semester.FALL);
+        Student student = studentService.getStudent("R0");
+
+        assertFalse(gradingService.recordGrade(student, "CS101", 95, Grade.S));
+        assertFalse(gradingService.assignMarks(student, "CS101", 10));
+        assertEquals(70, student.getTranscript().get("CS101").getMarks());
+        assertEquals(1, gradingService.getCourseStatistics("CS101").getCount());
+        // Nothing stops regrading courses that are still open.
+        assertTrue(gradingService.assignMarks(student, "MA201", 88));
+    }
+}
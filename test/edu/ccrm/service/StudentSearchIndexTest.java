@@ -0,0 +1,84 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentSearchIndexTest {
+
+    private static StudentSearchIndex indexOf(Student... students) {
+        StudentSearchIndex index = new StudentSearchIndex();
+        for (Student student : students) index.index(student);
+        return index;
+    }
+
+    @Test
+    void prefixMatchesAnyWordOfNameOrEmail() {
+        StudentSearchIndex index = indexOf(
+            new Student("1", "R1", "Ishan Reddy", "ishan.reddy@mail.com"),
+            new Student("2", "R2", "Meera Iyer", "meera@uni.edu"));
+        assertEquals(List.of("R1"), index.search("red", 10));
+        assertEquals(List.of("R2"), index.search("uni", 10));
+        assertEquals(List.of("R1"), index.search("ishan@ma", 10));
+    }
+
+    @Test
+    void everyWordHasToMatch() {
+        StudentSearchIndex index = indexOf(
+            new Student("1", "R1", "Ishan Reddy", "a@x.com"),
+            new Student("2", "R2", "Ishan Iyer", "b@x.com"),
+            new Student("3", "R3", "Meera Reddy", "c@x.com"));
+        assertEquals(List.of("R1"), index.search("ish red", 10));
+        assertEquals(List.of("R1"), index.search("red ish", 10));
+        assertTrue(index.search("meera iyer", 10).isEmpty());
+    }
+
+    @Test
+    void misspelledWordFallsBackToFuzzyMatch() {
+        StudentSearchIndex index = indexOf(
+            new Student("1", "R1", "Saanvi Menon", "s@x.com"),
+            new Student("2", "R2", "Saanvi Pillai", "p@x.com"));
+        assertEquals(List.of("R1"), index.search("mennon", 10));
+        assertEquals(List.of("R2"), index.search("saanvi pilai", 10));
+    }
+
+    @Test
+    void limitIsAppliedWhileCollecting() {
+        StudentSearchIndex index = new StudentSearchIndex();
+        for (int i = 0; i < 1000; i++) index.index(new Student("p" + i, "R" + i, "Aarav Number" + i, "a" + i + "@x.com"));
+        assertEquals(5, index.search("a", 5).size());
+        assertEquals(5, index.search("aarav num", 5).size());
+        assertEquals(11, index.search("aarav number42", 50).size()); // number42 and number420..429
+        assertEquals(List.of("R999"), index.search("aarav number999", 5));
+    }
+
+    @Test
+    void reindexingReplacesOldTokensAndRemovePrunes() {
+        Student student = new Student("1", "R1", "Dev Sharma", "dev@x.com");
+        StudentSearchIndex index = indexOf(student);
+        student.setName("Dev Verma");
+        index.index(student);
+        assertTrue(index.search("sharma", 10).isEmpty());
+        assertEquals(List.of("R1"), index.search("verma", 10));
+
+        index.remove("R1");
+        assertEquals(0, index.size());
+        assertTrue(index.search("dev", 10).isEmpty());
+        assertTrue(index.fuzzySearch("verma", 1, 10).isEmpty());
+    }
+
+    @Test
+    void sharedPrefixesSurviveRemovingOneStudent() {
+        StudentSearchIndex index = indexOf(
+            new Student("1", "R1", "Arjun", "a@x.com"),
+            new Student("2", "R2", "Arjuna", "b@x.com"));
+        index.remove("R1");
+        assertEquals(List.of("R2"), index.search("arjun", 10));
+        assertEquals(new HashSet<>(Arrays.asList("R2")), new HashSet<>(index.prefixSearch("arj", 10)));
+    }
+}
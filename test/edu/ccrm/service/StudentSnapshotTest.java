@@ -0,0 +1,75 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentVersion;
+import edu.ccrm.domain.VersionClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentSnapshotTest {
+
+    @Test
+    void snapshotIgnoresChangesMadeAfterItOpened() {
+        StudentService studentService = new StudentService();
+        Student asha = new Student("p1", "R1", "Asha Rao", "asha@x.com");
+        studentService.addStudent(asha);
+        asha.enroll("CS101", 4);
+
+        try (StudentSnapshot snapshot = studentService.openSnapshot()) {
+            asha.addTranscriptEntry("CS101", 91, Grade.S);
+            asha.setName("Asha R.");
+            studentService.addStudent(new Student("p2", "R2", "Ben Ito", "ben@x.com"));
+
+            StudentVersion seen = snapshot.getStudent("R1");
+            assertEquals("Asha Rao", seen.getName());
+            assertTrue(seen.getTranscript().isEmpty());
+            assertNull(snapshot.getStudent("R2"));
+            assertEquals(1, snapshot.students().count());
+        }
+        assertEquals("Asha R.", studentService.getStudent("R1").getName());
+    }
+
+    @Test
+    void closingTwiceReleasesThePinOnce() {
+        int pinnedBefore = VersionClock.getInstance().getPinnedCount();
+        StudentSnapshot snapshot = new StudentService().openSnapshot();
+        assertEquals(pinnedBefore + 1, VersionClock.getInstance().getPinnedCount());
+        snapshot.close();
+        snapshot.close();
+        assertEquals(pinnedBefore, VersionClock.getInstance().getPinnedCount());
+    }
+
+    @Test
+    void readersNeverSeeAHalfAppliedChange() throws InterruptedException {
+        StudentService studentService = new StudentService();
+        Student student = new Student("p1", "R1", "Asha Rao", "asha@x.com");
+        studentService.addStudent(student);
+        AtomicBoolean done = new AtomicBoolean();
+        // Enrolls and grades in lockstep: a consistent state always has as many grades as courses.
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                student.enroll("C" + i, 1);
+                student.addTranscriptEntry("C" + i, 70, Grade.B);
+            }
+            done.set(true);
+        });
+        writer.start();
+        int inconsistent = 0;
+        while (!done.get()) {
+            try (StudentSnapshot snapshot = studentService.openSnapshot()) {
+                StudentVersion seen = snapshot.getStudent("R1");
+                int courses = seen.getEnrolledCourses().size();
+                int grades = seen.getTranscript().size();
+                // A snapshot can land between the two steps, but never anywhere else.
+                if (grades != courses && grades != courses - 1) inconsistent++;
+                if (seen.getTermCredits() != courses) inconsistent++;
+            }
+        }
+        writer.join();
+        assertEquals(0, inconsistent);
+    }
+}
@@ -0,0 +1,54 @@
+package edu.ccrm.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardProtocolTest {
+
+    @Test
+    void awkwardFieldsSurviveARoundTrip() {
+        String[] fields = { "ADD", "tab\there", "line\nbreak", "cr\rhere", "back\\slash", "\\0", "", null, "plain" };
+        String line = ShardProtocol.encode(fields);
+        assertFalse(line.contains("\n"));
+        assertFalse(line.contains("\r"));
+        assertEquals(fields.length - 1, line.chars().filter(c -> c == '\t').count());
+        assertArrayEquals(fields, ShardProtocol.decode(line));
+    }
+
+    @Test
+    void nullAndEmptyFieldsStayDistinct() {
+        assertArrayEquals(new String[] { null }, ShardProtocol.decode(ShardProtocol.encode((String) null)));
+        assertArrayEquals(new String[] { "" }, ShardProtocol.decode(ShardProtocol.encode("")));
+        assertArrayEquals(new String[] { "", null, "" }, ShardProtocol.decode(ShardProtocol.encode("", null, "")));
+    }
+
+    @Test
+    void rowsAreTaggedAndEndWithANewline() throws IOException {
+        StringWriter written = new StringWriter();
+        try (BufferedWriter out = new BufferedWriter(written)) {
+            ShardProtocol.writeRow(out, "R1", "Ada\tLovelace");
+        }
+        String line = written.toString();
+        assertEquals(ShardProtocol.ROW, line.charAt(0));
+        assertTrue(line.endsWith("\n"));
+        assertArrayEquals(new String[] { "R1", "Ada\tLovelace" }, ShardProtocol.decode(line.substring(2, line.length() - 1)));
+    }
+
+    @Test
+    void partitionsAreStableAndInRange() {
+        int[] perPartition = new int[4];
+        for (int i = 0; i < 10_000; i++) {
+            String key = "REG" + i;
+            int partition = ShardProtocol.partitionOf(key, 4);
+            assertEquals(partition, ShardProtocol.partitionOf(key, 4));
+            perPartition[partition]++;
+        }
+        for (int count : perPartition) assertTrue(count > 2_000, "uneven spread: " + count);
+        assertEquals(0, ShardProtocol.partitionOf("anything", 1));
+    }
+}
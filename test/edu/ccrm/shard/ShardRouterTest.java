@@ -0,0 +1,151 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseGradeStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+    private static final int PARTITIONS = 3;
+    private static final int STUDENTS = 300;
+
+    @TempDir
+    Path directory;
+
+    private final List<ShardServer> servers = new ArrayList<>();
+    private ShardRouter router;
+
+    @BeforeEach
+    void startShards() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            ShardServer server = new ShardServer(partition, PARTITIONS);
+            server.start(0, false);
+            servers.add(server);
+            addresses.add(new InetSocketAddress("localhost", server.getPort()));
+        }
+        router = new ShardRouter(addresses);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) students.add(new Student("p" + i, String.format("R%04d", i), "Student " + i, "s" + i + "@x.com"));
+        router.addStudents(students);
+        router.addCourses(Arrays.asList(
+            new Course("CS101", "Intro", 4, "I1", Semester.FALL, "CSE"),
+            new Course("MA101", "Calculus", 3, "I2", Semester.SPRING, "MATH")));
+    }
+
+    @AfterEach
+    void stopShards() {
+        router.close();
+        servers.forEach(ShardServer::stop);
+    }
+
+    @Test
+    void keyedOperationsReachTheOwningShard() throws IOException {
+        assertTrue(router.enroll("R0007", "CS101"));
+        assertFalse(router.enroll("R0007", "NOPE"));
+        assertEquals(Grade.S, router.assignMarks("R0007", "CS101", 95));
+        assertTrue(router.updateStudent("R0007", "Ada", null));
+
+        Student student = router.getStudent("R0007");
+        assertEquals("Ada", student.getName());
+        assertEquals("s7@x.com", student.getEmail());
+        assertEquals(95, student.getTranscript().get("CS101").getMarks());
+        assertNull(router.getStudent("R9999"));
+        assertEquals("Calculus", router.getCourse("MA101").getTitle());
+        assertEquals(Collections.singletonList("MA101"),
+            router.listCourses("MATH").stream().map(Course::getCourseCode).collect(java.util.stream.Collectors.toList()));
+
+        List<ShardRouter.RankedStudent> ranking = router.rankByGPA(1);
+        assertEquals(1, ranking.size());
+        assertEquals("R0007", ranking.get(0).getRegistrationNumber());
+    }
+
+    @Test
+    void onlyEnrolledStudentsOfRealCoursesAreGraded() throws IOException {
+        assertFalse(router.enroll("R9999", "CS101"));
+        assertFalse(router.enroll("R0001", "NOPE"));
+        assertNull(router.assignMarks("R0001", "CS101", 80));
+        assertTrue(router.getStudent("R0001").getTranscript().isEmpty());
+
+        assertTrue(router.enroll("R0001", "CS101"));
+        assertEquals(Grade.A, router.assignMarks("R0001", "CS101", 80));
+    }
+
+    @Test
+    void courseStatisticsAreCombinedFromEveryShard() throws IOException {
+        Set<Integer> partitions = new HashSet<>();
+        int graded = 0;
+        for (int i = 0; i < 30; i++) {
+            String registrationNumber = String.format("R%04d", i);
+            partitions.add(ShardProtocol.partitionOf(registrationNumber, PARTITIONS));
+            assertTrue(router.enroll(registrationNumber, "CS101"));
+            assertNotNull(router.assignMarks(registrationNumber, "CS101", 50 + i));
+            graded++;
+        }
+        assertEquals(PARTITIONS, partitions.size(), "the students should be spread over every shard");
+
+        CourseGradeStatistics statistics = router.getCourseStatistics("CS101");
+        assertEquals(graded, statistics.getCount());
+        assertEquals(64.5, statistics.getMean(), 1e-9);
+        assertEquals(50, statistics.getPercentile(0));
+        assertEquals(79, statistics.getPercentile(100));
+        assertEquals(10, statistics.getGradeCount(Grade.D));
+        assertEquals(10, statistics.getGradeCount(Grade.C));
+        assertEquals(10, statistics.getGradeCount(Grade.B));
+        assertNull(router.getCourseStatistics("MA101"));
+    }
+
+    @Test
+    void forEachStudentVisitsEveryStudentOnce() throws IOException {
+        Set<String> seen = new HashSet<>();
+        long count = router.forEachStudent(student -> assertTrue(seen.add(student.getRegistrationNumber())));
+        assertEquals(STUDENTS, count);
+        assertEquals(STUDENTS, seen.size());
+
+        List<Student> listed = router.listStudents();
+        assertEquals(STUDENTS, listed.size());
+        assertEquals("R0000", listed.get(0).getRegistrationNumber());
+        assertEquals(String.format("R%04d", STUDENTS - 1), listed.get(STUDENTS - 1).getRegistrationNumber());
+    }
+
+    @Test
+    void aFailingActionDoesNotSpoilLaterRequests() throws IOException {
+        assertThrows(IllegalStateException.class, () -> router.forEachStudent(student -> {
+            throw new IllegalStateException("stop");
+        }));
+        assertEquals(STUDENTS, router.forEachStudent(student -> { }));
+        assertNotNull(router.getStudent("R0001"));
+    }
+
+    @Test
+    void exportWritesEveryStudentAsCsv() throws IOException {
+        Path file = directory.resolve("students.csv");
+        assertEquals(STUDENTS, router.exportStudents(file));
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(STUDENTS, lines.size());
+        assertTrue(lines.contains("p42,R0042,Student 42,s42@x.com"));
+        assertEquals(STUDENTS, new HashSet<>(lines).size());
+    }
+
+    @Test
+    void aShardWithDifferentSettingsIsRefused() {
+        InetSocketAddress partitionZero = new InetSocketAddress("localhost", servers.get(0).getPort());
+        try (ShardRouter mismatched = new ShardRouter(Collections.singletonList(partitionZero))) {
+            IOException e = assertThrows(IOException.class, () -> mismatched.getStudent("R0001"));
+            assertTrue(e.getMessage().contains("doesn't match"), e.getMessage());
+        }
+    }
+}
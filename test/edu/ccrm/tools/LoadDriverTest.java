@@ -0,0 +1,59 @@
+package edu.ccrm.tools;
+
+import edu.ccrm.util.AsyncLogger;
+import edu.ccrm.util.LogLevel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadDriverTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void generatorIsReproducibleAndRegistrationNumbersAreUnique() {
+        DatasetGenerator first = new DatasetGenerator(7, 5000, 100, 4);
+        DatasetGenerator second = new DatasetGenerator(7, 5000, 100, 4);
+        Set<String> registrationNumbers = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(first.student(i).getName(), second.student(i).getName());
+            assertArrayEquals(first.enrollmentsFor(i), second.enrollmentsFor(i));
+            assertTrue(registrationNumbers.add(first.student(i).getRegistrationNumber()));
+            for (int course : first.enrollmentsFor(i)) {
+                assertTrue(course >= 0 && course < 100);
+                int marks = first.marksFor(i, course);
+                assertTrue(marks >= 0 && marks <= 100);
+            }
+        }
+    }
+
+    @Test
+    void stopsAtTheDeadlineAndCountsWhatItMissed() throws IOException {
+        AsyncLogger.getInstance().setLevel(LogLevel.WARN);
+        try {
+            LoadDriver driver = new LoadDriver(new DatasetGenerator(1, 20_000, 50, 3), 1, directory);
+            driver.populate();
+            Map<LoadDriver.Operation, Integer> exportsOnly = new EnumMap<>(LoadDriver.Operation.class);
+            exportsOnly.put(LoadDriver.Operation.EXPORT, 1);
+
+            // 1000 exports of 20k students can't possibly fit in one second.
+            long start = System.nanoTime();
+            long operationsRun = driver.run(1000, 1, exportsOnly);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            assertTrue(elapsedSeconds < 2.5, "ran for " + elapsedSeconds + " s");
+            assertTrue(driver.getMissedOperations() > 0);
+            assertEquals(1000, operationsRun + driver.getMissedOperations());
+        } finally {
+            AsyncLogger.getInstance().setLevel(LogLevel.INFO);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package edu.ccrm.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLoggerTest {
+    private final AsyncLogger logger = AsyncLogger.getInstance();
+
+    @AfterEach
+    void restoreDefaults() {
+        logger.setLevel(LogLevel.INFO);
+    }
+
+    @Test
+    void aFieldThatThrowsDoesNotStopTheWriter() {
+        Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("no text for you");
+            }
+        };
+        AsyncLogger.Logger log = AsyncLogger.forComponent("AsyncLoggerTest");
+        log.warn("This one can't be formatted.", "field", broken);
+        assertTrue(logger.flush(10, TimeUnit.SECONDS));
+        // The writer is still there to take later events.
+        log.warn("This one can.", "field", "fine");
+        assertTrue(logger.flush(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void quietScopeOnlyAffectsTheThreadThatOpenedIt() throws InterruptedException {
+        CountDownLatch scopeOpen = new CountDownLatch(1);
+        AtomicBoolean otherThreadLogsInfo = new AtomicBoolean();
+        // Started before the scope opens, so it can't inherit it.
+        Thread other = new Thread(() -> {
+            try {
+                scopeOpen.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            otherThreadLogsInfo.set(logger.isEnabled(LogLevel.INFO));
+        });
+        other.start();
+        try (AsyncLogger.QuietScope quiet = logger.quietScope(LogLevel.WARN, AsyncLogger.OverflowPolicy.DROP)) {
+            assertFalse(logger.isEnabled(LogLevel.INFO));
+            assertTrue(logger.isEnabled(LogLevel.WARN));
+            assertEquals(LogLevel.INFO, logger.getLevel());
+            assertEquals(AsyncLogger.OverflowPolicy.BLOCK, logger.getOverflowPolicy());
+            scopeOpen.countDown();
+            other.join();
+        }
+        assertTrue(otherThreadLogsInfo.get());
+        assertTrue(logger.isEnabled(LogLevel.INFO));
+    }
+
+    @Test
+    void threadsStartedInsideTheScopeInheritItUntilItCloses() throws InterruptedException {
+        CountDownLatch checkedWhileOpen = new CountDownLatch(1);
+        CountDownLatch scopeClosed = new CountDownLatch(1);
+        AtomicBoolean infoWhileOpen = new AtomicBoolean(true);
+        AtomicBoolean infoAfterClose = new AtomicBoolean(false);
+        Thread worker;
+        try (AsyncLogger.QuietScope quiet = logger.quietScope(LogLevel.WARN, AsyncLogger.OverflowPolicy.DROP)) {
+            worker = new Thread(() -> {
+                infoWhileOpen.set(logger.isEnabled(LogLevel.INFO));
+                checkedWhileOpen.countDown();
+                try {
+                    scopeClosed.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Like a long-lived pool thread: it inherited the scope, but the scope is over now.
+                infoAfterClose.set(logger.isEnabled(LogLevel.INFO));
+            });
+            worker.start();
+            checkedWhileOpen.await();
+        }
+        scopeClosed.countDown();
+        worker.join();
+        assertFalse(infoWhileOpen.get());
+        assertTrue(infoAfterClose.get());
+    }
+
+    @Test
+    void globalLevelChangesDuringAScopeSurviveIt() {
+        try (AsyncLogger.QuietScope quiet = logger.quietScope(LogLevel.WARN, AsyncLogger.OverflowPolicy.DROP)) {
+            // What a config reload does in the middle of an import.
+            logger.setLevel(LogLevel.ERROR);
+            assertFalse(logger.isEnabled(LogLevel.WARN));
+        }
+        assertEquals(LogLevel.ERROR, logger.getLevel());
+        assertFalse(logger.isEnabled(LogLevel.WARN));
+    }
+
+    @Test
+    void nestedScopesRestoreTheEnclosingOne() {
+        try (AsyncLogger.QuietScope outer = logger.quietScope(LogLevel.WARN, AsyncLogger.OverflowPolicy.DROP)) {
+            try (AsyncLogger.QuietScope inner = logger.quietScope(LogLevel.ERROR, AsyncLogger.OverflowPolicy.DROP)) {
+                assertFalse(logger.isEnabled(LogLevel.WARN));
+            }
+            assertTrue(logger.isEnabled(LogLevel.WARN));
+            assertFalse(logger.isEnabled(LogLevel.INFO));
+        }
+        assertTrue(logger.isEnabled(LogLevel.INFO));
+    }
+}
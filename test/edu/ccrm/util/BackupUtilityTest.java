@@ -0,0 +1,73 @@
+package edu.ccrm.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackupUtilityTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void copiesTheWholeTreeButNotABackupFolderInsideIt() throws Exception {
+        Path source = directory.resolve("data");
+        Files.createDirectories(source.resolve("reports/2024"));
+        Files.writeString(source.resolve("students.csv"), "p1,R1,Asha Rao,asha@x.com\n");
+        Files.writeString(source.resolve("reports/2024/summary.txt"), "all good");
+        Files.write(source.resolve("big.bin"), new byte[600_000]); // Bigger than one copy chunk.
+        Path destination = source.resolve("backups/today");
+        Files.createDirectories(destination);
+
+        BackupProgress progress = new BackupProgress(source, destination);
+        BackupUtility.backupDirectory(source, destination, IoThrottle.UNLIMITED, 2, progress);
+
+        assertEquals("all good", Files.readString(destination.resolve("reports/2024/summary.txt")));
+        assertEquals(600_000, Files.size(destination.resolve("big.bin")));
+        // The backup doesn't copy itself into itself.
+        assertFalse(Files.exists(destination.resolve("backups/today")));
+        assertEquals(3, progress.getTotalFiles());
+        assertEquals(3, progress.getCopiedFiles());
+        assertEquals(progress.getTotalBytes(), progress.getCopiedBytes());
+        assertEquals(0, progress.getFailedFiles());
+    }
+
+    @Test
+    void missingSourceIsAnError() {
+        assertThrows(IOException.class,
+            () -> BackupUtility.backupDirectory(directory.resolve("nope"), directory.resolve("out")));
+    }
+
+    @Test
+    void cancellingStopsTheCopyEarly() throws Exception {
+        Path source = directory.resolve("data");
+        Files.createDirectories(source);
+        for (int i = 0; i < 50; i++) Files.writeString(source.resolve("file" + i + ".csv"), "row " + i);
+        Path destination = directory.resolve("backup");
+        BackupProgress progress = new BackupProgress(source, destination);
+        // Ten files a second, so the whole copy would take about five seconds.
+        IoThrottle throttle = new IoThrottle(0, 10);
+
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                return;
+            }
+            progress.cancel();
+        });
+        canceller.start();
+        long start = System.nanoTime();
+        BackupUtility.backupDirectory(source, destination, throttle, 2, progress);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        canceller.join();
+
+        assertTrue(progress.isCancelRequested());
+        assertTrue(progress.getCopiedFiles() < 50);
+        assertTrue(elapsedMillis < 3_000, "took " + elapsedMillis + " ms");
+    }
+}
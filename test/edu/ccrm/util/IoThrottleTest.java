@@ -0,0 +1,50 @@
+package edu.ccrm.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IoThrottleTest {
+
+    @Test
+    void filesPerSecondSpacesOutAcquisitions() throws InterruptedException {
+        IoThrottle throttle = new IoThrottle(0, 100);
+        long start = System.nanoTime();
+        for (int i = 0; i < 21; i++) throttle.acquireFile();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        // The first file goes straight away and the next twenty are 10 ms apart.
+        assertTrue(elapsedMillis >= 190, "took only " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void bytesPerSecondIsSharedBetweenThreads() throws InterruptedException {
+        IoThrottle throttle = new IoThrottle(1_000_000, 0);
+        Runnable copier = () -> {
+            try {
+                for (int i = 0; i < 5; i++) throttle.acquireBytes(25_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        long start = System.nanoTime();
+        Thread first = new Thread(copier);
+        Thread second = new Thread(copier);
+        first.start();
+        second.start();
+        first.join();
+        second.join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        // 250 KB at 1 MB/s between them; the last reservation starts after 225 KB have gone through.
+        assertTrue(elapsedMillis >= 220, "took only " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void unlimitedNeverWaits() throws InterruptedException {
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            IoThrottle.UNLIMITED.acquireFile();
+            IoThrottle.UNLIMITED.acquireBytes(1 << 20);
+        }
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+    }
+}